@@ -9,6 +9,8 @@ plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
     id("com.github.johnrengelman.shadow") version "8.1.1" 
+    // Adds the 'jmh' source set and task, see the jmh block below.
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -46,6 +48,21 @@ tasks.shadowJar {
   archiveClassifier.set("")
 }
 
+// Benchmarks live in src/jmh/java and run with './gradlew jmh'. Results are written to
+// build/results/jmh/results.json. Synthetic databases are generated on the first run and reused.
+jmh {
+    jmhVersion.set("1.37")
+    // Reports the allocation rate of every benchmark next to its throughput
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    jvmArgs.addAll(
+        "-Xmx8g",
+        "-Dtempus.benchmark.dir=" + layout.buildDirectory.dir("jmh-databases").get().asFile.absolutePath)
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
@@ -0,0 +1,47 @@
+package me.eeshe.tempus.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import me.eeshe.tempus.command.GenerateCommand;
+import me.eeshe.tempus.database.ConnectionProfile;
+import me.eeshe.tempus.util.DayBucketer;
+import me.eeshe.tempus.util.SyntheticTimerEntryGenerator;
+
+/**
+ * Synthetic databases shared by the benchmarks. Each size is generated once
+ * into the 'tempus.benchmark.dir' directory and reused by later runs, since
+ * writing millions of TimerEntries takes far longer than measuring them.
+ */
+public class BenchmarkDatabases {
+  private static final String DIRECTORY_PROPERTY = "tempus.benchmark.dir";
+  private static final long SEED = 42;
+  private static final int HISTORY_YEARS = 5;
+
+  /**
+   * Returns the ConnectionProfile of the database with the passed amount of
+   * TimerEntries, generating it first if it doesn't exist yet.
+   *
+   * @param entryCount Amount of TimerEntries of the database.
+   * @return ConnectionProfile pointing to the database.
+   * @throws IOException  If the database file couldn't be created.
+   * @throws SQLException If the TimerEntries couldn't be written.
+   */
+  public static ConnectionProfile open(int entryCount) throws IOException, SQLException {
+    final Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY, "build/jmh-databases"));
+    Files.createDirectories(directory);
+    final Path databasePath = directory.resolve("tempus-" + entryCount + ".db");
+    final ConnectionProfile connectionProfile = ConnectionProfile.fromSystemProperties();
+    if (!Files.exists(databasePath)) {
+      // Fixed seed, so every run measures the same data
+      final ZoneId zoneId = DayBucketer.getConfiguredZoneId();
+      GenerateCommand.generate(connectionProfile, databasePath, new SyntheticTimerEntryGenerator(SEED, entryCount,
+          HISTORY_YEARS, LocalDate.now(zoneId), zoneId));
+    }
+    return connectionProfile.withDatabasePath(databasePath.toString());
+  }
+}
@@ -0,0 +1,77 @@
+package me.eeshe.tempus.model;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures grouping the TimerEntries of a day and reading its totals, which
+ * the list screen does for every day and group header it draws.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DailyTimerEntriesBenchmark {
+  private static final int GROUP_COUNT = 10;
+
+  @Param({"10", "100", "1000"})
+  public int entriesPerDay;
+
+  private List<TimerEntry> timerEntries;
+  private DailyTimerEntries dailyTimerEntries;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(42);
+    final LocalDate date = LocalDate.of(2024, 1, 1);
+    final long dayStartMillis = date.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    timerEntries = new ArrayList<>(entriesPerDay);
+    for (int index = 0; index < entriesPerDay; index++) {
+      timerEntries.add(new TimerEntry(
+          "project-" + random.nextInt(GROUP_COUNT),
+          null,
+          "entry " + index,
+          null,
+          null,
+          List.of(),
+          true,
+          dayStartMillis + random.nextInt(86_400_000),
+          random.nextInt(3_600_000)));
+    }
+    dailyTimerEntries = new DailyTimerEntries(date);
+    timerEntries.forEach(dailyTimerEntries::addTimerEntry);
+  }
+
+  @Benchmark
+  public DailyTimerEntries addTimerEntries() {
+    DailyTimerEntries newDailyTimerEntries = new DailyTimerEntries(dailyTimerEntries.getDate());
+    for (TimerEntry timerEntry : timerEntries) {
+      newDailyTimerEntries.addTimerEntry(timerEntry);
+    }
+    return newDailyTimerEntries;
+  }
+
+  /**
+   * Reads the day total and the total of every group, as a redraw does.
+   */
+  @Benchmark
+  public void computeElapsedTimeMillis(Blackhole blackhole) {
+    blackhole.consume(dailyTimerEntries.computeElapsedTimeMillis());
+    for (String projectTaskString : dailyTimerEntries.getTimerEntries().keySet()) {
+      blackhole.consume(dailyTimerEntries.computeElapsedTimeMillis(projectTaskString));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package me.eeshe.tempus.model;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import me.eeshe.tempus.util.SyntheticTimerEntryGenerator;
+
+/**
+ * Measures aggregating EntryColumns, which the whole history of a large
+ * database fits in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EntryColumnsBenchmark {
+  @Param({"10000", "1000000"})
+  public int entryCount;
+
+  private EntryColumns entryColumns;
+
+  @Setup
+  public void setUp() {
+    final SyntheticTimerEntryGenerator generator = new SyntheticTimerEntryGenerator(42, entryCount, 5,
+        LocalDate.of(2024, 12, 31), ZoneId.of("UTC"));
+    entryColumns = new EntryColumns();
+    while (generator.hasNext()) {
+      final TimerEntry timerEntry = generator.next();
+      // The generator names its dictionary values after their index
+      entryColumns.add(
+          timerEntry.getStartTimeMillis(),
+          timerEntry.getDurationMillis(),
+          parseIndex(timerEntry.getProjectName()) + 1,
+          parseIndex(timerEntry.getClientName()) + 1,
+          timerEntry.getTask() == null ? 0 : parseIndex(timerEntry.getTask()) + 1,
+          timerEntry.isBillable());
+    }
+  }
+
+  @Benchmark
+  public long computeTotalMillis() {
+    return entryColumns.computeTotalMillis();
+  }
+
+  @Benchmark
+  public long computeBillableMillis() {
+    return entryColumns.computeBillableMillis();
+  }
+
+  @Benchmark
+  public long[] computeTotalMillisByProject() {
+    return entryColumns.computeTotalMillisByProject();
+  }
+
+  private static int parseIndex(String name) {
+    return Integer.parseInt(name.substring(name.indexOf('-') + 1));
+  }
+}
@@ -0,0 +1,97 @@
+package me.eeshe.tempus.service;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.eeshe.tempus.benchmark.BenchmarkDatabases;
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.DailyTimerEntries;
+import me.eeshe.tempus.model.EntryColumns;
+import me.eeshe.tempus.model.TimerEntryFilter;
+import me.eeshe.tempus.model.TimerEntryPage;
+
+/**
+ * Measures reading TimerEntries back from databases of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimerEntryServiceBenchmark {
+  private static final int PAGE_DAYS = 14;
+  private static final int PARSED_ROWS = 10_000;
+
+  @Param({"10000", "1000000", "10000000"})
+  public int entryCount;
+
+  private SQLiteManager sqLiteManager;
+  private TimerEntryService timerEntryService;
+
+  @Setup
+  public void setUp() throws IOException, SQLException {
+    sqLiteManager = new SQLiteManager(BenchmarkDatabases.open(entryCount));
+    timerEntryService = new TimerEntryService(sqLiteManager);
+  }
+
+  @TearDown
+  public void tearDown() {
+    timerEntryService.close();
+    sqLiteManager.close();
+  }
+
+  /**
+   * Loads the whole history, as the list screen did before it was paged.
+   */
+  @Benchmark
+  public Map<LocalDate, DailyTimerEntries> fetchAllDaily() {
+    return timerEntryService.fetchAllDaily();
+  }
+
+  /**
+   * Loads the newest page of the list screen.
+   */
+  @Benchmark
+  public TimerEntryPage fetchNewestPage() throws SQLException {
+    return timerEntryService.fetchDailyPage(null, PAGE_DAYS);
+  }
+
+  /**
+   * Streams a fixed amount of rows, which is dominated by parseTimerEntry.
+   */
+  @Benchmark
+  public void parseTimerEntries(Blackhole blackhole) throws SQLException {
+    final TimerEntryFilter timerEntryFilter = new TimerEntryFilter()
+        .setDescending(true)
+        .setLimit(PARSED_ROWS);
+    timerEntryService.forEach(timerEntryFilter, blackhole::consume);
+  }
+
+  /**
+   * Loads the whole history as EntryColumns, to compare with fetchAllDaily.
+   */
+  @Benchmark
+  public EntryColumns fetchAllColumns() throws SQLException {
+    return timerEntryService.fetchColumns(null, null);
+  }
+
+  /**
+   * Rebuilds the DailyRollup totals from EntryColumns of the whole history.
+   */
+  @Benchmark
+  public int rebuildDailyRollup() throws SQLException {
+    return timerEntryService.rebuildDailyRollup();
+  }
+}
@@ -0,0 +1,83 @@
+package me.eeshe.tempus.ui;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+
+import me.eeshe.tempus.benchmark.BenchmarkDatabases;
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.service.ReportService;
+import me.eeshe.tempus.service.RunningTimerService;
+import me.eeshe.tempus.service.TimerEntryService;
+
+/**
+ * Measures building and drawing the rows of the newest page of the list
+ * screen on a virtual terminal, so it runs headless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimerEntryListScreenBenchmark {
+  private static final TerminalSize TERMINAL_SIZE = new TerminalSize(160, 50);
+
+  @Param({"10000", "1000000", "10000000"})
+  public int entryCount;
+
+  private SQLiteManager sqLiteManager;
+  private TimerEntryService timerEntryService;
+  private ReportService reportService;
+  private TerminalScreen screen;
+  private TimerEntryListScreen timerEntryListScreen;
+
+  @Setup
+  public void setUp() throws IOException, SQLException {
+    sqLiteManager = new SQLiteManager(BenchmarkDatabases.open(entryCount));
+    timerEntryService = new TimerEntryService(sqLiteManager);
+    reportService = new ReportService(sqLiteManager);
+    screen = new TerminalScreen(new DefaultVirtualTerminal(TERMINAL_SIZE));
+    screen.startScreen();
+    timerEntryListScreen = new TimerEntryListScreen(timerEntryService, new RunningTimerService(sqLiteManager),
+        reportService);
+    timerEntryListScreen.attach(screen);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    timerEntryListScreen.detach();
+    screen.stopScreen();
+    reportService.close();
+    timerEntryService.close();
+    sqLiteManager.close();
+  }
+
+  /**
+   * Rebuilds and draws the rows into the back buffer of the screen.
+   */
+  @Benchmark
+  public void buildRows() {
+    timerEntryListScreen.render(screen);
+  }
+
+  /**
+   * Rebuilds the rows and flushes the frame to the virtual terminal.
+   */
+  @Benchmark
+  public void renderFrame() throws IOException {
+    timerEntryListScreen.render(screen);
+    screen.refresh();
+  }
+}
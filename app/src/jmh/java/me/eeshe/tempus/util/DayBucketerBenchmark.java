@@ -0,0 +1,66 @@
+package me.eeshe.tempus.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures finding the day of a time, done for every TimerEntry grouped into
+ * the list or a report, against converting it through a ZonedDateTime.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DayBucketerBenchmark {
+  private static final ZoneId ZONE_ID = ZoneId.of("Europe/Madrid");
+  private static final long STEP_MILLIS = TimeUnit.MINUTES.toMillis(97);
+  private static final long HISTORY_MILLIS = TimeUnit.DAYS.toMillis(5 * 365);
+
+  private DayBucketer dayBucketer;
+  private long firstMillis;
+  private long epochMillis;
+
+  @Setup
+  public void setUp() {
+    dayBucketer = new DayBucketer(ZONE_ID);
+    firstMillis = System.currentTimeMillis() - HISTORY_MILLIS;
+    epochMillis = firstMillis;
+    // Computes the day boundaries of the whole history up front
+    dayBucketer.getDate(firstMillis);
+  }
+
+  @Benchmark
+  public LocalDate getDate() {
+    return dayBucketer.getDate(nextMillis());
+  }
+
+  @Benchmark
+  public LocalDate convertZonedDateTime() {
+    return Instant.ofEpochMilli(nextMillis()).atZone(ZONE_ID).toLocalDate();
+  }
+
+  @Benchmark
+  public int getMinuteOfDay() {
+    return dayBucketer.getMinuteOfDay(nextMillis());
+  }
+
+  /**
+   * Steps through five years of history so every day is hit.
+   */
+  private long nextMillis() {
+    epochMillis += STEP_MILLIS;
+    if (epochMillis - firstMillis >= HISTORY_MILLIS) {
+      epochMillis = firstMillis;
+    }
+    return epochMillis;
+  }
+}
@@ -0,0 +1,43 @@
+package me.eeshe.tempus.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures formatting durations, done for every row and header on each
+ * redraw and every second for each running timer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimeFormatUtilBenchmark {
+  private final StringBuilder stringBuilder = new StringBuilder();
+  private long milliseconds;
+  private int minuteOfDay;
+
+  @Benchmark
+  public String formatMillisecondsToHHMMSS() {
+    // Steps through a day of distinct values so no result can be constant folded
+    milliseconds = (milliseconds + 1_001) % 86_400_000;
+    return TimeFormatUtil.formatMillisecondsToHHMMSS(milliseconds);
+  }
+
+  @Benchmark
+  public StringBuilder appendHHMMSS() {
+    milliseconds = (milliseconds + 1_001) % 86_400_000;
+    stringBuilder.setLength(0);
+    return TimeFormatUtil.appendHHMMSS(stringBuilder, milliseconds);
+  }
+
+  @Benchmark
+  public String formatHHMM() {
+    minuteOfDay = (minuteOfDay + 7) % 1440;
+    return TimeFormatUtil.formatHHMM(minuteOfDay);
+  }
+}
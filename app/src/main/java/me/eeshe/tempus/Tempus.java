@@ -3,18 +3,105 @@
  */
 package me.eeshe.tempus;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
 
+import me.eeshe.tempus.command.Command;
+import me.eeshe.tempus.command.ExportCommand;
+import me.eeshe.tempus.command.GenerateCommand;
+import me.eeshe.tempus.command.ImportCommand;
+import me.eeshe.tempus.command.ReportCommand;
+import me.eeshe.tempus.command.RollupCommand;
 import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.service.ReportService;
+import me.eeshe.tempus.service.RunningTimerService;
 import me.eeshe.tempus.service.TimerEntryService;
 import me.eeshe.tempus.ui.TimerEntryListScreen;
 
 public class Tempus {
+  private static TimerEntryService timerEntryService;
+  private static ReportService reportService;
+
   public static void main(String[] args) {
+    // Connects and migrates on first use, so commands that don't need the database never open it
     SQLiteManager sqLiteManager = new SQLiteManager();
-    TimerEntryService timerEntryService = new TimerEntryService(sqLiteManager);
 
-    DefaultTerminalFactory terminalFactory = new DefaultTerminalFactory();
-    new TimerEntryListScreen(timerEntryService).open(terminalFactory);
+    int exitCode = 0;
+    if (args.length == 0) {
+      DefaultTerminalFactory terminalFactory = new DefaultTerminalFactory();
+      RunningTimerService runningTimerService = new RunningTimerService(sqLiteManager);
+      new TimerEntryListScreen(getTimerEntryService(sqLiteManager), runningTimerService,
+          getReportService(sqLiteManager)).open(terminalFactory);
+      runningTimerService.close();
+    } else {
+      List<Command> commands = List.of(
+          new ImportCommand(() -> getTimerEntryService(sqLiteManager)),
+          new ExportCommand(() -> getTimerEntryService(sqLiteManager)),
+          new RollupCommand(() -> getTimerEntryService(sqLiteManager)),
+          new ReportCommand(() -> getReportService(sqLiteManager)),
+          new GenerateCommand(sqLiteManager.getConnectionProfile()));
+      exitCode = runCommand(commands, args);
+    }
+
+    if (reportService != null) {
+      reportService.close();
+    }
+    if (timerEntryService != null) {
+      timerEntryService.close();
+    }
+    sqLiteManager.close();
+    System.exit(exitCode);
+  }
+
+  /**
+   * Returns the TimerEntryService, creating it on the first call.
+   *
+   * @param sqLiteManager SQLiteManager of the database.
+   * @return TimerEntryService of the database.
+   */
+  private static TimerEntryService getTimerEntryService(SQLiteManager sqLiteManager) {
+    if (timerEntryService == null) {
+      timerEntryService = new TimerEntryService(sqLiteManager);
+    }
+    return timerEntryService;
+  }
+
+  /**
+   * Returns the ReportService, creating it on the first call. The
+   * TimerEntryService is created first, as it migrates the schema and keeps
+   * the DailyRollup reports are read from in the configured zone.
+   *
+   * @param sqLiteManager SQLiteManager of the database.
+   * @return ReportService of the database.
+   */
+  private static ReportService getReportService(SQLiteManager sqLiteManager) {
+    if (reportService == null) {
+      getTimerEntryService(sqLiteManager);
+      reportService = new ReportService(sqLiteManager);
+    }
+    return reportService;
+  }
+
+  /**
+   * Runs the Command named by the first argument, passing it the rest of the
+   * arguments.
+   *
+   * @param commands Available Commands.
+   * @param args     Command line arguments.
+   * @return Exit code of the Command.
+   */
+  private static int runCommand(List<Command> commands, String[] args) {
+    for (Command command : commands) {
+      if (command.getName().equals(args[0])) {
+        return command.execute(Arrays.copyOfRange(args, 1, args.length));
+      }
+    }
+    System.err.println("Unknown command " + args[0] + ". Available commands:");
+    for (Command command : commands) {
+      System.err.println("  " + command.getUsage());
+    }
+    return 1;
   }
 }
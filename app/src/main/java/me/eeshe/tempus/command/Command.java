@@ -0,0 +1,29 @@
+package me.eeshe.tempus.command;
+
+/**
+ * Headless command run from the command line, e.g. 'tempus import file.csv'.
+ */
+public interface Command {
+
+  /**
+   * Returns the name used to invoke the Command.
+   *
+   * @return Name of the Command.
+   */
+  String getName();
+
+  /**
+   * Returns the usage line shown when the Command is invoked incorrectly.
+   *
+   * @return Usage of the Command.
+   */
+  String getUsage();
+
+  /**
+   * Runs the Command.
+   *
+   * @param args Arguments passed after the Command name.
+   * @return Process exit code, 0 on success.
+   */
+  int execute(String[] args);
+}
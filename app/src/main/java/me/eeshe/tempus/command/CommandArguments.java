@@ -0,0 +1,84 @@
+package me.eeshe.tempus.command;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arguments of a Command, split into positional arguments and '--name value'
+ * options.
+ */
+class CommandArguments {
+  private final List<String> positionalArguments = new ArrayList<>();
+  private final Map<String, String> options = new HashMap<>();
+
+  /**
+   * Parses the passed arguments.
+   *
+   * @param args Arguments to parse.
+   * @throws IllegalArgumentException If an option is missing its value.
+   */
+  CommandArguments(String[] args) {
+    for (int index = 0; index < args.length; index++) {
+      final String arg = args[index];
+      if (!arg.startsWith("--")) {
+        positionalArguments.add(arg);
+        continue;
+      }
+      if (index + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for option " + arg);
+      }
+      options.put(arg.substring(2), args[++index]);
+    }
+  }
+
+  List<String> getPositionalArguments() {
+    return positionalArguments;
+  }
+
+  String getOption(String name, String defaultValue) {
+    return options.getOrDefault(name, defaultValue);
+  }
+
+  /**
+   * Returns the passed option parsed as a 'YYYY-MM-DD' date.
+   *
+   * @param name Name of the option.
+   * @return Parsed date, or null if the option wasn't passed.
+   * @throws IllegalArgumentException If the option isn't a valid date.
+   */
+  LocalDate getDateOption(String name) {
+    final String value = options.get(name);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date for --" + name + ": " + value);
+    }
+  }
+
+  /**
+   * Returns the passed option parsed as a long.
+   *
+   * @param name         Name of the option.
+   * @param defaultValue Value returned if the option wasn't passed.
+   * @return Parsed value.
+   * @throws IllegalArgumentException If the option isn't a valid number.
+   */
+  long getLongOption(String name, long defaultValue) {
+    final String value = options.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number for --" + name + ": " + value);
+    }
+  }
+}
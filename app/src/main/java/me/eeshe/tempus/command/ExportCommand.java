@@ -0,0 +1,219 @@
+package me.eeshe.tempus.command;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Supplier;
+
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.model.TimerEntryFilter;
+import me.eeshe.tempus.service.TimerEntryService;
+import me.eeshe.tempus.util.CsvWriter;
+import me.eeshe.tempus.util.DayBucketer;
+
+/**
+ * Exports stored TimerEntries as a Toggl style CSV or as JSON. Rows are
+ * streamed from the database straight into a buffered writer, so memory use
+ * stays constant regardless of the size of the history.
+ */
+public class ExportCommand implements Command {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final String STANDARD_OUTPUT = "-";
+
+  private final Supplier<TimerEntryService> timerEntryService;
+
+  public ExportCommand(Supplier<TimerEntryService> timerEntryService) {
+    this.timerEntryService = timerEntryService;
+  }
+
+  @Override
+  public String getName() {
+    return "export";
+  }
+
+  @Override
+  public String getUsage() {
+    return "tempus export <file|-> [--format csv|json] [--from YYYY-MM-DD] [--to YYYY-MM-DD] [--project NAME] " +
+        "[--tag NAME]";
+  }
+
+  @Override
+  public int execute(String[] args) {
+    final TimerEntryFilter timerEntryFilter;
+    final String output;
+    final String format;
+    try {
+      CommandArguments commandArguments = new CommandArguments(args);
+      if (commandArguments.getPositionalArguments().size() != 1) {
+        System.err.println("Usage: " + getUsage());
+        return 1;
+      }
+      output = commandArguments.getPositionalArguments().get(0);
+      format = commandArguments.getOption("format", "csv");
+      if (!format.equals("csv") && !format.equals("json")) {
+        System.err.println("Unknown format " + format + ". Usage: " + getUsage());
+        return 1;
+      }
+      timerEntryFilter = createFilter(commandArguments);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      return 1;
+    }
+
+    try (Writer writer = createWriter(output)) {
+      if (format.equals("csv")) {
+        exportCsv(timerEntryFilter, writer);
+      } else {
+        exportJson(timerEntryFilter, writer);
+      }
+      return 0;
+    } catch (UncheckedIOException e) {
+      System.err.println("Error writing " + output + ": " + e.getCause().getMessage());
+    } catch (IOException e) {
+      System.err.println("Error writing " + output + ": " + e.getMessage());
+    } catch (SQLException e) {
+      System.err.println("Error reading entries: " + e.getMessage());
+    }
+    return 1;
+  }
+
+  private TimerEntryFilter createFilter(CommandArguments commandArguments) {
+    final ZoneId zoneId = DayBucketer.getConfiguredZoneId();
+    final LocalDate from = commandArguments.getDateOption("from");
+    final LocalDate to = commandArguments.getDateOption("to");
+    TimerEntryFilter timerEntryFilter = new TimerEntryFilter()
+        .setFromMillis(from == null ? null : from.atStartOfDay(zoneId).toInstant().toEpochMilli())
+        // The end date is inclusive, so the bound is the start of the next day
+        .setToMillis(to == null ? null : to.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli())
+        .setProjectName(commandArguments.getOption("project", null));
+    final String tag = commandArguments.getOption("tag", null);
+    if (tag != null) {
+      timerEntryFilter.addTag(tag);
+    }
+    return timerEntryFilter;
+  }
+
+  private Writer createWriter(String output) throws IOException {
+    final OutputStream outputStream;
+    if (output.equals(STANDARD_OUTPUT)) {
+      outputStream = new NonClosingOutputStream(System.out);
+    } else {
+      outputStream = Files.newOutputStream(Path.of(output));
+    }
+    return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+
+  private void exportCsv(TimerEntryFilter timerEntryFilter, Writer writer) throws IOException, SQLException {
+    final ZoneId zoneId = DayBucketer.getConfiguredZoneId();
+    final CsvWriter csvWriter = new CsvWriter(writer);
+    csvWriter.writeRecord(TogglCsvFormat.HEADERS.toArray(new String[0]));
+    timerEntryService.get().forEach(timerEntryFilter, timerEntry -> {
+      try {
+        csvWriter.writeRecord(TogglCsvFormat.format(timerEntry, zoneId));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    csvWriter.flush();
+  }
+
+  private void exportJson(TimerEntryFilter timerEntryFilter, Writer writer) throws IOException, SQLException {
+    writer.write('[');
+    final boolean[] firstEntry = { true };
+    timerEntryService.get().forEach(timerEntryFilter, timerEntry -> {
+      try {
+        writer.write(firstEntry[0] ? "\n" : ",\n");
+        firstEntry[0] = false;
+        writeJson(timerEntry, writer);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    writer.write("\n]\n");
+  }
+
+  private void writeJson(TimerEntry timerEntry, Writer writer) throws IOException {
+    writer.write("{\"projectName\":");
+    writeJsonString(timerEntry.getProjectName(), writer);
+    writer.write(",\"clientName\":");
+    writeJsonString(timerEntry.getClientName(), writer);
+    writer.write(",\"description\":");
+    writeJsonString(timerEntry.getDescription(), writer);
+    writer.write(",\"task\":");
+    writeJsonString(timerEntry.getTask(), writer);
+    writer.write(",\"email\":");
+    writeJsonString(timerEntry.getEmail(), writer);
+    writer.write(",\"tags\":[");
+    final List<String> tags = timerEntry.getTags();
+    for (int index = 0; index < tags.size(); index++) {
+      if (index > 0) {
+        writer.write(',');
+      }
+      writeJsonString(tags.get(index).trim(), writer);
+    }
+    writer.write("],\"billable\":");
+    writer.write(Boolean.toString(timerEntry.isBillable()));
+    writer.write(",\"startTimeMillis\":");
+    writer.write(Long.toString(timerEntry.getStartTimeMillis()));
+    writer.write(",\"durationMillis\":");
+    writer.write(Long.toString(timerEntry.getDurationMillis()));
+    writer.write('}');
+  }
+
+  private void writeJsonString(String value, Writer writer) throws IOException {
+    if (value == null) {
+      writer.write("null");
+      return;
+    }
+    writer.write('"');
+    for (int index = 0; index < value.length(); index++) {
+      final char character = value.charAt(index);
+      switch (character) {
+        case '"' -> writer.write("\\\"");
+        case '\\' -> writer.write("\\\\");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        case '\t' -> writer.write("\\t");
+        default -> {
+          if (character < 0x20) {
+            writer.write(String.format("\\u%04x", (int) character));
+          } else {
+            writer.write(character);
+          }
+        }
+      }
+    }
+    writer.write('"');
+  }
+
+  /**
+   * Keeps the standard output open when the export writer is closed.
+   */
+  private static class NonClosingOutputStream extends FilterOutputStream {
+
+    private NonClosingOutputStream(OutputStream outputStream) {
+      super(outputStream);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package me.eeshe.tempus.command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import me.eeshe.tempus.database.ConnectionProfile;
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.service.TimerEntryService;
+import me.eeshe.tempus.util.DayBucketer;
+import me.eeshe.tempus.util.SyntheticTimerEntryGenerator;
+
+/**
+ * Generates a database of synthetic TimerEntries to reproduce the behavior of
+ * large histories in benchmarks and profiling. The same seed always generates
+ * the same entries.
+ */
+public class GenerateCommand implements Command {
+  private static final int CHUNK_SIZE = 10_000;
+  private static final long DEFAULT_SEED = 42;
+  private static final long DEFAULT_HISTORY_YEARS = 5;
+
+  private final ConnectionProfile connectionProfile;
+
+  /**
+   * Creates a GenerateCommand.
+   *
+   * @param connectionProfile Settings of the generated database, its path is
+   *                          replaced by the one passed to the command.
+   */
+  public GenerateCommand(ConnectionProfile connectionProfile) {
+    this.connectionProfile = connectionProfile;
+  }
+
+  @Override
+  public String getName() {
+    return "generate";
+  }
+
+  @Override
+  public String getUsage() {
+    return "tempus generate <count> <file.db> [--seed N] [--years N]";
+  }
+
+  @Override
+  public int execute(String[] args) {
+    final long entryCount;
+    final Path databasePath;
+    final long seed;
+    final long historyYears;
+    try {
+      final CommandArguments commandArguments = new CommandArguments(args);
+      if (commandArguments.getPositionalArguments().size() != 2) {
+        System.err.println("Usage: " + getUsage());
+        return 1;
+      }
+      entryCount = Long.parseLong(commandArguments.getPositionalArguments().get(0));
+      databasePath = Path.of(commandArguments.getPositionalArguments().get(1));
+      seed = commandArguments.getLongOption("seed", DEFAULT_SEED);
+      historyYears = commandArguments.getLongOption("years", DEFAULT_HISTORY_YEARS);
+    } catch (IllegalArgumentException e) {
+      // Includes the NumberFormatException of an invalid count
+      System.err.println(e.getMessage());
+      System.err.println("Usage: " + getUsage());
+      return 1;
+    }
+    if (entryCount <= 0 || historyYears <= 0) {
+      System.err.println("The count and the years must be positive.");
+      return 1;
+    }
+    if (Files.exists(databasePath)) {
+      System.err.println("File " + databasePath + " already exists, entries are only generated into a new database.");
+      return 1;
+    }
+
+    final long startNanos = System.nanoTime();
+    final ZoneId zoneId = DayBucketer.getConfiguredZoneId();
+    try {
+      generate(connectionProfile, databasePath, new SyntheticTimerEntryGenerator(seed, entryCount, (int) historyYears,
+          LocalDate.now(zoneId), zoneId));
+    } catch (IOException | SQLException e) {
+      System.err.println("Error generating " + databasePath + ": " + e.getMessage());
+      return 1;
+    }
+    final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+    System.out.printf("Generated %d entries into %s in %d ms.%n", entryCount, databasePath, elapsedMillis);
+    return 0;
+  }
+
+  /**
+   * Writes the generated TimerEntries in chunks, each of them in its own
+   * transaction. They're written into a temporary file that is only renamed
+   * once complete, so syncing is turned off: a crash can only lose a file
+   * that is discarded anyway.
+   *
+   * @param connectionProfile Settings of the database, its path is replaced by
+   *                          the passed one.
+   * @param databasePath      Path of the database to create.
+   * @param generator         Generator of the TimerEntries to write.
+   * @throws IOException  If the database file couldn't be created.
+   * @throws SQLException If the TimerEntries couldn't be written.
+   */
+  public static void generate(ConnectionProfile connectionProfile, Path databasePath,
+      SyntheticTimerEntryGenerator generator) throws IOException, SQLException {
+    final Path temporaryPath = databasePath.resolveSibling(databasePath.getFileName() + ".tmp");
+    Files.deleteIfExists(temporaryPath);
+    SQLiteManager sqLiteManager = new SQLiteManager(connectionProfile
+        .withDatabasePath(temporaryPath.toString())
+        .setSynchronous("OFF"));
+    TimerEntryService timerEntryService = new TimerEntryService(sqLiteManager);
+    try {
+      final List<TimerEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+      while (generator.hasNext()) {
+        chunk.add(generator.next());
+        if (chunk.size() == CHUNK_SIZE) {
+          timerEntryService.saveAll(chunk);
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        timerEntryService.saveAll(chunk);
+      }
+    } finally {
+      timerEntryService.close();
+      sqLiteManager.close();
+    }
+    Files.move(temporaryPath, databasePath, StandardCopyOption.REPLACE_EXISTING);
+  }
+}
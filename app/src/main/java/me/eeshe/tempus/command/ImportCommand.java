@@ -0,0 +1,112 @@
+package me.eeshe.tempus.command;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.service.TimerEntryService;
+import me.eeshe.tempus.util.CsvReader;
+import me.eeshe.tempus.util.DayBucketer;
+
+/**
+ * Imports a Toggl style CSV export. The file is streamed and saved in chunks,
+ * each of them in its own transaction, so memory use doesn't depend on the
+ * size of the file. Entries that are already stored are skipped.
+ */
+public class ImportCommand implements Command {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ImportCommand.class);
+  private static final int CHUNK_SIZE = 10_000;
+
+  private final Supplier<TimerEntryService> timerEntryService;
+
+  public ImportCommand(Supplier<TimerEntryService> timerEntryService) {
+    this.timerEntryService = timerEntryService;
+  }
+
+  @Override
+  public String getName() {
+    return "import";
+  }
+
+  @Override
+  public String getUsage() {
+    return "tempus import <file.csv>";
+  }
+
+  @Override
+  public int execute(String[] args) {
+    if (args.length != 1) {
+      System.err.println("Usage: " + getUsage());
+      return 1;
+    }
+    final Path path = Path.of(args[0]);
+    try (CsvReader csvReader = new CsvReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+      final List<String> header = csvReader.readRecord();
+      if (header == null) {
+        System.err.println("File " + path + " is empty.");
+        return 1;
+      }
+      final TogglCsvFormat togglCsvFormat = new TogglCsvFormat(header, DayBucketer.getConfiguredZoneId());
+      if (!togglCsvFormat.hasRequiredColumns()) {
+        System.err.println("File " + path + " is missing the Project, Start date, Start time or Duration columns.");
+        return 1;
+      }
+      return importRecords(csvReader, togglCsvFormat);
+    } catch (IOException e) {
+      System.err.println("Error reading " + path + ": " + e.getMessage());
+      return 1;
+    }
+  }
+
+  private int importRecords(CsvReader csvReader, TogglCsvFormat togglCsvFormat) throws IOException {
+    final long startNanos = System.nanoTime();
+    final List<TimerEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+    long readCount = 0;
+    long insertedCount = 0;
+    long invalidCount = 0;
+    List<String> record;
+    try {
+      while ((record = csvReader.readRecord()) != null) {
+        if (record.size() == 1 && record.get(0).isBlank()) {
+          continue;
+        }
+        readCount++;
+        try {
+          chunk.add(togglCsvFormat.parse(record));
+        } catch (IllegalArgumentException | DateTimeException e) {
+          invalidCount++;
+          LOGGER.warn("Skipping invalid record {}. Message: {}", csvReader.getRecordNumber(), e.getMessage());
+          continue;
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          insertedCount += timerEntryService.get().saveAll(chunk);
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        insertedCount += timerEntryService.get().saveAll(chunk);
+      }
+    } catch (SQLException e) {
+      System.err.println("Error saving imported entries, the current chunk was rolled back: " + e.getMessage());
+      return 1;
+    }
+    final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+    System.out.printf("Imported %d of %d entries in %d ms (%d duplicates, %d invalid).%n",
+        insertedCount,
+        readCount,
+        elapsedMillis,
+        readCount - invalidCount - insertedCount,
+        invalidCount);
+    return 0;
+  }
+}
@@ -0,0 +1,157 @@
+package me.eeshe.tempus.command;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import me.eeshe.tempus.model.Report;
+import me.eeshe.tempus.model.ReportDimension;
+import me.eeshe.tempus.model.ReportGranularity;
+import me.eeshe.tempus.model.ReportQuery;
+import me.eeshe.tempus.model.ReportRow;
+import me.eeshe.tempus.service.ReportService;
+import me.eeshe.tempus.util.CsvWriter;
+import me.eeshe.tempus.util.TimeFormatUtil;
+
+/**
+ * Prints the totals of the tracked time grouped by project, client, task, tag
+ * or billable flag, optionally split into days, weeks, months or years.
+ */
+public class ReportCommand implements Command {
+  private static final int MAX_KEY_WIDTH = 40;
+
+  private final Supplier<ReportService> reportService;
+
+  public ReportCommand(Supplier<ReportService> reportService) {
+    this.reportService = reportService;
+  }
+
+  @Override
+  public String getName() {
+    return "report";
+  }
+
+  @Override
+  public String getUsage() {
+    return "tempus report [--from YYYY-MM-DD] [--to YYYY-MM-DD] [--by project|client|task|tag|billable] " +
+        "[--per day|week|month|year|total] [--format text|csv]";
+  }
+
+  @Override
+  public int execute(String[] args) {
+    final ReportQuery reportQuery;
+    final String format;
+    try {
+      CommandArguments commandArguments = new CommandArguments(args);
+      if (!commandArguments.getPositionalArguments().isEmpty()) {
+        System.err.println("Usage: " + getUsage());
+        return 1;
+      }
+      format = commandArguments.getOption("format", "text");
+      if (!format.equals("text") && !format.equals("csv")) {
+        System.err.println("Unknown format " + format + ". Usage: " + getUsage());
+        return 1;
+      }
+      final LocalDate to = commandArguments.getDateOption("to");
+      reportQuery = new ReportQuery()
+          .setFromDate(commandArguments.getDateOption("from"))
+          // The end date is inclusive, so the bound is the next day
+          .setToDate(to == null ? null : to.plusDays(1))
+          .setDimension(parseEnum(ReportDimension.class, "by", commandArguments.getOption("by", "project")))
+          .setGranularity(parseEnum(ReportGranularity.class, "per", commandArguments.getOption("per", "total")));
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      return 1;
+    }
+
+    final long startNanos = System.nanoTime();
+    try {
+      final Report report = reportService.get().generate(reportQuery);
+      final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+      Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+      if (format.equals("csv")) {
+        writeCsv(report, writer);
+      } else {
+        writeText(report, writer, elapsedMillis);
+      }
+      writer.flush();
+      return 0;
+    } catch (SQLException e) {
+      System.err.println("Error generating the report: " + e.getMessage());
+    } catch (IOException e) {
+      System.err.println("Error writing the report: " + e.getMessage());
+    }
+    return 1;
+  }
+
+  private <T extends Enum<T>> T parseEnum(Class<T> enumClass, String option, String value) {
+    try {
+      return Enum.valueOf(enumClass, value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid value for --" + option + ": " + value);
+    }
+  }
+
+  private void writeCsv(Report report, Writer writer) throws IOException {
+    final ReportQuery reportQuery = report.getReportQuery();
+    final ReportGranularity granularity = reportQuery.getGranularity();
+    CsvWriter csvWriter = new CsvWriter(writer);
+    csvWriter.writeRecord("Period", reportQuery.getDimension().getDisplayName(), "Duration", "Duration (ms)",
+        "Entries");
+    for (ReportRow reportRow : report.getRows()) {
+      csvWriter.writeRecord(
+          granularity.format(reportRow.getPeriodStart()),
+          reportRow.getKey(),
+          TimeFormatUtil.formatMillisecondsToHHMMSS(reportRow.getTotalMillis()),
+          Long.toString(reportRow.getTotalMillis()),
+          Long.toString(reportRow.getEntryCount()));
+    }
+    csvWriter.flush();
+  }
+
+  private void writeText(Report report, Writer writer, long elapsedMillis) throws IOException {
+    final ReportQuery reportQuery = report.getReportQuery();
+    final ReportGranularity granularity = reportQuery.getGranularity();
+    int keyWidth = "Total".length();
+    for (ReportRow reportRow : report.getRows()) {
+      keyWidth = Math.max(keyWidth, Math.min(reportRow.getKey().length(), MAX_KEY_WIDTH));
+    }
+    final String rowFormat = "  %-" + keyWidth + "." + keyWidth + "s  %10s  %8d%n";
+
+    writer.write(String.format("Report by %s, %s%n", reportQuery.getDimension().getDisplayName(),
+        formatRange(reportQuery)));
+    LocalDate currentPeriodStart = null;
+    for (ReportRow reportRow : report.getRows()) {
+      if (reportRow.getPeriodStart() != null && !reportRow.getPeriodStart().equals(currentPeriodStart)) {
+        currentPeriodStart = reportRow.getPeriodStart();
+        writer.write(String.format("%n%s%n", granularity.format(currentPeriodStart)));
+      }
+      writer.write(String.format(rowFormat, reportRow.getKey(),
+          TimeFormatUtil.formatMillisecondsToHHMMSS(reportRow.getTotalMillis()), reportRow.getEntryCount()));
+    }
+    writer.write(String.format("%n" + rowFormat, "Total",
+        TimeFormatUtil.formatMillisecondsToHHMMSS(report.getTotalMillis()), report.getEntryCount()));
+    writer.write(String.format("Generated in %d ms.%n", elapsedMillis));
+  }
+
+  private String formatRange(ReportQuery reportQuery) {
+    final LocalDate from = reportQuery.getFromDate();
+    final LocalDate to = reportQuery.getToDate();
+    if (from == null && to == null) {
+      return "all time";
+    }
+    if (to == null) {
+      return "since " + from;
+    }
+    if (from == null) {
+      return "until " + to.minusDays(1);
+    }
+    return from + " to " + to.minusDays(1);
+  }
+}
@@ -0,0 +1,46 @@
+package me.eeshe.tempus.command;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+import me.eeshe.tempus.service.TimerEntryService;
+
+/**
+ * Maintenance of the DailyRollup totals. They're kept up to date on every
+ * write, so a rebuild is only needed for data written by other tools.
+ */
+public class RollupCommand implements Command {
+  private final Supplier<TimerEntryService> timerEntryService;
+
+  public RollupCommand(Supplier<TimerEntryService> timerEntryService) {
+    this.timerEntryService = timerEntryService;
+  }
+
+  @Override
+  public String getName() {
+    return "rollup";
+  }
+
+  @Override
+  public String getUsage() {
+    return "tempus rollup rebuild";
+  }
+
+  @Override
+  public int execute(String[] args) {
+    if (args.length != 1 || !args[0].equals("rebuild")) {
+      System.err.println("Usage: " + getUsage());
+      return 1;
+    }
+    final long startNanos = System.nanoTime();
+    try {
+      final int rowCount = timerEntryService.get().rebuildDailyRollup();
+      final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+      System.out.printf("Rebuilt %d daily rollup rows in %d ms.%n", rowCount, elapsedMillis);
+      return 0;
+    } catch (SQLException e) {
+      System.err.println("Error rebuilding the daily rollup, the previous totals were kept: " + e.getMessage());
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package me.eeshe.tempus.command;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.util.TimeFormatUtil;
+
+/**
+ * Column layout of Toggl's detailed CSV export, which TimerEntry mirrors.
+ * Used both to import Toggl exports and to export Tempus data in a format
+ * Toggl and Tempus can read back.
+ *
+ * Toggl's columns only have second precision, so exports also carry the
+ * start and duration in milliseconds. They're preferred on import, so an
+ * exported TimerEntry is read back with the same content hash and isn't
+ * imported twice.
+ */
+class TogglCsvFormat {
+  static final String USER = "User";
+  static final String EMAIL = "Email";
+  static final String CLIENT = "Client";
+  static final String PROJECT = "Project";
+  static final String TASK = "Task";
+  static final String DESCRIPTION = "Description";
+  static final String BILLABLE = "Billable";
+  static final String START_DATE = "Start date";
+  static final String START_TIME = "Start time";
+  static final String END_DATE = "End date";
+  static final String END_TIME = "End time";
+  static final String DURATION = "Duration";
+  static final String TAGS = "Tags";
+  static final String START_MILLIS = "Start millis";
+  static final String DURATION_MILLIS = "Duration millis";
+  static final List<String> HEADERS = List.of(USER, EMAIL, CLIENT, PROJECT, TASK, DESCRIPTION, BILLABLE,
+      START_DATE, START_TIME, END_DATE, END_TIME, DURATION, TAGS, START_MILLIS, DURATION_MILLIS);
+
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
+  private final ZoneId zoneId;
+
+  /**
+   * Creates a TogglCsvFormat that reads records laid out as the passed
+   * header.
+   *
+   * @param header Header record of the file.
+   * @param zoneId Zone the dates and times of the file are in.
+   */
+  TogglCsvFormat(List<String> header, ZoneId zoneId) {
+    for (int index = 0; index < header.size(); index++) {
+      String column = header.get(index).trim();
+      if (index == 0 && column.startsWith("\uFEFF")) {
+        column = column.substring(1); // Byte order mark written by some spreadsheet tools
+      }
+      columnIndexes.put(column.toLowerCase(Locale.ROOT), index);
+    }
+    this.zoneId = zoneId;
+  }
+
+  /**
+   * Checks whether the header has the columns needed to parse a TimerEntry.
+   *
+   * @return True if the header can be parsed.
+   */
+  boolean hasRequiredColumns() {
+    return hasColumn(PROJECT) && hasColumn(START_DATE) && hasColumn(START_TIME) &&
+        (hasColumn(DURATION) || (hasColumn(END_DATE) && hasColumn(END_TIME)));
+  }
+
+  /**
+   * Parses the passed record into a TimerEntry.
+   *
+   * @param record Record to parse.
+   * @return Parsed TimerEntry.
+   * @throws IllegalArgumentException If the record has missing or invalid
+   *                                  values.
+   * @throws DateTimeException        If the record has invalid dates.
+   */
+  TimerEntry parse(List<String> record) {
+    final String projectName = require(record, PROJECT);
+    final String exactStartMillis = get(record, START_MILLIS);
+    final long startTimeMillis;
+    if (exactStartMillis != null) {
+      startTimeMillis = parseMillis(exactStartMillis);
+    } else {
+      final LocalDateTime startDateTime = LocalDateTime.of(
+          LocalDate.parse(require(record, START_DATE)),
+          LocalTime.parse(require(record, START_TIME)));
+      startTimeMillis = startDateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    final String exactDurationMillis = get(record, DURATION_MILLIS);
+    final String duration = get(record, DURATION);
+    final long durationMillis;
+    if (exactDurationMillis != null) {
+      durationMillis = parseMillis(exactDurationMillis);
+    } else if (duration != null) {
+      durationMillis = parseDurationMillis(duration);
+    } else {
+      final LocalDateTime endDateTime = LocalDateTime.of(
+          LocalDate.parse(require(record, END_DATE)),
+          LocalTime.parse(require(record, END_TIME)));
+      durationMillis = endDateTime.atZone(zoneId).toInstant().toEpochMilli() - startTimeMillis;
+    }
+    return new TimerEntry(
+        projectName,
+        get(record, CLIENT),
+        get(record, DESCRIPTION),
+        get(record, TASK),
+        get(record, EMAIL),
+        TimerEntry.parseTags(get(record, TAGS)),
+        parseBoolean(get(record, BILLABLE)),
+        startTimeMillis,
+        durationMillis);
+  }
+
+  /**
+   * Formats the passed TimerEntry as a record laid out as HEADERS.
+   *
+   * @param timerEntry TimerEntry to format.
+   * @param zoneId     Zone the dates and times will be written in.
+   * @return Formatted record.
+   */
+  static String[] format(TimerEntry timerEntry, ZoneId zoneId) {
+    final LocalDateTime startDateTime = Instant.ofEpochMilli(timerEntry.getStartTimeMillis())
+        .atZone(zoneId).toLocalDateTime();
+    final LocalDateTime endDateTime = Instant.ofEpochMilli(
+        timerEntry.getStartTimeMillis() + timerEntry.getDurationMillis()).atZone(zoneId).toLocalDateTime();
+    return new String[] {
+        "",
+        timerEntry.getEmail(),
+        timerEntry.getClientName(),
+        timerEntry.getProjectName(),
+        timerEntry.getTask(),
+        timerEntry.getDescription(),
+        timerEntry.isBillable() ? "Yes" : "No",
+        startDateTime.toLocalDate().toString(),
+        startDateTime.format(TIME_FORMATTER),
+        endDateTime.toLocalDate().toString(),
+        endDateTime.format(TIME_FORMATTER),
+        TimeFormatUtil.formatMillisecondsToHHMMSS(timerEntry.getDurationMillis()),
+        String.join(", ", timerEntry.getTags()),
+        Long.toString(timerEntry.getStartTimeMillis()),
+        Long.toString(timerEntry.getDurationMillis())
+    };
+  }
+
+  private boolean hasColumn(String column) {
+    return columnIndexes.containsKey(column.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Returns the value of the passed column within the record.
+   *
+   * @return Value of the column, or null if it's missing or blank.
+   */
+  private String get(List<String> record, String column) {
+    final Integer index = columnIndexes.get(column.toLowerCase(Locale.ROOT));
+    if (index == null || index >= record.size()) {
+      return null;
+    }
+    final String value = record.get(index).trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  private String require(List<String> record, String column) {
+    final String value = get(record, column);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing " + column);
+    }
+    return value;
+  }
+
+  /**
+   * Parses a duration with the format 'HH:MM:SS'. Hours may be longer than
+   * two digits.
+   *
+   * @param duration Duration to parse.
+   * @return Duration in milliseconds.
+   */
+  private static long parseDurationMillis(String duration) {
+    final String[] parts = duration.split(":");
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Invalid duration " + duration);
+    }
+    final long hours = Long.parseLong(parts[0]);
+    final long minutes = Long.parseLong(parts[1]);
+    final long seconds = Long.parseLong(parts[2]);
+    return ((hours * 60 + minutes) * 60 + seconds) * 1000;
+  }
+
+  private static long parseMillis(String millis) {
+    try {
+      return Long.parseLong(millis);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid milliseconds " + millis);
+    }
+  }
+
+  private static boolean parseBoolean(String value) {
+    if (value == null) {
+      return false;
+    }
+    return value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("true") || value.equals("1");
+  }
+}
@@ -0,0 +1,25 @@
+package me.eeshe.tempus.database;
+
+/**
+ * Modes accepted by SQLite's 'wal_checkpoint' pragma.
+ */
+public enum CheckpointMode {
+  /**
+   * Checkpoints as many frames as possible without waiting on readers or
+   * writers.
+   */
+  PASSIVE,
+  /**
+   * Waits for the writer and checkpoints every frame.
+   */
+  FULL,
+  /**
+   * Like FULL, and also waits for readers so the next writer restarts the
+   * WAL file from the beginning.
+   */
+  RESTART,
+  /**
+   * Like RESTART, and also truncates the WAL file to zero bytes.
+   */
+  TRUNCATE
+}
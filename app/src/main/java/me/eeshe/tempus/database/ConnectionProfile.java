@@ -0,0 +1,143 @@
+package me.eeshe.tempus.database;
+
+/**
+ * Settings applied to every connection opened by a SQLiteManager. Defaults
+ * favor a single writer with concurrent readers: WAL journaling, NORMAL
+ * synchronous mode and a busy timeout so other processes reading the same
+ * file wait instead of failing with SQLITE_BUSY.
+ *
+ * Every setting can be overridden through a 'tempus.database.*' system
+ * property, see fromSystemProperties().
+ */
+public class ConnectionProfile {
+  private static final String PROPERTY_PREFIX = "tempus.database.";
+
+  private String databasePath = "database.db";
+  private String journalMode = "WAL";
+  private String synchronous = "NORMAL";
+  private long mmapSizeBytes = 256L * 1024 * 1024;
+  private long cacheSizeKibibytes = 16 * 1024;
+  private int busyTimeoutMillis = 5000;
+  private int walAutoCheckpointPages = 1000;
+  private boolean checkpointOnClose = true;
+
+  /**
+   * Creates a ConnectionProfile with the default settings overridden by any
+   * 'tempus.database.*' system property that is set, e.g.
+   * '-Dtempus.database.path=work.db'.
+   *
+   * @return Configured ConnectionProfile.
+   */
+  public static ConnectionProfile fromSystemProperties() {
+    ConnectionProfile connectionProfile = new ConnectionProfile();
+    connectionProfile.databasePath = System.getProperty(PROPERTY_PREFIX + "path", connectionProfile.databasePath);
+    connectionProfile.journalMode = System.getProperty(PROPERTY_PREFIX + "journalMode",
+        connectionProfile.journalMode);
+    connectionProfile.synchronous = System.getProperty(PROPERTY_PREFIX + "synchronous",
+        connectionProfile.synchronous);
+    connectionProfile.mmapSizeBytes = Long.getLong(PROPERTY_PREFIX + "mmapSize", connectionProfile.mmapSizeBytes);
+    connectionProfile.cacheSizeKibibytes = Long.getLong(PROPERTY_PREFIX + "cacheSize",
+        connectionProfile.cacheSizeKibibytes);
+    connectionProfile.busyTimeoutMillis = Integer.getInteger(PROPERTY_PREFIX + "busyTimeout",
+        connectionProfile.busyTimeoutMillis);
+    connectionProfile.walAutoCheckpointPages = Integer.getInteger(PROPERTY_PREFIX + "walAutoCheckpoint",
+        connectionProfile.walAutoCheckpointPages);
+    connectionProfile.checkpointOnClose = Boolean.parseBoolean(System.getProperty(
+        PROPERTY_PREFIX + "checkpointOnClose", String.valueOf(connectionProfile.checkpointOnClose)));
+
+    return connectionProfile;
+  }
+
+  /**
+   * Creates a copy of this ConnectionProfile pointing to another database
+   * file.
+   *
+   * @param databasePath Path of the database file.
+   * @return Copied ConnectionProfile.
+   */
+  public ConnectionProfile withDatabasePath(String databasePath) {
+    ConnectionProfile connectionProfile = new ConnectionProfile();
+    connectionProfile.databasePath = databasePath;
+    connectionProfile.journalMode = journalMode;
+    connectionProfile.synchronous = synchronous;
+    connectionProfile.mmapSizeBytes = mmapSizeBytes;
+    connectionProfile.cacheSizeKibibytes = cacheSizeKibibytes;
+    connectionProfile.busyTimeoutMillis = busyTimeoutMillis;
+    connectionProfile.walAutoCheckpointPages = walAutoCheckpointPages;
+    connectionProfile.checkpointOnClose = checkpointOnClose;
+
+    return connectionProfile;
+  }
+
+  public String getDatabasePath() {
+    return databasePath;
+  }
+
+  public ConnectionProfile setDatabasePath(String databasePath) {
+    this.databasePath = databasePath;
+    return this;
+  }
+
+  public String getJournalMode() {
+    return journalMode;
+  }
+
+  public ConnectionProfile setJournalMode(String journalMode) {
+    this.journalMode = journalMode;
+    return this;
+  }
+
+  public String getSynchronous() {
+    return synchronous;
+  }
+
+  public ConnectionProfile setSynchronous(String synchronous) {
+    this.synchronous = synchronous;
+    return this;
+  }
+
+  public long getMmapSizeBytes() {
+    return mmapSizeBytes;
+  }
+
+  public ConnectionProfile setMmapSizeBytes(long mmapSizeBytes) {
+    this.mmapSizeBytes = mmapSizeBytes;
+    return this;
+  }
+
+  public long getCacheSizeKibibytes() {
+    return cacheSizeKibibytes;
+  }
+
+  public ConnectionProfile setCacheSizeKibibytes(long cacheSizeKibibytes) {
+    this.cacheSizeKibibytes = cacheSizeKibibytes;
+    return this;
+  }
+
+  public int getBusyTimeoutMillis() {
+    return busyTimeoutMillis;
+  }
+
+  public ConnectionProfile setBusyTimeoutMillis(int busyTimeoutMillis) {
+    this.busyTimeoutMillis = busyTimeoutMillis;
+    return this;
+  }
+
+  public int getWalAutoCheckpointPages() {
+    return walAutoCheckpointPages;
+  }
+
+  public ConnectionProfile setWalAutoCheckpointPages(int walAutoCheckpointPages) {
+    this.walAutoCheckpointPages = walAutoCheckpointPages;
+    return this;
+  }
+
+  public boolean isCheckpointOnClose() {
+    return checkpointOnClose;
+  }
+
+  public ConnectionProfile setCheckpointOnClose(boolean checkpointOnClose) {
+    this.checkpointOnClose = checkpointOnClose;
+    return this;
+  }
+}
@@ -0,0 +1,72 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import me.eeshe.tempus.model.TimerEntry;
+
+/**
+ * Adds a unique content hash to TimerEntry so imports can skip entries that
+ * are already stored. Existing rows are backfilled, rows that duplicate an
+ * earlier one keep a null hash instead of being deleted.
+ */
+class ContentHashMigration implements Migration {
+  private static final int BATCH_SIZE = 1000;
+
+  private final int version;
+
+  ContentHashMigration(int version) {
+    this.version = version;
+  }
+
+  @Override
+  public void apply(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("ALTER TABLE TimerEntry ADD COLUMN contentHash INTEGER");
+      statement.executeUpdate("CREATE UNIQUE INDEX TimerEntry_contentHash ON TimerEntry (contentHash)");
+    }
+    final String selectSql = "SELECT id, projectName, clientName, description, task, email, tags, billable, " +
+        "startTimeMillis, durationMillis FROM TimerEntry";
+    final String updateSql = "UPDATE OR IGNORE TimerEntry SET contentHash = ? WHERE id = ?";
+    try (Statement selectStatement = connection.createStatement();
+        ResultSet resultSet = selectStatement.executeQuery(selectSql);
+        PreparedStatement updateStatement = connection.prepareStatement(updateSql)) {
+      int batchSize = 0;
+      while (resultSet.next()) {
+        final long contentHash = TimerEntry.computeContentHash(
+            resultSet.getString("projectName"),
+            resultSet.getString("clientName"),
+            resultSet.getString("description"),
+            resultSet.getString("task"),
+            resultSet.getString("email"),
+            TimerEntry.parseTags(resultSet.getString("tags")),
+            resultSet.getBoolean("billable"),
+            resultSet.getLong("startTimeMillis"),
+            resultSet.getLong("durationMillis"));
+        updateStatement.setLong(1, contentHash);
+        updateStatement.setLong(2, resultSet.getLong("id"));
+        updateStatement.addBatch();
+        if (++batchSize == BATCH_SIZE) {
+          updateStatement.executeBatch();
+          batchSize = 0;
+        }
+      }
+      if (batchSize > 0) {
+        updateStatement.executeBatch();
+      }
+    }
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Add TimerEntry content hash";
+  }
+}
@@ -0,0 +1,37 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import me.eeshe.tempus.util.DayBucketer;
+
+/**
+ * Creates the DailyRollup table and fills it from the TimerEntries that are
+ * already stored.
+ */
+class DailyRollupMigration implements Migration {
+  private final int version;
+
+  DailyRollupMigration(int version) {
+    this.version = version;
+  }
+
+  @Override
+  public void apply(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate(DailyRollups.CREATE_TABLE_SQL);
+    }
+    DailyRollups.rebuild(connection, new DayBucketer());
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Create DailyRollup table";
+  }
+}
@@ -0,0 +1,406 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import me.eeshe.tempus.model.EntryColumns;
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.util.DayBucketer;
+import me.eeshe.tempus.util.LongLongHashMap;
+
+/**
+ * SQL of the DailyRollup table, which keeps the total time and amount of
+ * TimerEntries per day, project, task, client and billable flag. It's updated
+ * in the same transaction as the TimerEntries it aggregates, so totals can be
+ * read without going through the TimerEntries themselves.
+ */
+public class DailyRollups {
+  public static final String TABLE = "DailyRollup";
+  public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+      "date TEXT NOT NULL, " +
+      "projectName TEXT NOT NULL, " +
+      "task TEXT NOT NULL, " +
+      "clientName TEXT NOT NULL, " +
+      "billable INTEGER NOT NULL, " +
+      "totalMillis INTEGER NOT NULL, " +
+      "entryCount INTEGER NOT NULL, " +
+      "PRIMARY KEY (date, projectName, task, clientName, billable)" +
+      ") WITHOUT ROWID";
+  public static final String UPSERT_SQL = "INSERT INTO " + TABLE +
+      " (date, projectName, task, clientName, billable, totalMillis, entryCount) VALUES (?, ?, ?, ?, ?, ?, ?)" +
+      " ON CONFLICT (date, projectName, task, clientName, billable) DO UPDATE SET" +
+      " totalMillis = totalMillis + excluded.totalMillis, entryCount = entryCount + excluded.entryCount";
+  // Single row with the zone the days of the totals were computed in
+  public static final String ZONE_TABLE = "DailyRollupZone";
+  public static final String CREATE_ZONE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + ZONE_TABLE + " (" +
+      "zoneId TEXT NOT NULL" +
+      ")";
+  private static final int BATCH_SIZE = 1000;
+  private static final int REBUILD_WINDOW_DAYS = 64; // Days of TimerEntries read at a time by a rebuild
+
+  /**
+   * Binds the passed TimerEntry to a statement prepared from
+   * {@link #UPSERT_SQL}, adding it to the totals of its day.
+   *
+   * @param preparedStatement Statement to bind.
+   * @param timerEntry        TimerEntry to add.
+   * @param date              Day the TimerEntry started in.
+   * @throws SQLException If the parameters couldn't be bound.
+   */
+  public static void bindUpsert(PreparedStatement preparedStatement, TimerEntry timerEntry, LocalDate date)
+      throws SQLException {
+    bindUpsert(preparedStatement,
+        toDate(date),
+        timerEntry.getProjectName(),
+        timerEntry.getTask(),
+        timerEntry.getClientName(),
+        timerEntry.isBillable(),
+        timerEntry.getDurationMillis(),
+        1);
+  }
+
+  private static void bindUpsert(PreparedStatement preparedStatement, String date, String projectName, String task,
+      String clientName, boolean billable, long totalMillis, long entryCount) throws SQLException {
+    preparedStatement.setString(1, date);
+    preparedStatement.setString(2, projectName);
+    preparedStatement.setString(3, task == null ? "" : task);
+    preparedStatement.setString(4, clientName == null ? "" : clientName);
+    preparedStatement.setBoolean(5, billable);
+    preparedStatement.setLong(6, totalMillis);
+    preparedStatement.setLong(7, entryCount);
+  }
+
+  /**
+   * Converts a date to the format stored in the DailyRollup table.
+   *
+   * @param localDate Date to convert.
+   * @return ISO-8601 date.
+   */
+  public static String toDate(LocalDate localDate) {
+    return localDate.toString();
+  }
+
+  /**
+   * Recomputes the whole DailyRollup table from the stored TimerEntries,
+   * reading their project, client and task as text. Used by the migration
+   * that creates the table, which runs before they're moved to
+   * {@link Dictionary} tables. The caller is responsible for running it
+   * within a transaction.
+   *
+   * @param connection  Connection to rebuild the table in.
+   * @param dayBucketer DayBucketer the days are computed with.
+   * @return Amount of rows of the rebuilt table.
+   * @throws SQLException If the table couldn't be rebuilt.
+   */
+  public static int rebuild(Connection connection, DayBucketer dayBucketer) throws SQLException {
+    Map<RollupKey, long[]> rollups = new HashMap<>();
+    final String selectSql = "SELECT projectName, task, clientName, billable, startTimeMillis, durationMillis " +
+        "FROM TimerEntry";
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(selectSql)) {
+      while (resultSet.next()) {
+        final String task = resultSet.getString("task");
+        final String clientName = resultSet.getString("clientName");
+        final RollupKey rollupKey = new RollupKey(
+            toDate(dayBucketer.getDate(resultSet.getLong("startTimeMillis"))),
+            resultSet.getString("projectName"),
+            task == null ? "" : task,
+            clientName == null ? "" : clientName,
+            resultSet.getBoolean("billable"));
+        final long[] totals = rollups.computeIfAbsent(rollupKey, key -> new long[2]);
+        totals[0] += resultSet.getLong("durationMillis");
+        totals[1]++;
+      }
+    }
+
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM " + TABLE);
+    }
+    try (PreparedStatement preparedStatement = connection.prepareStatement(UPSERT_SQL)) {
+      int batchSize = 0;
+      for (Map.Entry<RollupKey, long[]> entry : rollups.entrySet()) {
+        final RollupKey rollupKey = entry.getKey();
+        bindUpsert(preparedStatement, rollupKey.date, rollupKey.projectName, rollupKey.task, rollupKey.clientName,
+            rollupKey.billable, entry.getValue()[0], entry.getValue()[1]);
+        preparedStatement.addBatch();
+        if (++batchSize == BATCH_SIZE) {
+          preparedStatement.executeBatch();
+          batchSize = 0;
+        }
+      }
+      if (batchSize > 0) {
+        preparedStatement.executeBatch();
+      }
+    }
+    return rollups.size();
+  }
+
+  /**
+   * Recomputes the whole DailyRollup table from the stored TimerEntryData
+   * rows. They're read as EntryColumns a window of days at a time, so memory
+   * use doesn't depend on the amount of history, and grouped by their
+   * dictionary ids, so no String is created per row. The caller is
+   * responsible for running it within a transaction.
+   *
+   * @param connection         Connection to rebuild the table in.
+   * @param dayBucketer        DayBucketer the days are computed with.
+   * @param entryColumnsReader Reader of the rows within a range of start times.
+   * @return Amount of rows of the rebuilt table.
+   * @throws SQLException If the table couldn't be rebuilt.
+   */
+  public static int rebuild(Connection connection, DayBucketer dayBucketer, EntryColumnsReader entryColumnsReader)
+      throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM " + TABLE);
+    }
+    final long firstStartTimeMillis;
+    final long lastStartTimeMillis;
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT MIN(startTimeMillis), MAX(startTimeMillis) FROM " +
+            TimerEntryData.TABLE)) {
+      if (!resultSet.next()) {
+        return 0;
+      }
+      firstStartTimeMillis = resultSet.getLong(1);
+      if (resultSet.wasNull()) {
+        return 0;
+      }
+      lastStartTimeMillis = resultSet.getLong(2);
+    }
+    final RollupGrouper rollupGrouper = new RollupGrouper(
+        readNames(connection, Dictionary.PROJECT),
+        readNames(connection, Dictionary.TASK),
+        readNames(connection, Dictionary.CLIENT));
+    try (PreparedStatement preparedStatement = connection.prepareStatement(UPSERT_SQL)) {
+      final LocalDate lastDate = dayBucketer.getDate(lastStartTimeMillis);
+      LocalDate fromDate = dayBucketer.getDate(firstStartTimeMillis);
+      while (!fromDate.isAfter(lastDate)) {
+        final LocalDate toDate = fromDate.plusDays(REBUILD_WINDOW_DAYS);
+        final EntryColumns entryColumns = entryColumnsReader.read(dayBucketer.getStartOfDayMillis(fromDate),
+            dayBucketer.getStartOfDayMillis(toDate));
+        if (rollupGrouper.addBatches(preparedStatement, entryColumns, dayBucketer) > 0) {
+          preparedStatement.executeBatch();
+        }
+        fromDate = toDate;
+      }
+    }
+    // Ids of a null and an empty name are grouped apart but stored as the same row
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+      return resultSet.next() ? resultSet.getInt(1) : 0;
+    }
+  }
+
+  /**
+   * Reads the names of a dictionary table.
+   *
+   * @return Names indexed by their id.
+   */
+  private static String[] readNames(Connection connection, Dictionary dictionary) throws SQLException {
+    String[] names = new String[16];
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT id, name FROM " + dictionary.getTable())) {
+      while (resultSet.next()) {
+        final int id = resultSet.getInt(1);
+        if (id >= names.length) {
+          names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+        }
+        names[id] = resultSet.getString(2);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Reads the zone the days of the DailyRollup totals were computed in.
+   *
+   * @param connection Connection to read from.
+   * @return Id of the zone, or null if it was never recorded.
+   * @throws SQLException If the zone couldn't be read.
+   */
+  public static String readZoneId(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT zoneId FROM " + ZONE_TABLE)) {
+      return resultSet.next() ? resultSet.getString(1) : null;
+    }
+  }
+
+  /**
+   * Records the zone the days of the DailyRollup totals were computed in. The
+   * caller is responsible for running it within the transaction of the
+   * rebuild.
+   *
+   * @param connection Connection to write to.
+   * @param zoneId     Zone of the totals.
+   * @throws SQLException If the zone couldn't be written.
+   */
+  public static void writeZoneId(Connection connection, ZoneId zoneId) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM " + ZONE_TABLE);
+    }
+    try (PreparedStatement preparedStatement = connection.prepareStatement(
+        "INSERT INTO " + ZONE_TABLE + " (zoneId) VALUES (?)")) {
+      preparedStatement.setString(1, zoneId.getId());
+      preparedStatement.executeUpdate();
+    }
+  }
+
+  /**
+   * Reads the stored TimerEntries that started within a range as
+   * EntryColumns.
+   */
+  public interface EntryColumnsReader {
+    /**
+     * Reads the TimerEntries that started within the passed range.
+     *
+     * @param fromMillis Inclusive lower bound of the start time.
+     * @param toMillis   Exclusive upper bound of the start time.
+     * @return Read TimerEntries, sorted by start time in ascending order.
+     * @throws SQLException If the TimerEntries couldn't be read.
+     */
+    EntryColumns read(long fromMillis, long toMillis) throws SQLException;
+  }
+
+  /**
+   * Groups EntryColumns rows by day, project, task, client and billable flag.
+   * Rows are sorted by start time, so the rows of a day are a range found by
+   * binary search. Within it, project and task ids are packed into a key that
+   * is mapped to a group number, which is packed with the client id and the
+   * billable flag into the key of the row's group. Groups are numbered in the
+   * order they're found and their totals kept in arrays, which are reused for
+   * every day.
+   */
+  private static class RollupGrouper {
+    private final String[] projectNames;
+    private final String[] taskNames;
+    private final String[] clientNames;
+    private final LongLongHashMap projectTaskGroups = new LongLongHashMap();
+    private final LongLongHashMap groups = new LongLongHashMap();
+    private int[] firstIndexes = new int[64];
+    private long[] totalMillis = new long[64];
+    private long[] entryCounts = new long[64];
+
+    private RollupGrouper(String[] projectNames, String[] taskNames, String[] clientNames) {
+      this.projectNames = projectNames;
+      this.taskNames = taskNames;
+      this.clientNames = clientNames;
+    }
+
+    /**
+     * Binds the totals of every day of the passed EntryColumns to a statement
+     * prepared from {@link #UPSERT_SQL}, adding them to its batch.
+     *
+     * @return Amount of rows added to the batch.
+     */
+    private int addBatches(PreparedStatement preparedStatement, EntryColumns entryColumns, DayBucketer dayBucketer)
+        throws SQLException {
+      int batchSize = 0;
+      int fromIndex = 0;
+      while (fromIndex < entryColumns.size()) {
+        final LocalDate date = dayBucketer.getDate(entryColumns.getStartTimeMillis(fromIndex));
+        final int toIndex = entryColumns.indexOfStartTime(dayBucketer.getStartOfDayMillis(date.plusDays(1)));
+        final int groupCount = group(entryColumns, fromIndex, toIndex);
+        final String dayDate = toDate(date);
+        for (int group = 0; group < groupCount; group++) {
+          final int index = firstIndexes[group];
+          bindUpsert(preparedStatement,
+              dayDate,
+              projectNames[entryColumns.getProjectId(index)],
+              taskNames[entryColumns.getTaskId(index)],
+              clientNames[entryColumns.getClientId(index)],
+              entryColumns.isBillable(index),
+              totalMillis[group],
+              entryCounts[group]);
+          preparedStatement.addBatch();
+        }
+        batchSize += groupCount;
+        fromIndex = toIndex;
+      }
+      return batchSize;
+    }
+
+    /**
+     * Groups the rows within the passed index range.
+     *
+     * @return Amount of groups.
+     */
+    private int group(EntryColumns entryColumns, int fromIndex, int toIndex) {
+      projectTaskGroups.clear();
+      groups.clear();
+      int groupCount = 0;
+      for (int index = fromIndex; index < toIndex; index++) {
+        // Ids are positive and 0 means none, so neither key can be Long.MIN_VALUE
+        final long projectTaskKey = (long) entryColumns.getProjectId(index) << 32 | entryColumns.getTaskId(index);
+        long projectTaskGroup = projectTaskGroups.get(projectTaskKey);
+        if (projectTaskGroup == 0) {
+          projectTaskGroup = projectTaskGroups.size() + 1;
+          projectTaskGroups.addTo(projectTaskKey, projectTaskGroup);
+        }
+        final long groupKey = projectTaskGroup << 33 | (long) entryColumns.getClientId(index) << 1 |
+            (entryColumns.isBillable(index) ? 1 : 0);
+        int group = (int) groups.get(groupKey) - 1;
+        if (group < 0) {
+          group = groupCount++;
+          groups.addTo(groupKey, group + 1);
+          if (group == firstIndexes.length) {
+            firstIndexes = Arrays.copyOf(firstIndexes, group * 2);
+            totalMillis = Arrays.copyOf(totalMillis, group * 2);
+            entryCounts = Arrays.copyOf(entryCounts, group * 2);
+          }
+          firstIndexes[group] = index;
+          totalMillis[group] = 0;
+          entryCounts[group] = 0;
+        }
+        totalMillis[group] += entryColumns.getDurationMillis(index);
+        entryCounts[group]++;
+      }
+      return groupCount;
+    }
+  }
+
+  private static class RollupKey {
+    private final String date;
+    private final String projectName;
+    private final String task;
+    private final String clientName;
+    private final boolean billable;
+
+    private RollupKey(String date, String projectName, String task, String clientName, boolean billable) {
+      this.date = date;
+      this.projectName = projectName;
+      this.task = task;
+      this.clientName = clientName;
+      this.billable = billable;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (!(object instanceof RollupKey)) {
+        return false;
+      }
+      RollupKey rollupKey = (RollupKey) object;
+      return billable == rollupKey.billable &&
+          date.equals(rollupKey.date) &&
+          projectName.equals(rollupKey.projectName) &&
+          task.equals(rollupKey.task) &&
+          clientName.equals(rollupKey.clientName);
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = date.hashCode();
+      hashCode = 31 * hashCode + projectName.hashCode();
+      hashCode = 31 * hashCode + task.hashCode();
+      hashCode = 31 * hashCode + clientName.hashCode();
+      return 31 * hashCode + Boolean.hashCode(billable);
+    }
+  }
+}
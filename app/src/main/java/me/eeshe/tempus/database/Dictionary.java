@@ -0,0 +1,82 @@
+package me.eeshe.tempus.database;
+
+/**
+ * Dictionary tables of the low cardinality TimerEntry columns. Each distinct
+ * value is stored once with an integer id, and TimerEntryData refers to it by
+ * that id instead of repeating the text in every row.
+ */
+public enum Dictionary {
+  PROJECT("Project", "projectId", "projectName"),
+  CLIENT("Client", "clientId", "clientName"),
+  TASK("Task", "taskId", "task"),
+  EMAIL("Email", "emailId", "email");
+
+  private final String table;
+  private final String idColumn;
+  private final String nameColumn;
+  private final String createTableSql;
+  private final String insertSql;
+  private final String selectIdSql;
+
+  Dictionary(String table, String idColumn, String nameColumn) {
+    this.table = table;
+    this.idColumn = idColumn;
+    this.nameColumn = nameColumn;
+    this.createTableSql = "CREATE TABLE IF NOT EXISTS " + table + " (" +
+        "id INTEGER PRIMARY KEY, " +
+        "name TEXT NOT NULL UNIQUE" +
+        ")";
+    this.insertSql = "INSERT OR IGNORE INTO " + table + " (name) VALUES (?)";
+    this.selectIdSql = "SELECT id FROM " + table + " WHERE name = ?";
+  }
+
+  /**
+   * Returns the name of the dictionary table.
+   *
+   * @return Table name.
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Returns the TimerEntryData column that refers to this dictionary.
+   *
+   * @return Id column name.
+   */
+  public String getIdColumn() {
+    return idColumn;
+  }
+
+  /**
+   * Returns the TimerEntry column the values of this dictionary are exposed
+   * as.
+   *
+   * @return Name column name.
+   */
+  public String getNameColumn() {
+    return nameColumn;
+  }
+
+  public String getCreateTableSql() {
+    return createTableSql;
+  }
+
+  /**
+   * Returns the SQL that inserts a value unless it's already stored.
+   *
+   * @return Insert SQL with the value as its only parameter.
+   */
+  public String getInsertSql() {
+    return insertSql;
+  }
+
+  /**
+   * Returns the SQL that looks up the id of a value.
+   *
+   * @return Select SQL with the value as its only parameter.
+   */
+  public String getSelectIdSql() {
+    return selectIdSql;
+  }
+}
@@ -0,0 +1,64 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves the project, client, task and email of every TimerEntry into their
+ * {@link Dictionary} tables. The TimerEntry table is copied into
+ * TimerEntryData keeping its ids, so TimerEntryTag rows stay valid, and is
+ * replaced by a view with the same columns.
+ */
+class DictionaryMigration implements Migration {
+  private final int version;
+
+  DictionaryMigration(int version) {
+    this.version = version;
+  }
+
+  @Override
+  public void apply(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (Dictionary dictionary : Dictionary.values()) {
+        statement.executeUpdate(dictionary.getCreateTableSql());
+        statement.executeUpdate("INSERT OR IGNORE INTO " + dictionary.getTable() + " (name) " +
+            "SELECT DISTINCT " + dictionary.getNameColumn() + " FROM TimerEntry " +
+            "WHERE " + dictionary.getNameColumn() + " IS NOT NULL ORDER BY " + dictionary.getNameColumn());
+      }
+      statement.executeUpdate(TimerEntryData.CREATE_TABLE_SQL);
+      statement.executeUpdate("INSERT INTO TimerEntryData (id, projectId, clientId, description, taskId, emailId, " +
+          "tags, billable, startTimeMillis, durationMillis, contentHash) " +
+          "SELECT TimerEntry.id, Project.id, Client.id, TimerEntry.description, Task.id, Email.id, " +
+          "TimerEntry.tags, TimerEntry.billable, TimerEntry.startTimeMillis, TimerEntry.durationMillis, " +
+          "TimerEntry.contentHash FROM TimerEntry " +
+          "JOIN Project ON Project.name = TimerEntry.projectName " +
+          "LEFT JOIN Client ON Client.name = TimerEntry.clientName " +
+          "LEFT JOIN Task ON Task.name = TimerEntry.task " +
+          "LEFT JOIN Email ON Email.name = TimerEntry.email");
+      // Dropping the table drops its indexes as well
+      statement.executeUpdate("DROP TABLE TimerEntry");
+      statement.executeUpdate("DELETE FROM sqlite_sequence WHERE name = 'TimerEntry'");
+
+      statement.executeUpdate("CREATE INDEX IF NOT EXISTS TimerEntryData_startTimeMillis " +
+          "ON TimerEntryData (startTimeMillis)");
+      statement.executeUpdate("CREATE INDEX IF NOT EXISTS TimerEntryData_projectId_startTimeMillis " +
+          "ON TimerEntryData (projectId, startTimeMillis, durationMillis)");
+      statement.executeUpdate("CREATE INDEX IF NOT EXISTS TimerEntryData_projectId_taskId_startTimeMillis " +
+          "ON TimerEntryData (projectId, taskId, startTimeMillis, durationMillis)");
+      statement.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS TimerEntryData_contentHash " +
+          "ON TimerEntryData (contentHash)");
+      statement.executeUpdate(TimerEntryData.CREATE_VIEW_SQL);
+    }
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Move TimerEntry strings into dictionary tables";
+  }
+}
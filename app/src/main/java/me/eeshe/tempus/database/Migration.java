@@ -0,0 +1,34 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A single versioned change to the database schema. Migrations are applied in
+ * ascending version order and each of them runs inside its own transaction.
+ */
+public interface Migration {
+
+  /**
+   * Returns the schema version the database will be at after applying this
+   * Migration. It is stored in SQLite's 'user_version' pragma.
+   *
+   * @return Schema version.
+   */
+  int getVersion();
+
+  /**
+   * Returns a short human readable description of the Migration.
+   *
+   * @return Description of the Migration.
+   */
+  String getDescription();
+
+  /**
+   * Applies the Migration to the passed connection.
+   *
+   * @param connection Connection to migrate.
+   * @throws SQLException If the Migration couldn't be applied.
+   */
+  void apply(Connection connection) throws SQLException;
+}
@@ -3,110 +3,274 @@ package me.eeshe.tempus.database;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SQLiteManager {
   private static final Logger LOGGER = LoggerFactory.getLogger(SQLiteManager.class);
-  private static final String DATABASE_PATH = "database.db";
+  private final ConnectionProfile connectionProfile;
+  // Cached by thread and then by their SQL, so two threads never bind the same statement at once
+  private final Map<Thread, Map<String, PreparedStatement>> preparedStatements = new HashMap<>();
   private Connection connection; // The active database connection
 
+  public SQLiteManager() {
+    this(ConnectionProfile.fromSystemProperties());
+  }
+
+  public SQLiteManager(ConnectionProfile connectionProfile) {
+    this.connectionProfile = connectionProfile;
+  }
+
   /**
-   * Establishes a connection to the SQLite database defined by DATABASE_PATH.
-   * If the database file does not exist, it will be created.
+   * Establishes a connection to the SQLite database defined by the
+   * ConnectionProfile and applies its pragmas. If the database file does not
+   * exist, it will be created. The connection is kept open and reused until
+   * close() is called.
    * Any errors encountered (e.g., file system, driver, SQL) will be logged
    * and the method will simply return without establishing a connection.
    */
-  public void connect() {
+  public synchronized void connect() {
     if (connection != null) {
       try {
         if (!connection.isClosed()) {
-          LOGGER.info("Database connection already open for: {}", DATABASE_PATH);
+          LOGGER.info("Database connection already open for: {}", connectionProfile.getDatabasePath());
           return; // Connection is already active, nothing to do
         }
       } catch (SQLException e) {
         LOGGER.warn(
             "Failed to check if existing connection is closed for {}. Attempting to reconnect anyway. Error: {}",
-            DATABASE_PATH, e.getMessage());
+            connectionProfile.getDatabasePath(), e.getMessage());
         // Fall through to attempt reconnection
       }
     }
 
     // Ensure parent directories exist
-    File dbFile = new File(DATABASE_PATH);
+    File dbFile = new File(connectionProfile.getDatabasePath());
     File parentDir = dbFile.getParentFile();
     if (parentDir != null && !parentDir.exists()) {
       LOGGER.info("Creating parent directories for database at: {}", parentDir.getAbsolutePath());
       if (!parentDir.mkdirs()) {
         // If directory creation fails, log and return. No connection will be made.
-        LOGGER.error("Failed to create parent directories for database path: {}", DATABASE_PATH);
+        LOGGER.error("Failed to create parent directories for database path: {}",
+            connectionProfile.getDatabasePath());
         return;
       }
     }
 
     // JDBC URL for SQLite
-    String url = "jdbc:sqlite:" + DATABASE_PATH;
+    String url = "jdbc:sqlite:" + connectionProfile.getDatabasePath();
 
     try {
       // Load the JDBC driver (optional for modern JDBC, but good practice)
       Class.forName("org.sqlite.JDBC");
       connection = DriverManager.getConnection(url);
       connection.setAutoCommit(true); // Default to auto-commit, repositories can manage transactions if needed
-      LOGGER.info("Connected to SQLite database: {}", DATABASE_PATH);
+      applyPragmas(connection);
+      LOGGER.info("Connected to SQLite database: {}", connectionProfile.getDatabasePath());
     } catch (ClassNotFoundException e) {
       // This is a critical error; cannot connect without the driver. Log and return.
       LOGGER.error("SQLite JDBC driver not found. Please ensure 'sqlite-jdbc' is in your classpath.", e);
       connection = null; // Ensure connection is null if setup failed
     } catch (SQLException e) {
       // General SQL connection error. Log and return.
-      LOGGER.error("Failed to connect to SQLite database: {}", DATABASE_PATH, e);
+      LOGGER.error("Failed to connect to SQLite database: {}", connectionProfile.getDatabasePath(), e);
       connection = null; // Ensure connection is null if setup failed
     }
   }
 
+  /**
+   * Applies the pragmas of the ConnectionProfile to the passed connection. The
+   * busy timeout is set first so switching the journal mode waits for other
+   * processes holding a lock.
+   *
+   * @param connection Connection to configure.
+   * @throws SQLException If a pragma couldn't be applied.
+   */
+  private void applyPragmas(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      // Pragmas can't be parameterized, numeric values are formatted directly
+      statement.execute("PRAGMA busy_timeout = " + connectionProfile.getBusyTimeoutMillis());
+      statement.execute("PRAGMA journal_mode = " + connectionProfile.getJournalMode());
+      statement.execute("PRAGMA synchronous = " + connectionProfile.getSynchronous());
+      statement.execute("PRAGMA mmap_size = " + connectionProfile.getMmapSizeBytes());
+      // Negative values are interpreted by SQLite as KiB instead of pages
+      statement.execute("PRAGMA cache_size = -" + connectionProfile.getCacheSizeKibibytes());
+      statement.execute("PRAGMA wal_autocheckpoint = " + connectionProfile.getWalAutoCheckpointPages());
+      statement.execute("PRAGMA temp_store = MEMORY");
+    }
+  }
+
+  /**
+   * Runs a WAL checkpoint, copying the committed frames of the WAL file back
+   * into the database file.
+   *
+   * @param checkpointMode Mode of the checkpoint.
+   * @return True if the checkpoint completed without being blocked by another
+   *         connection.
+   */
+  public synchronized boolean checkpoint(CheckpointMode checkpointMode) {
+    Connection connection = getConnection();
+    if (connection == null) {
+      return false;
+    }
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("PRAGMA wal_checkpoint(" + checkpointMode.name() + ")")) {
+      // The first column is 1 if the checkpoint was blocked by a lock
+      return resultSet.next() && resultSet.getInt(1) == 0;
+    } catch (SQLException e) {
+      LOGGER.error("Error running {} checkpoint for {}. Message: {}",
+          checkpointMode, connectionProfile.getDatabasePath(), e.getMessage());
+      return false;
+    }
+  }
+
   /**
    * Returns the active database connection.
    *
    * @return The active object, or null if no
    *         connection is open or an error occurred.
    */
-  public Connection getConnection() {
+  public synchronized Connection getConnection() {
     connect();
     try {
       if (connection == null || connection.isClosed()) {
         // This indicates a missing or closed connection. Log and return null.
-        LOGGER.error("Attempted to get connection when it's not open for {}. Call connect() first.", DATABASE_PATH);
+        LOGGER.error("Attempted to get connection when it's not open for {}. Call connect() first.",
+            connectionProfile.getDatabasePath());
         return null;
       }
     } catch (SQLException e) {
       // An error occurred while trying to check if the connection is closed. Log and
       // return null.
-      LOGGER.error("Failed to check connection status for {}.", DATABASE_PATH, e);
+      LOGGER.error("Failed to check connection status for {}.", connectionProfile.getDatabasePath(), e);
       return null;
     }
     return connection;
   }
 
   /**
-   * Closes the database connection.
+   * Returns a PreparedStatement for the passed SQL. Statements are prepared
+   * once per thread and cached for the lifetime of the connection, so callers
+   * must not close them. Any ResultSet obtained from them should be closed
+   * instead.
+   *
+   * The connection is shared by every thread that uses this SQLiteManager,
+   * but each thread gets its own statements: a returned PreparedStatement
+   * must only be bound and executed by the thread that requested it. The
+   * statements of threads that finished are closed the next time a new
+   * thread requests one.
+   *
+   * @param sql SQL statement to prepare.
+   * @return Cached PreparedStatement of the calling thread.
+   * @throws SQLException If there is no open connection or the statement
+   *                      couldn't be prepared.
    */
-  public void close() {
+  public synchronized PreparedStatement prepareStatement(String sql) throws SQLException {
+    final Thread thread = Thread.currentThread();
+    Map<String, PreparedStatement> threadStatements = preparedStatements.get(thread);
+    if (threadStatements == null) {
+      closeStatementsOfFinishedThreads();
+      threadStatements = new HashMap<>();
+      preparedStatements.put(thread, threadStatements);
+    }
+    PreparedStatement preparedStatement = threadStatements.get(sql);
+    if (preparedStatement != null && !preparedStatement.isClosed()) {
+      return preparedStatement;
+    }
+    Connection connection = getConnection();
+    if (connection == null) {
+      throw new SQLException("No open connection for " + connectionProfile.getDatabasePath());
+    }
+    preparedStatement = connection.prepareStatement(sql);
+    threadStatements.put(sql, preparedStatement);
+
+    return preparedStatement;
+  }
+
+  /**
+   * Closes the cached PreparedStatements and the database connection.
+   */
+  public synchronized void close() {
+    closePreparedStatements();
     if (connection != null) {
       try {
         if (!connection.isClosed()) {
+          optimizeBeforeClose(connection);
           connection.close();
-          LOGGER.info("Disconnected from SQLite database: {}", DATABASE_PATH);
+          LOGGER.info("Disconnected from SQLite database: {}", connectionProfile.getDatabasePath());
         }
       } catch (SQLException e) {
         // Error closing the connection. Log but do not re-throw.
-        LOGGER.error("Error closing SQLite connection for {}: {}", DATABASE_PATH, e.getMessage(), e);
+        LOGGER.error("Error closing SQLite connection for {}: {}",
+            connectionProfile.getDatabasePath(), e.getMessage(), e);
       } finally {
         connection = null; // Ensure the reference is nullified regardless of close success
       }
     } else {
-      LOGGER.debug("No active connection to close for: {}", DATABASE_PATH);
+      LOGGER.debug("No active connection to close for: {}", connectionProfile.getDatabasePath());
+    }
+  }
+
+  /**
+   * Lets SQLite refresh the statistics of the tables whose queries would
+   * benefit from it and, if configured, truncates the WAL file so it doesn't
+   * keep growing between sessions.
+   *
+   * @param connection Connection about to be closed.
+   */
+  private void optimizeBeforeClose(Connection connection) {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("PRAGMA optimize");
+    } catch (SQLException e) {
+      LOGGER.warn("Error optimizing {}: {}", connectionProfile.getDatabasePath(), e.getMessage());
+    }
+    if (connectionProfile.isCheckpointOnClose()) {
+      checkpoint(CheckpointMode.TRUNCATE);
+    }
+  }
+
+  public ConnectionProfile getConnectionProfile() {
+    return connectionProfile;
+  }
+
+  private void closePreparedStatements() {
+    for (Map<String, PreparedStatement> threadStatements : preparedStatements.values()) {
+      closePreparedStatements(threadStatements);
+    }
+    preparedStatements.clear();
+  }
+
+  /**
+   * Closes the cached statements of the threads that are no longer alive,
+   * such as the ones of a search or page loader that was shut down.
+   */
+  private void closeStatementsOfFinishedThreads() {
+    Iterator<Map.Entry<Thread, Map<String, PreparedStatement>>> iterator = preparedStatements.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Thread, Map<String, PreparedStatement>> entry = iterator.next();
+      if (!entry.getKey().isAlive()) {
+        closePreparedStatements(entry.getValue());
+        iterator.remove();
+      }
+    }
+  }
+
+  private void closePreparedStatements(Map<String, PreparedStatement> threadStatements) {
+    for (PreparedStatement preparedStatement : threadStatements.values()) {
+      try {
+        preparedStatement.close();
+      } catch (SQLException e) {
+        LOGGER.warn("Error closing cached statement for {}: {}",
+            connectionProfile.getDatabasePath(), e.getMessage());
+      }
     }
   }
 }
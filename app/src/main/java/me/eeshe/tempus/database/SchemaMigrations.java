@@ -0,0 +1,62 @@
+package me.eeshe.tempus.database;
+
+import java.util.List;
+
+/**
+ * Ordered list of every Migration of the Tempus schema. Migrations must never
+ * be edited once released, new changes are added as a new version at the end
+ * of the list.
+ */
+public class SchemaMigrations {
+  private static final List<Migration> MIGRATIONS = List.of(
+      new SqlMigration(1, "Create TimerEntry table",
+          "CREATE TABLE IF NOT EXISTS TimerEntry (" +
+              "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+              "projectName TEXT NOT NULL, " +
+              "clientName TEXT, " +
+              "description TEXT, " +
+              "task TEXT, " +
+              "email TEXT, " +
+              "tags TEXT, " +
+              "billable INTEGER NOT NULL, " +
+              "startTimeMillis INTEGER NOT NULL, " +
+              "durationMillis INTEGER NOT NULL" +
+              ")"),
+      new SqlMigration(2, "Index TimerEntry by start time and project",
+          "CREATE INDEX IF NOT EXISTS TimerEntry_startTimeMillis ON TimerEntry (startTimeMillis)",
+          "CREATE INDEX IF NOT EXISTS TimerEntry_projectName_startTimeMillis " +
+              "ON TimerEntry (projectName, startTimeMillis, durationMillis)",
+          "CREATE INDEX IF NOT EXISTS TimerEntry_projectName_task_startTimeMillis " +
+              "ON TimerEntry (projectName, task, startTimeMillis, durationMillis)"),
+      new ContentHashMigration(3),
+      new SqlMigration(4, "Create RunningTimer journal table",
+          "CREATE TABLE IF NOT EXISTS RunningTimer (" +
+              "id INTEGER PRIMARY KEY, " +
+              "projectName TEXT, " +
+              "clientName TEXT, " +
+              "description TEXT, " +
+              "task TEXT, " +
+              "email TEXT, " +
+              "tags TEXT, " +
+              "billable INTEGER NOT NULL, " +
+              "startTimeMillis INTEGER NOT NULL" +
+              ")"),
+      new DailyRollupMigration(5),
+      new TagMigration(6),
+      new DictionaryMigration(7),
+      new SqlMigration(8, "Create TimerEntrySearch full-text index",
+          TimerEntrySearch.CREATE_TABLE_SQL,
+          TimerEntrySearch.CREATE_INSERT_TRIGGER_SQL,
+          TimerEntrySearch.CREATE_DELETE_TRIGGER_SQL,
+          TimerEntrySearch.CREATE_UPDATE_TRIGGER_SQL,
+          TimerEntrySearch.REBUILD_SQL),
+      new SqlMigration(9, "Journal when running timers were last seen and stopped",
+          "ALTER TABLE RunningTimer ADD COLUMN lastSeenMillis INTEGER",
+          "ALTER TABLE RunningTimer ADD COLUMN stopTimeMillis INTEGER"),
+      // Left empty, so totals of an unknown zone are rebuilt on the next start
+      new SqlMigration(10, "Create DailyRollupZone table", DailyRollups.CREATE_ZONE_TABLE_SQL));
+
+  public static List<Migration> getMigrations() {
+    return MIGRATIONS;
+  }
+}
@@ -0,0 +1,120 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Brings the database schema up to date by applying every pending Migration.
+ * The current schema version is tracked through SQLite's 'user_version'
+ * pragma, so existing database files are upgraded in place.
+ */
+public class SchemaMigrator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SchemaMigrator.class);
+
+  private final SQLiteManager sqLiteManager;
+  private final List<Migration> migrations;
+
+  public SchemaMigrator(SQLiteManager sqLiteManager) {
+    this(sqLiteManager, SchemaMigrations.getMigrations());
+  }
+
+  public SchemaMigrator(SQLiteManager sqLiteManager, List<Migration> migrations) {
+    this.sqLiteManager = sqLiteManager;
+    this.migrations = new ArrayList<>(migrations);
+    this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+  }
+
+  /**
+   * Applies every Migration whose version is higher than the current schema
+   * version. Each Migration runs in its own transaction, if one fails it is
+   * rolled back and no further Migrations are applied.
+   */
+  public void migrate() {
+    Connection connection = sqLiteManager.getConnection();
+    if (connection == null) {
+      return;
+    }
+    try {
+      final int currentVersion = readSchemaVersion(connection);
+      final int latestVersion = getLatestVersion();
+      if (currentVersion > latestVersion) {
+        LOGGER.warn("Database schema version {} is newer than the latest known version {}.",
+            currentVersion, latestVersion);
+        return;
+      }
+      for (Migration migration : migrations) {
+        if (migration.getVersion() <= currentVersion) {
+          continue;
+        }
+        if (!apply(connection, migration)) {
+          return;
+        }
+      }
+    } catch (SQLException e) {
+      LOGGER.error("Error reading database schema version. Message: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Applies the passed Migration and updates the schema version within the
+   * same transaction.
+   *
+   * @param connection Connection to migrate.
+   * @param migration  Migration to apply.
+   * @return True if the Migration was applied.
+   */
+  private boolean apply(Connection connection, Migration migration) throws SQLException {
+    final boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      migration.apply(connection);
+      writeSchemaVersion(connection, migration.getVersion());
+      connection.commit();
+      LOGGER.info("Applied migration {}: {}", migration.getVersion(), migration.getDescription());
+      return true;
+    } catch (SQLException e) {
+      connection.rollback();
+      LOGGER.error("Error applying migration {} ({}). Message: {}",
+          migration.getVersion(),
+          migration.getDescription(),
+          e.getMessage());
+      return false;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private int readSchemaVersion(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+      return resultSet.next() ? resultSet.getInt(1) : 0;
+    }
+  }
+
+  private void writeSchemaVersion(Connection connection, int version) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      // Pragmas can't be parameterized, the version is always an int
+      statement.executeUpdate("PRAGMA user_version = " + version);
+    }
+  }
+
+  /**
+   * Returns the version the schema will be at once every Migration is applied.
+   *
+   * @return Latest schema version.
+   */
+  public int getLatestVersion() {
+    if (migrations.isEmpty()) {
+      return 0;
+    }
+    return migrations.get(migrations.size() - 1).getVersion();
+  }
+}
@@ -0,0 +1,40 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Migration that executes a fixed list of SQL statements in order.
+ */
+public class SqlMigration implements Migration {
+  private final int version;
+  private final String description;
+  private final List<String> statements;
+
+  public SqlMigration(int version, String description, String... statements) {
+    this.version = version;
+    this.description = description;
+    this.statements = List.of(statements);
+  }
+
+  @Override
+  public void apply(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (String sql : statements) {
+        statement.executeUpdate(sql);
+      }
+    }
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,89 @@
+package me.eeshe.tempus.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import me.eeshe.tempus.model.TimerEntry;
+
+/**
+ * Creates the Tag and TimerEntryTag tables and fills them from the tags
+ * column of the TimerEntries that are already stored. The column is kept, it
+ * still holds the tags of each TimerEntry in their original order.
+ */
+class TagMigration implements Migration {
+  private static final int BATCH_SIZE = 1000;
+
+  private final int version;
+
+  TagMigration(int version) {
+    this.version = version;
+  }
+
+  @Override
+  public void apply(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate(Tags.CREATE_TAG_TABLE_SQL);
+      statement.executeUpdate(Tags.CREATE_TIMER_ENTRY_TAG_TABLE_SQL);
+    }
+    final String selectSql = "SELECT id, tags, startTimeMillis FROM TimerEntry WHERE tags IS NOT NULL AND tags != ''";
+    Map<String, Long> tagIds = new HashMap<>();
+    try (Statement selectStatement = connection.createStatement();
+        ResultSet resultSet = selectStatement.executeQuery(selectSql);
+        PreparedStatement insertTagStatement = connection.prepareStatement(Tags.INSERT_TAG_SQL);
+        PreparedStatement selectTagIdStatement = connection.prepareStatement(Tags.SELECT_TAG_ID_SQL);
+        PreparedStatement insertTimerEntryTagStatement = connection.prepareStatement(
+            Tags.INSERT_TIMER_ENTRY_TAG_SQL)) {
+      int batchSize = 0;
+      while (resultSet.next()) {
+        final long timerEntryId = resultSet.getLong("id");
+        final long startTimeMillis = resultSet.getLong("startTimeMillis");
+        for (String tag : TimerEntry.parseTags(resultSet.getString("tags"))) {
+          Long tagId = tagIds.get(tag);
+          if (tagId == null) {
+            tagId = insertTag(insertTagStatement, selectTagIdStatement, tag);
+            tagIds.put(tag, tagId);
+          }
+          insertTimerEntryTagStatement.setLong(1, tagId);
+          insertTimerEntryTagStatement.setLong(2, startTimeMillis);
+          insertTimerEntryTagStatement.setLong(3, timerEntryId);
+          insertTimerEntryTagStatement.addBatch();
+          if (++batchSize == BATCH_SIZE) {
+            insertTimerEntryTagStatement.executeBatch();
+            batchSize = 0;
+          }
+        }
+      }
+      if (batchSize > 0) {
+        insertTimerEntryTagStatement.executeBatch();
+      }
+    }
+  }
+
+  private long insertTag(PreparedStatement insertTagStatement, PreparedStatement selectTagIdStatement, String tag)
+      throws SQLException {
+    insertTagStatement.setString(1, tag);
+    insertTagStatement.executeUpdate();
+    selectTagIdStatement.setString(1, tag);
+    try (ResultSet resultSet = selectTagIdStatement.executeQuery()) {
+      if (!resultSet.next()) {
+        throw new SQLException("Tag " + tag + " wasn't stored");
+      }
+      return resultSet.getLong(1);
+    }
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Create Tag and TimerEntryTag tables";
+  }
+}
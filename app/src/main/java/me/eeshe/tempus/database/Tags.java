@@ -0,0 +1,29 @@
+package me.eeshe.tempus.database;
+
+/**
+ * SQL of the normalized tag tables. Tag holds every distinct tag name and
+ * TimerEntryTag links them to TimerEntries. TimerEntryTag repeats the start
+ * time of its TimerEntry and is keyed by (tagId, startTimeMillis,
+ * timerEntryId), so the TimerEntries with a tag within a range are a single
+ * range lookup of its primary key.
+ */
+public class Tags {
+  public static final String TAG_TABLE = "Tag";
+  public static final String TIMER_ENTRY_TAG_TABLE = "TimerEntryTag";
+  public static final String CREATE_TAG_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TAG_TABLE + " (" +
+      "id INTEGER PRIMARY KEY, " +
+      "name TEXT NOT NULL UNIQUE" +
+      ")";
+  public static final String CREATE_TIMER_ENTRY_TAG_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " +
+      TIMER_ENTRY_TAG_TABLE + " (" +
+      "tagId INTEGER NOT NULL, " +
+      "startTimeMillis INTEGER NOT NULL, " +
+      "timerEntryId INTEGER NOT NULL, " +
+      "PRIMARY KEY (tagId, startTimeMillis, timerEntryId)" +
+      ") WITHOUT ROWID";
+  public static final String INSERT_TAG_SQL = "INSERT OR IGNORE INTO " + TAG_TABLE + " (name) VALUES (?)";
+  public static final String SELECT_TAG_ID_SQL = "SELECT id FROM " + TAG_TABLE + " WHERE name = ?";
+  // The same tag can be listed twice in a TimerEntry, it's only linked once
+  public static final String INSERT_TIMER_ENTRY_TAG_SQL = "INSERT OR IGNORE INTO " + TIMER_ENTRY_TAG_TABLE +
+      " (tagId, startTimeMillis, timerEntryId) VALUES (?, ?, ?)";
+}
@@ -0,0 +1,51 @@
+package me.eeshe.tempus.database;
+
+/**
+ * SQL of the TimerEntryData table, which stores TimerEntries with their
+ * project, client, task and email replaced by the ids of their
+ * {@link Dictionary} rows. The TimerEntry view joins them back, so reads keep
+ * seeing the original columns while every write goes to TimerEntryData.
+ */
+public class TimerEntryData {
+  public static final String TABLE = "TimerEntryData";
+  public static final String VIEW = "TimerEntry";
+  public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+      "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+      "projectId INTEGER NOT NULL REFERENCES Project (id), " +
+      "clientId INTEGER REFERENCES Client (id), " +
+      "description TEXT, " +
+      "taskId INTEGER REFERENCES Task (id), " +
+      "emailId INTEGER REFERENCES Email (id), " +
+      "tags TEXT, " +
+      "billable INTEGER NOT NULL, " +
+      "startTimeMillis INTEGER NOT NULL, " +
+      "durationMillis INTEGER NOT NULL, " +
+      "contentHash INTEGER" +
+      ")";
+  // Left joins on the primary keys, SQLite leaves out the ones whose columns aren't read
+  public static final String CREATE_VIEW_SQL = "CREATE VIEW IF NOT EXISTS " + VIEW + " AS SELECT " +
+      "TimerEntryData.id AS id, " +
+      "Project.name AS projectName, " +
+      "Client.name AS clientName, " +
+      "TimerEntryData.description AS description, " +
+      "Task.name AS task, " +
+      "Email.name AS email, " +
+      "TimerEntryData.tags AS tags, " +
+      "TimerEntryData.billable AS billable, " +
+      "TimerEntryData.startTimeMillis AS startTimeMillis, " +
+      "TimerEntryData.durationMillis AS durationMillis, " +
+      "TimerEntryData.contentHash AS contentHash, " +
+      "TimerEntryData.projectId AS projectId, " +
+      "TimerEntryData.clientId AS clientId, " +
+      "TimerEntryData.taskId AS taskId, " +
+      "TimerEntryData.emailId AS emailId " +
+      "FROM TimerEntryData " +
+      "LEFT JOIN Project ON Project.id = TimerEntryData.projectId " +
+      "LEFT JOIN Client ON Client.id = TimerEntryData.clientId " +
+      "LEFT JOIN Task ON Task.id = TimerEntryData.taskId " +
+      "LEFT JOIN Email ON Email.id = TimerEntryData.emailId";
+  // Entries whose content hash is already stored are skipped
+  public static final String INSERT_SQL = "INSERT OR IGNORE INTO " + TABLE +
+      " (projectId, clientId, description, taskId, emailId, tags, billable, startTimeMillis, durationMillis, " +
+      "contentHash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+}
@@ -0,0 +1,57 @@
+package me.eeshe.tempus.database;
+
+/**
+ * SQL of the TimerEntrySearch FTS5 table, a full-text index of the
+ * description, project and task of every TimerEntry. It's an external content
+ * table over the TimerEntry view, so the text itself isn't stored twice, and
+ * it's kept in sync by triggers on TimerEntryData.
+ */
+public class TimerEntrySearch {
+  public static final String TABLE = "TimerEntrySearch";
+  // The prefix indexes keep the queries of the first characters typed from scanning every term
+  public static final String CREATE_TABLE_SQL = "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE + " USING fts5(" +
+      "description, " +
+      "projectName, " +
+      "task, " +
+      "content = 'TimerEntry', " +
+      "content_rowid = 'id', " +
+      "tokenize = 'unicode61 remove_diacritics 2', " +
+      "prefix = '2 3'" +
+      ")";
+  public static final String CREATE_INSERT_TRIGGER_SQL = "CREATE TRIGGER IF NOT EXISTS TimerEntryData_search_insert " +
+      "AFTER INSERT ON TimerEntryData BEGIN " +
+      createIndexSql("new") +
+      " END";
+  public static final String CREATE_DELETE_TRIGGER_SQL = "CREATE TRIGGER IF NOT EXISTS TimerEntryData_search_delete " +
+      "AFTER DELETE ON TimerEntryData BEGIN " +
+      createRemoveSql("old") +
+      " END";
+  public static final String CREATE_UPDATE_TRIGGER_SQL = "CREATE TRIGGER IF NOT EXISTS TimerEntryData_search_update " +
+      "AFTER UPDATE ON TimerEntryData BEGIN " +
+      createRemoveSql("old") + " " +
+      createIndexSql("new") +
+      " END";
+  public static final String REBUILD_SQL = "INSERT INTO " + TABLE + " (" + TABLE + ") VALUES ('rebuild')";
+
+  private static String createIndexSql(String row) {
+    return "INSERT INTO " + TABLE + " (rowid, description, projectName, task) VALUES (" +
+        createValuesSql(row) + ");";
+  }
+
+  /**
+   * External content tables must be passed the exact values a row was
+   * indexed with to remove it. Dictionary rows never change, so they're
+   * looked up again.
+   */
+  private static String createRemoveSql(String row) {
+    return "INSERT INTO " + TABLE + " (" + TABLE + ", rowid, description, projectName, task) VALUES ('delete', " +
+        createValuesSql(row) + ");";
+  }
+
+  private static String createValuesSql(String row) {
+    return row + ".id, " +
+        row + ".description, " +
+        "(SELECT name FROM Project WHERE id = " + row + ".projectId), " +
+        "(SELECT name FROM Task WHERE id = " + row + ".taskId)";
+  }
+}
@@ -1,27 +1,148 @@
 package me.eeshe.tempus.model;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 public class DailyTimerEntries {
   private final LocalDate date;
   private final Map<String, List<TimerEntry>> timerEntries;
+  private final Map<String, Long> groupElapsedTimeMillis;
+  private long elapsedTimeMillis;
 
   public DailyTimerEntries(LocalDate localDate) {
     this.date = localDate;
     this.timerEntries = new LinkedHashMap<>();
+    this.groupElapsedTimeMillis = new HashMap<>();
   }
 
   public DailyTimerEntries(LocalDate localDate, Map<String, List<TimerEntry>> timerEntries) {
     this.date = localDate;
     this.timerEntries = timerEntries;
+    this.groupElapsedTimeMillis = new HashMap<>();
+    for (List<TimerEntry> groupedTimerEntries : timerEntries.values()) {
+      for (TimerEntry timerEntry : groupedTimerEntries) {
+        addElapsedTimeMillis(timerEntry);
+      }
+    }
   }
 
+  /**
+   * Adds the passed TimerEntry to its 'ProjectName:Task' group. Entries within
+   * a group are kept sorted by their start time in descending order, and groups
+   * are kept sorted by their most recent entry.
+   *
+   * @param timerEntry TimerEntry to add.
+   */
+  public void addTimerEntry(TimerEntry timerEntry) {
+    final String projectTaskString = timerEntry.createProjectTaskString();
+    List<TimerEntry> groupedTimerEntries = timerEntries.get(projectTaskString);
+    if (groupedTimerEntries == null) {
+      groupedTimerEntries = new ArrayList<>();
+      timerEntries.put(projectTaskString, groupedTimerEntries);
+    }
+    int index = groupedTimerEntries.size();
+    while (index > 0 && groupedTimerEntries.get(index - 1).getStartTimeMillis() < timerEntry.getStartTimeMillis()) {
+      index--;
+    }
+    groupedTimerEntries.add(index, timerEntry);
+    addElapsedTimeMillis(timerEntry);
+    if (index == 0 && !isGroupOrderValid()) {
+      sortGroups();
+    }
+  }
+
+  /**
+   * Removes the passed TimerEntry from its group, discarding the group if it
+   * ends up empty.
+   *
+   * @param timerEntry TimerEntry to remove.
+   * @return True if the TimerEntry was part of this day.
+   */
+  public boolean removeTimerEntry(TimerEntry timerEntry) {
+    final String projectTaskString = timerEntry.createProjectTaskString();
+    final List<TimerEntry> groupedTimerEntries = timerEntries.get(projectTaskString);
+    if (groupedTimerEntries == null || !groupedTimerEntries.remove(timerEntry)) {
+      return false;
+    }
+    elapsedTimeMillis -= timerEntry.getDurationMillis();
+    if (groupedTimerEntries.isEmpty()) {
+      timerEntries.remove(projectTaskString);
+      groupElapsedTimeMillis.remove(projectTaskString);
+    } else {
+      groupElapsedTimeMillis.merge(projectTaskString, -timerEntry.getDurationMillis(), Long::sum);
+      sortGroups();
+    }
+    return true;
+  }
+
+  public boolean isEmpty() {
+    return timerEntries.isEmpty();
+  }
+
+  /**
+   * Checks whether the groups are sorted by their most recent entry in
+   * descending order.
+   *
+   * @return True if the groups are sorted.
+   */
+  private boolean isGroupOrderValid() {
+    long previousStartTimeMillis = Long.MAX_VALUE;
+    for (List<TimerEntry> groupedTimerEntries : timerEntries.values()) {
+      final long startTimeMillis = groupedTimerEntries.get(0).getStartTimeMillis();
+      if (startTimeMillis > previousStartTimeMillis) {
+        return false;
+      }
+      previousStartTimeMillis = startTimeMillis;
+    }
+    return true;
+  }
+
+  private void sortGroups() {
+    List<Entry<String, List<TimerEntry>>> groups = new ArrayList<>(timerEntries.entrySet());
+    groups.sort(Comparator.comparingLong(
+        (Entry<String, List<TimerEntry>> group) -> group.getValue().get(0).getStartTimeMillis()).reversed());
+
+    timerEntries.clear();
+    for (Entry<String, List<TimerEntry>> group : groups) {
+      timerEntries.put(group.getKey(), group.getValue());
+    }
+  }
+
+  /**
+   * Accumulates the duration of the passed TimerEntry into the day and group
+   * totals so they don't need to be recomputed on each redraw.
+   *
+   * @param timerEntry TimerEntry whose duration will be accumulated.
+   */
+  private void addElapsedTimeMillis(TimerEntry timerEntry) {
+    elapsedTimeMillis += timerEntry.getDurationMillis();
+    groupElapsedTimeMillis.merge(timerEntry.createProjectTaskString(), timerEntry.getDurationMillis(), Long::sum);
+  }
+
+  /**
+   * Returns the total elapsed time in milliseconds of the day.
+   *
+   * @return Total elapsed time in milliseconds.
+   */
   public long computeElapsedTimeMillis() {
-    return timerEntries.values().stream().flatMap(List::stream)
-        .map(TimerEntry::getDurationMillis).mapToLong(Long::longValue).sum();
+    return elapsedTimeMillis;
+  }
+
+  /**
+   * Returns the total elapsed time in milliseconds of the passed
+   * 'ProjectName:Task' group within the day.
+   *
+   * @param projectTaskString Group to compute.
+   * @return Total elapsed time in milliseconds of the group.
+   */
+  public long computeElapsedTimeMillis(String projectTaskString) {
+    return groupElapsedTimeMillis.getOrDefault(projectTaskString, 0L);
   }
 
   public LocalDate getDate() {
@@ -0,0 +1,190 @@
+package me.eeshe.tempus.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * TimerEntries stored as primitive columns, sorted by their start time in
+ * ascending order. Project, client and task are kept as their dictionary ids,
+ * 0 meaning none, so a row takes a few dozen bytes instead of a TimerEntry
+ * with its Strings and tag list. Meant for aggregations over large ranges,
+ * which run as plain loops over the arrays without boxing.
+ */
+public class EntryColumns {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] startTimeMillis = new long[INITIAL_CAPACITY];
+  private long[] durationMillis = new long[INITIAL_CAPACITY];
+  private int[] projectIds = new int[INITIAL_CAPACITY];
+  private int[] clientIds = new int[INITIAL_CAPACITY];
+  private int[] taskIds = new int[INITIAL_CAPACITY];
+  private final BitSet billable = new BitSet();
+  private int size;
+  private int maxProjectId;
+  private int maxClientId;
+  private int maxTaskId;
+
+  /**
+   * Appends a row. Rows must be appended in ascending start time order.
+   *
+   * @param startTimeMillis Start time in epoch milliseconds.
+   * @param durationMillis  Duration in milliseconds.
+   * @param projectId       Dictionary id of the project.
+   * @param clientId        Dictionary id of the client, 0 if none.
+   * @param taskId          Dictionary id of the task, 0 if none.
+   * @param billable        Whether the TimerEntry is billable.
+   * @throws IllegalArgumentException If the row starts before the last one.
+   */
+  public void add(long startTimeMillis, long durationMillis, int projectId, int clientId, int taskId,
+      boolean billable) {
+    if (size > 0 && startTimeMillis < this.startTimeMillis[size - 1]) {
+      throw new IllegalArgumentException("Rows must be added in ascending start time order");
+    }
+    if (size == this.startTimeMillis.length) {
+      final int capacity = size * 2;
+      this.startTimeMillis = Arrays.copyOf(this.startTimeMillis, capacity);
+      this.durationMillis = Arrays.copyOf(this.durationMillis, capacity);
+      this.projectIds = Arrays.copyOf(this.projectIds, capacity);
+      this.clientIds = Arrays.copyOf(this.clientIds, capacity);
+      this.taskIds = Arrays.copyOf(this.taskIds, capacity);
+    }
+    this.startTimeMillis[size] = startTimeMillis;
+    this.durationMillis[size] = durationMillis;
+    this.projectIds[size] = projectId;
+    this.clientIds[size] = clientId;
+    this.taskIds[size] = taskId;
+    this.billable.set(size, billable);
+    maxProjectId = Math.max(maxProjectId, projectId);
+    maxClientId = Math.max(maxClientId, clientId);
+    maxTaskId = Math.max(maxTaskId, taskId);
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the index of the first row that starts at or after the passed
+   * time. Rows are sorted by their start time, so it's a binary search.
+   *
+   * @param millis Time in epoch milliseconds.
+   * @return Index of the first row starting at or after the time, or the
+   *         amount of rows if there is none.
+   */
+  public int indexOfStartTime(long millis) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (startTimeMillis[middle] < millis) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Sums the durations of every row.
+   *
+   * @return Total duration in milliseconds.
+   */
+  public long computeTotalMillis() {
+    return computeTotalMillis(0, size);
+  }
+
+  /**
+   * Sums the durations of the rows within the passed index range.
+   *
+   * @param fromIndex Inclusive index of the first row.
+   * @param toIndex   Exclusive index of the last row.
+   * @return Total duration in milliseconds.
+   */
+  public long computeTotalMillis(int fromIndex, int toIndex) {
+    long totalMillis = 0;
+    for (int index = fromIndex; index < toIndex; index++) {
+      totalMillis += durationMillis[index];
+    }
+    return totalMillis;
+  }
+
+  /**
+   * Sums the durations of the billable rows.
+   *
+   * @return Billable duration in milliseconds.
+   */
+  public long computeBillableMillis() {
+    long billableMillis = 0;
+    for (int index = billable.nextSetBit(0); index >= 0 && index < size; index = billable.nextSetBit(index + 1)) {
+      billableMillis += durationMillis[index];
+    }
+    return billableMillis;
+  }
+
+  /**
+   * Sums the durations of the rows of each project.
+   *
+   * @return Total duration in milliseconds indexed by project id.
+   */
+  public long[] computeTotalMillisByProject() {
+    return computeTotalMillisById(projectIds, maxProjectId);
+  }
+
+  /**
+   * Sums the durations of the rows of each client.
+   *
+   * @return Total duration in milliseconds indexed by client id. Rows without
+   *         a client are summed at index 0.
+   */
+  public long[] computeTotalMillisByClient() {
+    return computeTotalMillisById(clientIds, maxClientId);
+  }
+
+  /**
+   * Sums the durations of the rows of each task.
+   *
+   * @return Total duration in milliseconds indexed by task id. Rows without a
+   *         task are summed at index 0.
+   */
+  public long[] computeTotalMillisByTask() {
+    return computeTotalMillisById(taskIds, maxTaskId);
+  }
+
+  private long[] computeTotalMillisById(int[] ids, int maxId) {
+    final long[] totalMillis = new long[maxId + 1];
+    for (int index = 0; index < size; index++) {
+      totalMillis[ids[index]] += durationMillis[index];
+    }
+    return totalMillis;
+  }
+
+  public long getStartTimeMillis(int index) {
+    return startTimeMillis[index];
+  }
+
+  public long getDurationMillis(int index) {
+    return durationMillis[index];
+  }
+
+  public int getProjectId(int index) {
+    return projectIds[index];
+  }
+
+  public int getClientId(int index) {
+    return clientIds[index];
+  }
+
+  public int getTaskId(int index) {
+    return taskIds[index];
+  }
+
+  public boolean isBillable(int index) {
+    return billable.get(index);
+  }
+}
@@ -0,0 +1,44 @@
+package me.eeshe.tempus.model;
+
+import java.util.List;
+
+/**
+ * Totals of the TimerEntries within a range, grouped by period and by one
+ * dimension. Rows are sorted by period and then by total time, largest
+ * first.
+ */
+public class Report {
+  private final ReportQuery reportQuery;
+  private final List<ReportRow> rows;
+  private final long totalMillis;
+  private final long entryCount;
+
+  public Report(ReportQuery reportQuery, List<ReportRow> rows, long totalMillis, long entryCount) {
+    this.reportQuery = reportQuery;
+    this.rows = rows;
+    this.totalMillis = totalMillis;
+    this.entryCount = entryCount;
+  }
+
+  public ReportQuery getReportQuery() {
+    return reportQuery;
+  }
+
+  public List<ReportRow> getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the total time of the range. TimerEntries with several tags are
+   * only counted once, so it can be less than the sum of a tag Report's rows.
+   *
+   * @return Total milliseconds.
+   */
+  public long getTotalMillis() {
+    return totalMillis;
+  }
+
+  public long getEntryCount() {
+    return entryCount;
+  }
+}
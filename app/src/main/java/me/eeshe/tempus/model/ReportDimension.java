@@ -0,0 +1,33 @@
+package me.eeshe.tempus.model;
+
+/**
+ * Field the totals of a Report are grouped by.
+ */
+public enum ReportDimension {
+  PROJECT("Project"),
+  CLIENT("Client"),
+  TASK("Task"),
+  TAG("Tag"),
+  BILLABLE("Billable");
+
+  private final String displayName;
+
+  ReportDimension(String displayName) {
+    this.displayName = displayName;
+  }
+
+  /**
+   * Returns whether the totals of this dimension can be read from the
+   * DailyRollup table. Tags aren't part of it, so they're aggregated from the
+   * TimerEntries themselves.
+   *
+   * @return True if the DailyRollup table has this dimension.
+   */
+  public boolean isRolledUp() {
+    return this != TAG;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+}
@@ -0,0 +1,71 @@
+package me.eeshe.tempus.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the periods a Report is split into.
+ */
+public enum ReportGranularity {
+  DAY,
+  WEEK,
+  MONTH,
+  YEAR,
+  TOTAL;
+
+  /**
+   * Returns the first day of the period the passed date belongs to. Weeks
+   * start on Monday.
+   *
+   * @param date Date to truncate.
+   * @return First day of the period, or null for TOTAL, which has a single
+   *         period.
+   */
+  public LocalDate truncate(LocalDate date) {
+    return switch (this) {
+      case DAY -> date;
+      case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> date.withDayOfMonth(1);
+      case YEAR -> date.withDayOfYear(1);
+      case TOTAL -> null;
+    };
+  }
+
+  /**
+   * Returns the first day of the period after the one starting at the passed
+   * date.
+   *
+   * @param periodStart First day of a period.
+   * @return First day of the next period, or null for TOTAL.
+   */
+  public LocalDate next(LocalDate periodStart) {
+    return switch (this) {
+      case DAY -> periodStart.plusDays(1);
+      case WEEK -> periodStart.plusWeeks(1);
+      case MONTH -> periodStart.plusMonths(1);
+      case YEAR -> periodStart.plusYears(1);
+      case TOTAL -> null;
+    };
+  }
+
+  /**
+   * Formats the period starting at the passed date, such as '2024-W07' or
+   * '2024-02'.
+   *
+   * @param periodStart First day of the period, null for TOTAL.
+   * @return Formatted period.
+   */
+  public String format(LocalDate periodStart) {
+    return switch (this) {
+      case DAY -> periodStart.toString();
+      case WEEK -> String.format("%d-W%02d",
+          periodStart.get(IsoFields.WEEK_BASED_YEAR),
+          periodStart.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+      case MONTH -> String.format("%d-%02d", periodStart.getYear(), periodStart.getMonthValue());
+      case YEAR -> String.valueOf(periodStart.getYear());
+      case TOTAL -> "Total";
+    };
+  }
+}
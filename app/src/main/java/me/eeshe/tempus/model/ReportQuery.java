@@ -0,0 +1,60 @@
+package me.eeshe.tempus.model;
+
+import java.time.LocalDate;
+
+/**
+ * Range, granularity and dimension of a Report. The range is unbounded by
+ * default.
+ */
+public class ReportQuery {
+  private LocalDate fromDate;
+  private LocalDate toDate;
+  private ReportGranularity granularity = ReportGranularity.TOTAL;
+  private ReportDimension dimension = ReportDimension.PROJECT;
+
+  /**
+   * Returns the first day of the range.
+   *
+   * @return Inclusive first day, or null if unbounded.
+   */
+  public LocalDate getFromDate() {
+    return fromDate;
+  }
+
+  public ReportQuery setFromDate(LocalDate fromDate) {
+    this.fromDate = fromDate;
+    return this;
+  }
+
+  /**
+   * Returns the day after the end of the range.
+   *
+   * @return Exclusive last day, or null if unbounded.
+   */
+  public LocalDate getToDate() {
+    return toDate;
+  }
+
+  public ReportQuery setToDate(LocalDate toDate) {
+    this.toDate = toDate;
+    return this;
+  }
+
+  public ReportGranularity getGranularity() {
+    return granularity;
+  }
+
+  public ReportQuery setGranularity(ReportGranularity granularity) {
+    this.granularity = granularity;
+    return this;
+  }
+
+  public ReportDimension getDimension() {
+    return dimension;
+  }
+
+  public ReportQuery setDimension(ReportDimension dimension) {
+    this.dimension = dimension;
+    return this;
+  }
+}
@@ -0,0 +1,43 @@
+package me.eeshe.tempus.model;
+
+import java.time.LocalDate;
+
+/**
+ * Total time and amount of TimerEntries of a single key within a period of a
+ * Report.
+ */
+public class ReportRow {
+  private final LocalDate periodStart;
+  private final String key;
+  private final long totalMillis;
+  private final long entryCount;
+
+  public ReportRow(LocalDate periodStart, String key, long totalMillis, long entryCount) {
+    this.periodStart = periodStart;
+    this.key = key;
+    this.totalMillis = totalMillis;
+    this.entryCount = entryCount;
+  }
+
+  /**
+   * Returns the first day of the period of this row.
+   *
+   * @return First day of the period, or null if the Report has a single
+   *         period.
+   */
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public long getTotalMillis() {
+    return totalMillis;
+  }
+
+  public long getEntryCount() {
+    return entryCount;
+  }
+}
@@ -0,0 +1,203 @@
+package me.eeshe.tempus.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer that's currently running. The details can still change while it
+ * runs, it only becomes a TimerEntry once it's stopped.
+ */
+public class RunningTimer {
+  private final long startTimeMillis;
+  private final long startNanoTime; // Elapsed time is measured with nanoTime so clock changes don't affect it
+
+  private long id;
+  private String projectName;
+  private String clientName;
+  private String description;
+  private String task;
+  private String email;
+  private List<String> tags = List.of();
+  private boolean billable;
+  private Long lastSeenMillis; // Last time the timer was known to be running, null if unknown
+  private Long stopTimeMillis; // Set once the timer is stopped
+
+  public RunningTimer(long startTimeMillis, long startNanoTime) {
+    this.startTimeMillis = startTimeMillis;
+    this.startNanoTime = startNanoTime;
+  }
+
+  /**
+   * Creates a RunningTimer that starts right now.
+   *
+   * @return Started RunningTimer.
+   */
+  public static RunningTimer start() {
+    return new RunningTimer(System.currentTimeMillis(), System.nanoTime());
+  }
+
+  /**
+   * Creates a RunningTimer that was started at the passed time, such as one
+   * recovered after a restart. Elapsed time is counted from the wall clock
+   * start time.
+   *
+   * @param startTimeMillis Time the timer was started at.
+   * @return Resumed RunningTimer.
+   */
+  public static RunningTimer resume(long startTimeMillis) {
+    final long elapsedNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - startTimeMillis);
+    return new RunningTimer(startTimeMillis, System.nanoTime() - elapsedNanos);
+  }
+
+  /**
+   * Computes the time elapsed since the timer was started.
+   *
+   * @return Elapsed milliseconds.
+   */
+  public long computeElapsedTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+  }
+
+  /**
+   * Creates the TimerEntry that results from stopping this timer right now.
+   *
+   * @return Stopped TimerEntry.
+   */
+  public TimerEntry toTimerEntry() {
+    return new TimerEntry(
+        projectName,
+        clientName,
+        description,
+        task,
+        email,
+        tags,
+        billable,
+        startTimeMillis,
+        computeElapsedTimeMillis());
+  }
+
+  /**
+   * Creates the TimerEntry that results from stopping this timer at the
+   * passed time, such as the last time a recovered timer was seen running.
+   *
+   * @param stopTimeMillis Time the timer was stopped at.
+   * @return Stopped TimerEntry.
+   */
+  public TimerEntry toTimerEntry(long stopTimeMillis) {
+    return new TimerEntry(
+        projectName,
+        clientName,
+        description,
+        task,
+        email,
+        tags,
+        billable,
+        startTimeMillis,
+        Math.max(0, stopTimeMillis - startTimeMillis));
+  }
+
+  /**
+   * Generes a String with the format 'ProjectName:Task'. If there is no task,
+   * it will simply be 'ProjectName'.
+   */
+  public String createProjectTaskString() {
+    if (task == null || task.isEmpty()) {
+      return projectName;
+    }
+    return projectName + ":" + task;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public RunningTimer setId(long id) {
+    this.id = id;
+    return this;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public RunningTimer setProjectName(String projectName) {
+    this.projectName = projectName;
+    return this;
+  }
+
+  public String getClientName() {
+    return clientName;
+  }
+
+  public RunningTimer setClientName(String clientName) {
+    this.clientName = clientName;
+    return this;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public RunningTimer setDescription(String description) {
+    this.description = description;
+    return this;
+  }
+
+  public String getTask() {
+    return task;
+  }
+
+  public RunningTimer setTask(String task) {
+    this.task = task;
+    return this;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public RunningTimer setEmail(String email) {
+    this.email = email;
+    return this;
+  }
+
+  public List<String> getTags() {
+    return tags;
+  }
+
+  public RunningTimer setTags(List<String> tags) {
+    this.tags = tags;
+    return this;
+  }
+
+  public boolean isBillable() {
+    return billable;
+  }
+
+  public RunningTimer setBillable(boolean billable) {
+    this.billable = billable;
+    return this;
+  }
+
+  public Long getLastSeenMillis() {
+    return lastSeenMillis;
+  }
+
+  public RunningTimer setLastSeenMillis(Long lastSeenMillis) {
+    this.lastSeenMillis = lastSeenMillis;
+    return this;
+  }
+
+  public Long getStopTimeMillis() {
+    return stopTimeMillis;
+  }
+
+  public RunningTimer setStopTimeMillis(Long stopTimeMillis) {
+    this.stopTimeMillis = stopTimeMillis;
+    return this;
+  }
+
+  public long getStartTimeMillis() {
+    return startTimeMillis;
+  }
+}
@@ -2,9 +2,14 @@ package me.eeshe.tempus.model;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import me.eeshe.tempus.util.DayBucketer;
+
 public class TimerEntry {
   private final String projectName;
   private final String clientName;
@@ -37,6 +42,79 @@ public class TimerEntry {
     this.durationMillis = durationMillis;
   }
 
+  /**
+   * Splits a comma separated list of tags, trimming them and dropping the
+   * empty ones.
+   *
+   * @param tags Comma separated tags. Might be null.
+   * @return Parsed tags.
+   */
+  public static List<String> parseTags(String tags) {
+    List<String> parsedTags = new ArrayList<>();
+    if (tags == null) {
+      return parsedTags;
+    }
+    for (String tag : tags.split(",")) {
+      final String trimmedTag = tag.trim();
+      if (!trimmedTag.isEmpty()) {
+        parsedTags.add(trimmedTag);
+      }
+    }
+    return parsedTags;
+  }
+
+  /**
+   * Computes a 64 bit fingerprint of the content of this TimerEntry. Two
+   * entries with the same fields have the same hash, which is used to skip
+   * duplicates when importing.
+   *
+   * @return Content hash.
+   */
+  public long computeContentHash() {
+    return computeContentHash(projectName, clientName, description, task, email, tags, billable,
+        startTimeMillis, durationMillis);
+  }
+
+  /**
+   * Computes a 64 bit fingerprint of the passed TimerEntry fields. Null and
+   * empty Strings are considered equal, and tags are trimmed.
+   *
+   * @return Content hash.
+   */
+  public static long computeContentHash(
+      String projectName,
+      String clientName,
+      String description,
+      String task,
+      String email,
+      List<String> tags,
+      boolean billable,
+      long startTimeMillis,
+      long durationMillis) {
+    Hasher hasher = Hashing.farmHashFingerprint64().newHasher();
+    putField(hasher, projectName);
+    putField(hasher, clientName);
+    putField(hasher, description);
+    putField(hasher, task);
+    putField(hasher, email);
+    hasher.putInt(tags.size());
+    for (String tag : tags) {
+      putField(hasher, tag.trim());
+    }
+    return hasher
+        .putBoolean(billable)
+        .putLong(startTimeMillis)
+        .putLong(durationMillis)
+        .hash()
+        .asLong();
+  }
+
+  private static void putField(Hasher hasher, String value) {
+    // The length prefix keeps ('ab', 'c') and ('a', 'bc') from colliding
+    final String field = value == null ? "" : value;
+    hasher.putInt(field.length()).putUnencodedChars(field);
+  }
+
   /**
    * Generes a String with the format 'ProjectName:Task'. If there is no task,
    * it will simply be 'ProjectName'.
@@ -82,7 +160,7 @@ public class TimerEntry {
   }
 
   public LocalDateTime getStartDateTime() {
-    return Instant.ofEpochMilli(startTimeMillis).atZone(ZoneId.systemDefault()).toLocalDateTime();
+    return Instant.ofEpochMilli(startTimeMillis).atZone(DayBucketer.getConfiguredZoneId()).toLocalDateTime();
   }
 
   public long getDurationMillis() {
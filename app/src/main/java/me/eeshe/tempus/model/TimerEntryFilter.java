@@ -0,0 +1,108 @@
+package me.eeshe.tempus.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria used to select stored TimerEntries. Every criterion is optional,
+ * an empty filter matches every TimerEntry.
+ */
+public class TimerEntryFilter {
+  private Long fromMillis;
+  private Long toMillis;
+  private String projectName;
+  private final List<String> tags = new ArrayList<>();
+  private boolean descending;
+  private int limit;
+
+  /**
+   * Returns the inclusive lower bound of the start time.
+   *
+   * @return Lower bound in epoch milliseconds, or null if unbounded.
+   */
+  public Long getFromMillis() {
+    return fromMillis;
+  }
+
+  public TimerEntryFilter setFromMillis(Long fromMillis) {
+    this.fromMillis = fromMillis;
+    return this;
+  }
+
+  /**
+   * Returns the exclusive upper bound of the start time.
+   *
+   * @return Upper bound in epoch milliseconds, or null if unbounded.
+   */
+  public Long getToMillis() {
+    return toMillis;
+  }
+
+  public TimerEntryFilter setToMillis(Long toMillis) {
+    this.toMillis = toMillis;
+    return this;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public TimerEntryFilter setProjectName(String projectName) {
+    this.projectName = projectName;
+    return this;
+  }
+
+  /**
+   * Returns the tags matching TimerEntries must have. TimerEntries must have
+   * every one of them.
+   *
+   * @return Required tags, empty if any TimerEntry matches.
+   */
+  public List<String> getTags() {
+    return tags;
+  }
+
+  /**
+   * Requires matching TimerEntries to have the passed tag, on top of the
+   * tags that were already added.
+   *
+   * @param tag Required tag.
+   * @return This TimerEntryFilter.
+   */
+  public TimerEntryFilter addTag(String tag) {
+    final String trimmedTag = tag.trim();
+    if (!trimmedTag.isEmpty() && !tags.contains(trimmedTag)) {
+      tags.add(trimmedTag);
+    }
+    return this;
+  }
+
+  /**
+   * Returns whether matching TimerEntries are sorted by their start time in
+   * descending order. They are sorted in ascending order otherwise.
+   *
+   * @return True if sorted in descending order.
+   */
+  public boolean isDescending() {
+    return descending;
+  }
+
+  public TimerEntryFilter setDescending(boolean descending) {
+    this.descending = descending;
+    return this;
+  }
+
+  /**
+   * Returns the maximum amount of TimerEntries to match.
+   *
+   * @return Maximum amount of TimerEntries, 0 if unlimited.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  public TimerEntryFilter setLimit(int limit) {
+    this.limit = limit;
+    return this;
+  }
+}
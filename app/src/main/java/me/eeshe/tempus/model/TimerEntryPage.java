@@ -0,0 +1,49 @@
+package me.eeshe.tempus.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Window of consecutive days of TimerEntries, loaded with a keyset query on
+ * their start time. Pages are contiguous: the next older page ends where this
+ * one starts.
+ */
+public class TimerEntryPage {
+  private final long fromMillis;
+  private final Long toMillis;
+  private final Map<LocalDate, DailyTimerEntries> dailyTimerEntries;
+
+  public TimerEntryPage(long fromMillis, Long toMillis, Map<LocalDate, DailyTimerEntries> dailyTimerEntries) {
+    this.fromMillis = fromMillis;
+    this.toMillis = toMillis;
+    this.dailyTimerEntries = dailyTimerEntries;
+  }
+
+  public boolean isEmpty() {
+    return dailyTimerEntries.isEmpty();
+  }
+
+  /**
+   * Returns the inclusive lower bound of the start time of the TimerEntries
+   * within the page.
+   *
+   * @return Lower bound in epoch milliseconds.
+   */
+  public long getFromMillis() {
+    return fromMillis;
+  }
+
+  /**
+   * Returns the exclusive upper bound of the start time of the TimerEntries
+   * within the page.
+   *
+   * @return Upper bound in epoch milliseconds, or null for the newest page.
+   */
+  public Long getToMillis() {
+    return toMillis;
+  }
+
+  public Map<LocalDate, DailyTimerEntries> getDailyTimerEntries() {
+    return dailyTimerEntries;
+  }
+}
@@ -0,0 +1,48 @@
+package me.eeshe.tempus.service;
+
+import java.util.Arrays;
+
+/**
+ * Names of the rows of a dictionary table indexed by their id. Ids are
+ * assigned in ascending order starting at 1, so they're kept in a plain array
+ * and looking one up doesn't allocate. Dictionary rows are never updated, so a
+ * cached name can't go stale.
+ */
+class DictionaryNames {
+  // Ids above this aren't cached rather than growing the array without bound
+  private static final int MAX_ID = 1 << 20;
+
+  private volatile String[] names = new String[64];
+
+  /**
+   * Returns the cached name of the passed id.
+   *
+   * @param id Id to look up.
+   * @return Cached name, or null if it isn't cached.
+   */
+  String get(long id) {
+    final String[] currentNames = names;
+    if (id < 0 || id >= currentNames.length) {
+      return null;
+    }
+    return currentNames[(int) id];
+  }
+
+  /**
+   * Caches the name of the passed id.
+   *
+   * @param id   Id of the name.
+   * @param name Name to cache.
+   */
+  synchronized void put(long id, String name) {
+    if (id < 0 || id > MAX_ID || name == null) {
+      return;
+    }
+    String[] currentNames = names;
+    if (id >= currentNames.length) {
+      currentNames = Arrays.copyOf(currentNames, Math.max(currentNames.length * 2, (int) id + 1));
+    }
+    currentNames[(int) id] = name;
+    names = currentNames;
+  }
+}
@@ -0,0 +1,123 @@
+package me.eeshe.tempus.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.eeshe.tempus.model.ReportRow;
+import me.eeshe.tempus.util.LongLongHashMap;
+
+/**
+ * Accumulates Report totals by period and key. Keys are interned to int ids
+ * and packed with the period's epoch day into a single long, so adding to a
+ * total doesn't allocate. Not thread safe, every aggregating thread uses its
+ * own ReportAccumulator and they're merged at the end.
+ */
+class ReportAccumulator {
+  private final Map<String, Integer> keyIds = new HashMap<>();
+  private final List<String> keys = new ArrayList<>();
+  private final LongLongHashMap totalMillis = new LongLongHashMap();
+  private final LongLongHashMap entryCounts = new LongLongHashMap();
+  private long grandTotalMillis;
+  private long grandEntryCount;
+
+  /**
+   * Adds time to the total of the passed key within the passed period.
+   *
+   * @param periodStart First day of the period, or null if the Report has a
+   *                    single period.
+   * @param key         Key of the total.
+   * @param millis      Milliseconds to add, negative to take them out.
+   * @param entryCount  Amount of TimerEntries the time belongs to.
+   */
+  void add(LocalDate periodStart, String key, long millis, long entryCount) {
+    Integer keyId = keyIds.get(key);
+    if (keyId == null) {
+      keyId = keys.size();
+      keyIds.put(key, keyId);
+      keys.add(key);
+    }
+    final long packedKey = pack(periodStart, keyId);
+    totalMillis.addTo(packedKey, millis);
+    entryCounts.addTo(packedKey, entryCount);
+  }
+
+  /**
+   * Adds time to the grand total. It's tracked apart from the keyed totals
+   * since a TimerEntry can count towards several keys, such as its tags.
+   *
+   * @param millis     Milliseconds to add.
+   * @param entryCount Amount of TimerEntries the time belongs to.
+   */
+  void addToGrandTotal(long millis, long entryCount) {
+    grandTotalMillis += millis;
+    grandEntryCount += entryCount;
+  }
+
+  /**
+   * Adds every total of the passed ReportAccumulator to this one.
+   *
+   * @param other ReportAccumulator to merge.
+   */
+  void merge(ReportAccumulator other) {
+    other.totalMillis.forEach((packedKey, millis) -> add(
+        unpackPeriodStart(packedKey),
+        other.keys.get(unpackKeyId(packedKey)),
+        millis,
+        other.entryCounts.get(packedKey)));
+    addToGrandTotal(other.grandTotalMillis, other.grandEntryCount);
+  }
+
+  /**
+   * Creates the rows of the accumulated totals, sorted by period and then by
+   * total time, largest first. Totals whose TimerEntries were all taken back
+   * out have no row.
+   *
+   * @param singlePeriod Whether the Report has a single period, in which case
+   *                     rows have no period start.
+   * @return Sorted rows.
+   */
+  List<ReportRow> toRows(boolean singlePeriod) {
+    List<ReportRow> rows = new ArrayList<>(totalMillis.size());
+    totalMillis.forEach((packedKey, millis) -> {
+      final long entryCount = entryCounts.get(packedKey);
+      if (entryCount == 0) {
+        return;
+      }
+      rows.add(new ReportRow(
+          singlePeriod ? null : unpackPeriodStart(packedKey),
+          keys.get(unpackKeyId(packedKey)),
+          millis,
+          entryCount));
+    });
+    rows.sort(Comparator
+        .comparing(ReportRow::getPeriodStart, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(Comparator.comparingLong(ReportRow::getTotalMillis).reversed())
+        .thenComparing(ReportRow::getKey));
+    return rows;
+  }
+
+  long getGrandTotalMillis() {
+    return grandTotalMillis;
+  }
+
+  long getGrandEntryCount() {
+    return grandEntryCount;
+  }
+
+  private static long pack(LocalDate periodStart, int keyId) {
+    final long epochDay = periodStart == null ? 0 : periodStart.toEpochDay();
+    return (epochDay << 32) | (keyId & 0xFFFFFFFFL);
+  }
+
+  private static LocalDate unpackPeriodStart(long packedKey) {
+    return LocalDate.ofEpochDay(packedKey >> 32);
+  }
+
+  private static int unpackKeyId(long packedKey) {
+    return (int) packedKey;
+  }
+}
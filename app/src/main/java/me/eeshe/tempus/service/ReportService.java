@@ -0,0 +1,338 @@
+package me.eeshe.tempus.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.eeshe.tempus.database.DailyRollups;
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.database.Tags;
+import me.eeshe.tempus.database.TimerEntryData;
+import me.eeshe.tempus.model.Report;
+import me.eeshe.tempus.model.ReportDimension;
+import me.eeshe.tempus.model.ReportGranularity;
+import me.eeshe.tempus.model.ReportQuery;
+import me.eeshe.tempus.util.DayBucketer;
+
+/**
+ * Generates Reports of the time tracked within a range. Dimensions kept by the
+ * DailyRollup table are read from it, so their cost depends on the amount of
+ * days rather than the amount of TimerEntries. Tags are aggregated from their
+ * TimerEntryTag links in a single pass, with the rows read by the calling
+ * thread and aggregated in chunks across every core.
+ */
+public class ReportService {
+  private static final int CHUNK_SIZE = 16_384;
+  private static final String NO_CLIENT_KEY = "(No client)";
+  private static final String NO_TAGS_KEY = "(No tags)";
+  private static final String SELECT_TAGS_SQL = "SELECT id, name FROM " + Tags.TAG_TABLE;
+  // Tag is scanned first so each tag's links are a range of the TimerEntryTag primary key
+  private static final String SELECT_TAG_LINKS_SQL = "SELECT TimerEntryTag.startTimeMillis, " +
+      "TimerEntryData.durationMillis, TimerEntryTag.tagId, TimerEntryTag.timerEntryId FROM " + Tags.TAG_TABLE +
+      " CROSS JOIN " + Tags.TIMER_ENTRY_TAG_TABLE + " ON TimerEntryTag.tagId = Tag.id" +
+      " AND TimerEntryTag.startTimeMillis >= ? AND TimerEntryTag.startTimeMillis < ?" +
+      " CROSS JOIN " + TimerEntryData.TABLE + " ON TimerEntryData.id = TimerEntryTag.timerEntryId";
+
+  private final SQLiteManager sqLiteManager;
+  private final DayBucketer dayBucketer;
+  private final int parallelism;
+  private final ExecutorService aggregators;
+
+  public ReportService(SQLiteManager sqLiteManager) {
+    this(sqLiteManager, new DayBucketer());
+  }
+
+  /**
+   * Creates a ReportService.
+   *
+   * @param sqLiteManager SQLiteManager of the database.
+   * @param dayBucketer   DayBucketer TimerEntries are grouped into days with.
+   *                      Must use the zone the DailyRollup totals were
+   *                      computed in.
+   */
+  public ReportService(SQLiteManager sqLiteManager, DayBucketer dayBucketer) {
+    this.sqLiteManager = sqLiteManager;
+    this.dayBucketer = dayBucketer;
+    this.parallelism = Runtime.getRuntime().availableProcessors();
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.aggregators = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "tempus-report-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Generates the Report described by the passed ReportQuery.
+   *
+   * @param reportQuery Range, granularity and dimension of the Report.
+   * @return Generated Report.
+   * @throws SQLException If the TimerEntries couldn't be read.
+   */
+  public Report generate(ReportQuery reportQuery) throws SQLException {
+    final ReportAccumulator reportAccumulator = reportQuery.getDimension().isRolledUp()
+        ? aggregateRollups(reportQuery)
+        : aggregateTags(reportQuery);
+    final boolean singlePeriod = reportQuery.getGranularity() == ReportGranularity.TOTAL;
+    return new Report(
+        reportQuery,
+        reportAccumulator.toRows(singlePeriod),
+        reportAccumulator.getGrandTotalMillis(),
+        reportAccumulator.getGrandEntryCount());
+  }
+
+  /**
+   * Returns the DayBucketer TimerEntries are grouped into days with, so
+   * screens compute dates in the same zone as the Reports.
+   *
+   * @return DayBucketer of the service.
+   */
+  public DayBucketer getDayBucketer() {
+    return dayBucketer;
+  }
+
+  /**
+   * Stops the aggregating threads.
+   */
+  public void close() {
+    aggregators.shutdownNow();
+  }
+
+  private ReportAccumulator aggregateRollups(ReportQuery reportQuery) throws SQLException {
+    final String keyExpression = createKeyExpression(reportQuery.getDimension());
+    StringBuilder sql = new StringBuilder("SELECT date, " + keyExpression +
+        ", SUM(totalMillis), SUM(entryCount) FROM " + DailyRollups.TABLE + " WHERE 1 = 1");
+    List<String> parameters = new ArrayList<>();
+    if (reportQuery.getFromDate() != null) {
+      sql.append(" AND date >= ?");
+      parameters.add(DailyRollups.toDate(reportQuery.getFromDate()));
+    }
+    if (reportQuery.getToDate() != null) {
+      sql.append(" AND date < ?");
+      parameters.add(DailyRollups.toDate(reportQuery.getToDate()));
+    }
+    sql.append(" GROUP BY date, ").append(keyExpression);
+
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(sql.toString());
+    for (int index = 0; index < parameters.size(); index++) {
+      preparedStatement.setString(index + 1, parameters.get(index));
+    }
+    final ReportGranularity granularity = reportQuery.getGranularity();
+    final ReportDimension dimension = reportQuery.getDimension();
+    ReportAccumulator reportAccumulator = new ReportAccumulator();
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        final LocalDate periodStart = granularity.truncate(LocalDate.parse(resultSet.getString(1)));
+        final long totalMillis = resultSet.getLong(3);
+        final long entryCount = resultSet.getLong(4);
+        reportAccumulator.add(periodStart, toKey(dimension, resultSet.getString(2)), totalMillis, entryCount);
+        reportAccumulator.addToGrandTotal(totalMillis, entryCount);
+      }
+    }
+    return reportAccumulator;
+  }
+
+  /**
+   * Aggregates the tags of the TimerEntries within the range of the passed
+   * ReportQuery. Each tag's links are a range lookup of the TimerEntryTag
+   * primary key, joined with TimerEntryData by id for their durations. The
+   * links are read into chunks that are aggregated by the worker threads,
+   * each of them into its own ReportAccumulator. The amount of chunks in
+   * flight is bounded, so memory use doesn't depend on the size of the range.
+   *
+   * The grand total and the time of the TimerEntries without tags come from
+   * the DailyRollup table: every day's total is added to the untagged key, and
+   * the first link of each TimerEntry takes its time back out of it.
+   */
+  private ReportAccumulator aggregateTags(ReportQuery reportQuery) throws SQLException {
+    final String[] tagNames = readTagNames();
+    final ReportAccumulator reportAccumulator = aggregateUntaggedRollups(reportQuery);
+
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(SELECT_TAG_LINKS_SQL);
+    preparedStatement.setLong(1, reportQuery.getFromDate() == null ? Long.MIN_VALUE
+        : dayBucketer.getStartOfDayMillis(reportQuery.getFromDate()));
+    preparedStatement.setLong(2, reportQuery.getToDate() == null ? Long.MAX_VALUE
+        : dayBucketer.getStartOfDayMillis(reportQuery.getToDate()));
+
+    final Queue<ReportAccumulator> idleAccumulators = new ConcurrentLinkedQueue<>();
+    final Semaphore chunksInFlight = new Semaphore(parallelism * 2);
+    final List<Future<?>> futures = new ArrayList<>();
+    // Ids of the TimerEntries whose first link was read. Ids are assigned sequentially, so the set stays small
+    final BitSet linkedTimerEntryIds = new BitSet();
+    try {
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        TagChunk tagChunk = new TagChunk();
+        while (resultSet.next()) {
+          final int timerEntryId = Math.toIntExact(resultSet.getLong(4));
+          final boolean firstLink = !linkedTimerEntryIds.get(timerEntryId);
+          linkedTimerEntryIds.set(timerEntryId);
+          tagChunk.add(resultSet.getLong(1), resultSet.getLong(2), resultSet.getInt(3), firstLink);
+          if (tagChunk.size == CHUNK_SIZE) {
+            futures.add(submitChunk(tagChunk, tagNames, reportQuery, idleAccumulators, chunksInFlight));
+            tagChunk = new TagChunk();
+          }
+        }
+        if (tagChunk.size > 0) {
+          futures.add(submitChunk(tagChunk, tagNames, reportQuery, idleAccumulators, chunksInFlight));
+        }
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while aggregating tags", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new SQLException("Error aggregating tags", e.getCause());
+    }
+
+    for (ReportAccumulator idleAccumulator : idleAccumulators) {
+      reportAccumulator.merge(idleAccumulator);
+    }
+    return reportAccumulator;
+  }
+
+  /**
+   * Reads the name of every tag.
+   *
+   * @return Tag names indexed by their id.
+   */
+  private String[] readTagNames() throws SQLException {
+    final List<String> tagNames = new ArrayList<>();
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(SELECT_TAGS_SQL);
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        final int tagId = resultSet.getInt(1);
+        while (tagNames.size() <= tagId) {
+          tagNames.add(null);
+        }
+        tagNames.set(tagId, resultSet.getString(2));
+      }
+    }
+    return tagNames.toArray(new String[0]);
+  }
+
+  /**
+   * Creates a ReportAccumulator with the grand total of the range of the
+   * passed ReportQuery, and every day's total added to the untagged key.
+   */
+  private ReportAccumulator aggregateUntaggedRollups(ReportQuery reportQuery) throws SQLException {
+    StringBuilder sql = new StringBuilder("SELECT date, SUM(totalMillis), SUM(entryCount) FROM " +
+        DailyRollups.TABLE + " WHERE 1 = 1");
+    List<String> parameters = new ArrayList<>();
+    if (reportQuery.getFromDate() != null) {
+      sql.append(" AND date >= ?");
+      parameters.add(DailyRollups.toDate(reportQuery.getFromDate()));
+    }
+    if (reportQuery.getToDate() != null) {
+      sql.append(" AND date < ?");
+      parameters.add(DailyRollups.toDate(reportQuery.getToDate()));
+    }
+    sql.append(" GROUP BY date");
+
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(sql.toString());
+    for (int index = 0; index < parameters.size(); index++) {
+      preparedStatement.setString(index + 1, parameters.get(index));
+    }
+    final ReportGranularity granularity = reportQuery.getGranularity();
+    ReportAccumulator reportAccumulator = new ReportAccumulator();
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        final LocalDate periodStart = granularity.truncate(LocalDate.parse(resultSet.getString(1)));
+        final long totalMillis = resultSet.getLong(2);
+        final long entryCount = resultSet.getLong(3);
+        reportAccumulator.add(periodStart, NO_TAGS_KEY, totalMillis, entryCount);
+        reportAccumulator.addToGrandTotal(totalMillis, entryCount);
+      }
+    }
+    return reportAccumulator;
+  }
+
+  private Future<?> submitChunk(TagChunk tagChunk, String[] tagNames, ReportQuery reportQuery,
+      Queue<ReportAccumulator> idleAccumulators, Semaphore chunksInFlight) throws InterruptedException {
+    chunksInFlight.acquire();
+    return aggregators.submit(() -> {
+      ReportAccumulator reportAccumulator = idleAccumulators.poll();
+      if (reportAccumulator == null) {
+        reportAccumulator = new ReportAccumulator();
+      }
+      try {
+        aggregateChunk(tagChunk, tagNames, reportQuery, reportAccumulator);
+      } finally {
+        idleAccumulators.add(reportAccumulator);
+        chunksInFlight.release();
+      }
+    });
+  }
+
+  private void aggregateChunk(TagChunk tagChunk, String[] tagNames, ReportQuery reportQuery,
+      ReportAccumulator reportAccumulator) {
+    final ReportGranularity granularity = reportQuery.getGranularity();
+    for (int index = 0; index < tagChunk.size; index++) {
+      final long durationMillis = tagChunk.durationMillis[index];
+      final LocalDate periodStart = granularity.truncate(dayBucketer.getDate(tagChunk.startTimeMillis[index]));
+      reportAccumulator.add(periodStart, tagNames[tagChunk.tagIds[index]], durationMillis, 1);
+      if (tagChunk.firstLinks.get(index)) {
+        // The TimerEntry has tags, so it's taken out of the untagged total it was rolled up into
+        reportAccumulator.add(periodStart, NO_TAGS_KEY, -durationMillis, -1);
+      }
+    }
+  }
+
+  /**
+   * Creates the SQL expression of the passed dimension over the DailyRollup
+   * table.
+   */
+  private String createKeyExpression(ReportDimension dimension) {
+    return switch (dimension) {
+      case PROJECT -> "projectName";
+      case CLIENT -> "COALESCE(clientName, '')";
+      case TASK -> "CASE WHEN COALESCE(task, '') = '' THEN projectName ELSE projectName || ':' || task END";
+      case TAG -> throw new IllegalArgumentException("Tags aren't rolled up");
+      case BILLABLE -> "CASE WHEN billable THEN 'Billable' ELSE 'Non-billable' END";
+    };
+  }
+
+  private String toKey(ReportDimension dimension, String value) {
+    if (dimension == ReportDimension.CLIENT && (value == null || value.isEmpty())) {
+      return NO_CLIENT_KEY;
+    }
+    return value;
+  }
+
+  /**
+   * Columns of a chunk of TimerEntryTag links, read by the calling thread and
+   * aggregated by a worker.
+   */
+  private static class TagChunk {
+    private final long[] startTimeMillis = new long[CHUNK_SIZE];
+    private final long[] durationMillis = new long[CHUNK_SIZE];
+    private final int[] tagIds = new int[CHUNK_SIZE];
+    private final BitSet firstLinks = new BitSet(CHUNK_SIZE); // Links that are the first of their TimerEntry
+    private int size;
+
+    private void add(long startTimeMillis, long durationMillis, int tagId, boolean firstLink) {
+      this.startTimeMillis[size] = startTimeMillis;
+      this.durationMillis[size] = durationMillis;
+      this.tagIds[size] = tagId;
+      this.firstLinks.set(size, firstLink);
+      size++;
+    }
+  }
+}
@@ -0,0 +1,311 @@
+package me.eeshe.tempus.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.RunningTimer;
+import me.eeshe.tempus.model.TimerEntry;
+
+/**
+ * Keeps track of the timers that are currently running. Several timers can
+ * run at the same time, they're kept in the order they were started.
+ *
+ * Every running timer is journaled to the RunningTimer table as soon as it's
+ * started, and its row is only deleted once its TimerEntry is stored. While
+ * timers run, the time they were last seen running is written to their rows
+ * every minute and when the service is closed. Stopping a timer writes its
+ * stop time, so a timer whose TimerEntry couldn't be saved is recovered as
+ * stopped instead of as still running. Timers left in the journal by a
+ * previous session are recovered on the next start.
+ */
+public class RunningTimerService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RunningTimerService.class);
+  private static final String RUNNING_TIMER_TABLE = "RunningTimer";
+  private static final String INSERT_SQL = "INSERT INTO " + RUNNING_TIMER_TABLE +
+      " (id, projectName, clientName, description, task, email, tags, billable, startTimeMillis, lastSeenMillis) " +
+      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String UPDATE_SQL = "UPDATE " + RUNNING_TIMER_TABLE +
+      " SET projectName = ?, clientName = ?, description = ?, task = ?, email = ?, tags = ?, billable = ?" +
+      " WHERE id = ?";
+  private static final String UPDATE_LAST_SEEN_SQL = "UPDATE " + RUNNING_TIMER_TABLE +
+      " SET lastSeenMillis = ? WHERE id = ?";
+  private static final String UPDATE_STOP_TIME_SQL = "UPDATE " + RUNNING_TIMER_TABLE +
+      " SET lastSeenMillis = ?, stopTimeMillis = ? WHERE id = ?";
+  private static final String DELETE_SQL = "DELETE FROM " + RUNNING_TIMER_TABLE + " WHERE id = ?";
+  private static final long HEARTBEAT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final SQLiteManager sqLiteManager;
+  private final List<RunningTimer> runningTimers = new ArrayList<>();
+  private final ScheduledExecutorService heartbeatScheduler;
+  private ScheduledFuture<?> heartbeatFuture;
+  private long nextId = 1;
+
+  public RunningTimerService(SQLiteManager sqLiteManager) {
+    this.sqLiteManager = sqLiteManager;
+    this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "tempus-running-timer-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Loads the timers left in the journal by a previous session. They aren't
+   * running until they're passed to {@link #resume(RunningTimer)}, or they
+   * can be stopped with {@link #stopRecovered(RunningTimer, long)}. Timers
+   * that were already stopped have their stop time set, only their
+   * TimerEntry is left to save. The journal only holds the timers that
+   * aren't stored yet, so this is a single read of a handful of rows.
+   *
+   * @return Recovered timers.
+   */
+  public synchronized List<RunningTimer> recover() {
+    List<RunningTimer> recoveredTimers = new ArrayList<>();
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(
+          "SELECT * FROM " + RUNNING_TIMER_TABLE + " ORDER BY id");
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          RunningTimer runningTimer = RunningTimer.resume(resultSet.getLong("startTimeMillis"))
+              .setId(resultSet.getLong("id"))
+              .setProjectName(resultSet.getString("projectName"))
+              .setClientName(resultSet.getString("clientName"))
+              .setDescription(resultSet.getString("description"))
+              .setTask(resultSet.getString("task"))
+              .setEmail(resultSet.getString("email"))
+              .setTags(TimerEntry.parseTags(resultSet.getString("tags")))
+              .setBillable(resultSet.getBoolean("billable"))
+              .setLastSeenMillis(readNullableLong(resultSet, "lastSeenMillis"))
+              .setStopTimeMillis(readNullableLong(resultSet, "stopTimeMillis"));
+          recoveredTimers.add(runningTimer);
+          nextId = Math.max(nextId, runningTimer.getId() + 1);
+        }
+      }
+    } catch (SQLException e) {
+      LOGGER.error("Error recovering running timers. Message: {}", e.getMessage());
+    }
+    return recoveredTimers;
+  }
+
+  /**
+   * Keeps a recovered RunningTimer running from its original start time.
+   *
+   * @param runningTimer RunningTimer returned by {@link #recover()}.
+   */
+  public synchronized void resume(RunningTimer runningTimer) {
+    if (runningTimer.getStopTimeMillis() != null || runningTimers.contains(runningTimer)) {
+      return;
+    }
+    runningTimers.add(runningTimer);
+    writeLastSeen(runningTimer, System.currentTimeMillis());
+    scheduleHeartbeat();
+  }
+
+  /**
+   * Registers the passed RunningTimer as running and journals it.
+   *
+   * @param runningTimer RunningTimer to register.
+   * @return Registered RunningTimer.
+   */
+  public synchronized RunningTimer start(RunningTimer runningTimer) {
+    runningTimer.setId(nextId++);
+    runningTimers.add(runningTimer);
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(INSERT_SQL);
+      preparedStatement.setLong(1, runningTimer.getId());
+      bindDetails(preparedStatement, runningTimer, 2);
+      preparedStatement.setLong(9, runningTimer.getStartTimeMillis());
+      preparedStatement.setLong(10, runningTimer.getStartTimeMillis());
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      LOGGER.error("Error journaling running timer {}. Message: {}", runningTimer.getId(), e.getMessage());
+    }
+    scheduleHeartbeat();
+    return runningTimer;
+  }
+
+  /**
+   * Journals the current details of the passed RunningTimer.
+   *
+   * @param runningTimer RunningTimer to update.
+   */
+  public synchronized void update(RunningTimer runningTimer) {
+    if (!runningTimers.contains(runningTimer)) {
+      return;
+    }
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(UPDATE_SQL);
+      bindDetails(preparedStatement, runningTimer, 1);
+      preparedStatement.setLong(8, runningTimer.getId());
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      LOGGER.error("Error updating running timer {}. Message: {}", runningTimer.getId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Stops the passed RunningTimer and creates its TimerEntry. The stop time
+   * is journaled, but the TimerEntry isn't saved, that's left to the caller,
+   * who must call {@link #removeFromJournal(RunningTimer)} once it's stored.
+   *
+   * @param runningTimer RunningTimer to stop.
+   * @return Resulting TimerEntry, or null if the timer wasn't running.
+   */
+  public synchronized TimerEntry stop(RunningTimer runningTimer) {
+    if (!runningTimers.remove(runningTimer)) {
+      return null;
+    }
+    if (runningTimers.isEmpty()) {
+      cancelHeartbeat();
+    }
+    final TimerEntry timerEntry = runningTimer.toTimerEntry();
+    writeStopTime(runningTimer, timerEntry.getStartTimeMillis() + timerEntry.getDurationMillis());
+    return timerEntry;
+  }
+
+  /**
+   * Stops a recovered RunningTimer that wasn't resumed at the passed time,
+   * such as the last time it was seen running. Like with
+   * {@link #stop(RunningTimer)}, the caller must save the TimerEntry and then
+   * call {@link #removeFromJournal(RunningTimer)}.
+   *
+   * @param runningTimer   RunningTimer returned by {@link #recover()}.
+   * @param stopTimeMillis Time the timer is stopped at.
+   * @return Resulting TimerEntry, or null if the timer is running.
+   */
+  public synchronized TimerEntry stopRecovered(RunningTimer runningTimer, long stopTimeMillis) {
+    if (runningTimers.contains(runningTimer)) {
+      return null;
+    }
+    writeStopTime(runningTimer, stopTimeMillis);
+    return runningTimer.toTimerEntry(stopTimeMillis);
+  }
+
+  /**
+   * Deletes the journal row of a stopped RunningTimer. Until then the timer
+   * is recovered on the next start, so nothing is lost if saving its
+   * TimerEntry fails.
+   *
+   * @param runningTimer Stopped RunningTimer.
+   */
+  public synchronized void removeFromJournal(RunningTimer runningTimer) {
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(DELETE_SQL);
+      preparedStatement.setLong(1, runningTimer.getId());
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      LOGGER.error("Error removing running timer {}. Message: {}", runningTimer.getId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Journals that every running timer is still running right now, stops the
+   * heartbeat and releases its thread. The timers stay in the journal and
+   * are recovered on the next start.
+   */
+  public synchronized void close() {
+    cancelHeartbeat();
+    heartbeatScheduler.shutdownNow();
+    writeLastSeen();
+  }
+
+  /**
+   * Returns whether the passed RunningTimer is still running.
+   *
+   * @param runningTimer RunningTimer to check.
+   * @return True if it's running.
+   */
+  public synchronized boolean isRunning(RunningTimer runningTimer) {
+    return runningTimers.contains(runningTimer);
+  }
+
+  /**
+   * Returns a snapshot of the running timers in the order they were started.
+   *
+   * @return Running timers.
+   */
+  public synchronized List<RunningTimer> getRunningTimers() {
+    return new ArrayList<>(runningTimers);
+  }
+
+  private void bindDetails(PreparedStatement preparedStatement, RunningTimer runningTimer, int firstIndex)
+      throws SQLException {
+    preparedStatement.setString(firstIndex, runningTimer.getProjectName());
+    preparedStatement.setString(firstIndex + 1, runningTimer.getClientName());
+    preparedStatement.setString(firstIndex + 2, runningTimer.getDescription());
+    preparedStatement.setString(firstIndex + 3, runningTimer.getTask());
+    preparedStatement.setString(firstIndex + 4, runningTimer.getEmail());
+    preparedStatement.setString(firstIndex + 5, String.join(", ", runningTimer.getTags()));
+    preparedStatement.setBoolean(firstIndex + 6, runningTimer.isBillable());
+  }
+
+  private Long readNullableLong(ResultSet resultSet, String column) throws SQLException {
+    final long value = resultSet.getLong(column);
+    return resultSet.wasNull() ? null : value;
+  }
+
+  /**
+   * Starts journaling the last seen time of the running timers every minute,
+   * if it isn't already.
+   */
+  private void scheduleHeartbeat() {
+    if (heartbeatFuture != null || heartbeatScheduler.isShutdown()) {
+      return;
+    }
+    heartbeatFuture = heartbeatScheduler.scheduleAtFixedRate(this::writeLastSeen, HEARTBEAT_MILLIS,
+        HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private void cancelHeartbeat() {
+    if (heartbeatFuture == null) {
+      return;
+    }
+    heartbeatFuture.cancel(false);
+    heartbeatFuture = null;
+  }
+
+  private synchronized void writeLastSeen() {
+    final long nowMillis = System.currentTimeMillis();
+    for (RunningTimer runningTimer : runningTimers) {
+      writeLastSeen(runningTimer, nowMillis);
+    }
+  }
+
+  private void writeLastSeen(RunningTimer runningTimer, long lastSeenMillis) {
+    runningTimer.setLastSeenMillis(lastSeenMillis);
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(UPDATE_LAST_SEEN_SQL);
+      preparedStatement.setLong(1, lastSeenMillis);
+      preparedStatement.setLong(2, runningTimer.getId());
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      LOGGER.error("Error journaling last seen time of running timer {}. Message: {}", runningTimer.getId(),
+          e.getMessage());
+    }
+  }
+
+  private void writeStopTime(RunningTimer runningTimer, long stopTimeMillis) {
+    runningTimer.setLastSeenMillis(stopTimeMillis).setStopTimeMillis(stopTimeMillis);
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(UPDATE_STOP_TIME_SQL);
+      preparedStatement.setLong(1, stopTimeMillis);
+      preparedStatement.setLong(2, stopTimeMillis);
+      preparedStatement.setLong(3, runningTimer.getId());
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      LOGGER.error("Error journaling stop time of running timer {}. Message: {}", runningTimer.getId(),
+          e.getMessage());
+    }
+  }
+}
@@ -4,116 +4,543 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import me.eeshe.tempus.database.DailyRollups;
+import me.eeshe.tempus.database.Dictionary;
 import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.database.SchemaMigrator;
+import me.eeshe.tempus.database.Tags;
+import me.eeshe.tempus.database.TimerEntryData;
+import me.eeshe.tempus.database.TimerEntrySearch;
 import me.eeshe.tempus.model.DailyTimerEntries;
+import me.eeshe.tempus.model.EntryColumns;
 import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.model.TimerEntryFilter;
+import me.eeshe.tempus.model.TimerEntryPage;
+import me.eeshe.tempus.util.DayBucketer;
+import me.eeshe.tempus.util.PrefixIndex;
 
 public class TimerEntryService {
   private static final Logger LOGGER = LoggerFactory.getLogger(TimerEntryService.class);
-  private static final String TIMER_ENTRY_TABLE = "TimerEntry";
+  private static final String TIMER_ENTRY_TABLE = TimerEntryData.VIEW;
+  private static final String SELECT_ID_BY_CONTENT_HASH_SQL = "SELECT id FROM " + TimerEntryData.TABLE +
+      " WHERE contentHash = ?";
+  private static final int MAX_CACHED_TAG_LISTS = 4096;
+  // Only the best matches are ranked and limited by FTS5 before being joined with their TimerEntries
+  private static final String SEARCH_SQL = "SELECT " + TIMER_ENTRY_TABLE + ".* FROM (SELECT rowid, rank FROM " +
+      TimerEntrySearch.TABLE + " WHERE " + TimerEntrySearch.TABLE + " MATCH ? ORDER BY rank LIMIT ?) AS SearchMatch" +
+      " CROSS JOIN " + TIMER_ENTRY_TABLE + " ON " + TIMER_ENTRY_TABLE + ".id = SearchMatch.rowid" +
+      " ORDER BY SearchMatch.rank";
 
   private final SQLiteManager sqLiteManager;
+  private final DayBucketer dayBucketer;
+  // Created by the first save, commands that only read or bulk write never start it
+  private TimerEntryWriter timerEntryWriter;
+  private boolean closed;
+  // Ids of the tags that are known to be stored, shared by both connections
+  private final Map<String, Long> tagIds = new ConcurrentHashMap<>();
+  // Same for the dictionary rows, written by the writer connection
+  private final Map<Dictionary, Map<String, Long>> dictionaryIds = new EnumMap<>(Dictionary.class);
+  // Names of the dictionary rows that were read, shared by every parsed TimerEntry
+  private final Map<Dictionary, DictionaryNames> dictionaryNames = new EnumMap<>(Dictionary.class);
+  // Most TimerEntries repeat one of a few tag combinations, they share their parsed list
+  private final Map<String, List<String>> tagLists = new ConcurrentHashMap<>();
+  // Names offered as completions, each index is loaded the first time it's used
+  private final Map<Dictionary, PrefixIndex> nameIndexes = new EnumMap<>(Dictionary.class);
 
   public TimerEntryService(SQLiteManager sqLiteManager) {
+    this(sqLiteManager, new DayBucketer());
+  }
+
+  /**
+   * Creates a TimerEntryService.
+   *
+   * @param sqLiteManager SQLiteManager of the database.
+   * @param dayBucketer   DayBucketer TimerEntries are grouped into days with.
+   */
+  public TimerEntryService(SQLiteManager sqLiteManager, DayBucketer dayBucketer) {
     this.sqLiteManager = sqLiteManager;
+    this.dayBucketer = dayBucketer;
+    for (Dictionary dictionary : Dictionary.values()) {
+      dictionaryIds.put(dictionary, new ConcurrentHashMap<>());
+      dictionaryNames.put(dictionary, new DictionaryNames());
+    }
 
-    createTables();
+    new SchemaMigrator(sqLiteManager).migrate();
+    rebuildDailyRollupIfZoneChanged();
+  }
+
+  /**
+   * Queues the passed TimerEntry to be saved to the database by the
+   * background writer.
+   *
+   * @param timerEntry TimerEntry to save.
+   * @return Future completed once the TimerEntry is stored, or completed
+   *         exceptionally if it couldn't be saved.
+   */
+  public CompletableFuture<Void> save(TimerEntry timerEntry) {
+    final TimerEntryWriter writer = getTimerEntryWriter();
+    if (writer == null) {
+      return CompletableFuture.failedFuture(new IllegalStateException("TimerEntryService is closed"));
+    }
+    return writer.submit(timerEntry);
   }
 
   /**
-   * Creates all the necessary tables for TimerEntries.
+   * Returns a future that completes once every TimerEntry queued before this
+   * call has been written.
+   *
+   * @return Flush future.
    */
-  private void createTables() {
-    createTimerEntriesTable();
+  public synchronized CompletableFuture<Void> flush() {
+    if (timerEntryWriter == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return timerEntryWriter.flush();
   }
 
   /**
-   * Creates the table that will store TimeEntry data.
+   * Writes every queued TimerEntry and stops the background writer, if it
+   * was started.
    */
-  private void createTimerEntriesTable() {
-    createTable("CREATE TABLE IF NOT EXISTS " + TIMER_ENTRY_TABLE + " (" +
-        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-        "projectName TEXT NOT NULL, " +
-        "clientName TEXT, " +
-        "description TEXT, " +
-        "task TEXT, " +
-        "email TEXT, " +
-        "tags TEXT, " +
-        "billable INTEGER NOT NULL, " +
-        "startTimeMillis INTEGER NOT NULL, " +
-        "durationMillis INTEGER NOT NULL" +
-        ")");
+  public synchronized void close() {
+    closed = true;
+    if (timerEntryWriter != null) {
+      timerEntryWriter.close();
+    }
   }
 
   /**
-   * Creates a SQLite table with the passed SQL statement.
+   * Returns the background writer, starting it on the first call. It gets its
+   * own connection so writes don't interleave with reads.
    *
-   * @param createTableSql SQL Statement to execute.
+   * @return Background writer, or null if the service is closed.
    */
-  private void createTable(String createTableSql) {
-    try (Connection connection = sqLiteManager.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(createTableSql)) {
-      preparedStatement.executeUpdate();
-    } catch (SQLException e) {
-      LOGGER.error("Error creating table {}. Message: {}", TIMER_ENTRY_TABLE, e.getMessage());
+  private synchronized TimerEntryWriter getTimerEntryWriter() {
+    if (timerEntryWriter == null && !closed) {
+      timerEntryWriter = new TimerEntryWriter(this, new SQLiteManager(sqLiteManager.getConnectionProfile()));
     }
+    return timerEntryWriter;
   }
 
   /**
-   * Saves the passed TimerEntry to the database.
+   * Synchronously saves the passed TimerEntries in a single transaction,
+   * skipping the ones that are already stored. Meant for bulk operations such
+   * as imports, which write in chunks.
    *
-   * @param timerEntry TimerEntry to save.
+   * @param timerEntries TimerEntries to save.
+   * @return Amount of TimerEntries that were inserted.
+   * @throws SQLException If the TimerEntries couldn't be saved. No TimerEntry
+   *                      is saved in that case.
+   */
+  public int saveAll(List<TimerEntry> timerEntries) throws SQLException {
+    return insertAll(sqLiteManager, timerEntries);
+  }
+
+  /**
+   * Inserts the passed TimerEntries within a single transaction of the passed
+   * SQLiteManager's connection, skipping the ones that are already stored.
+   * Their dictionary rows, the DailyRollup totals and the tag links of the
+   * inserted TimerEntries are written within the same transaction.
+   *
+   * @param sqLiteManager SQLiteManager to write to.
+   * @param timerEntries  TimerEntries to insert.
+   * @return Amount of TimerEntries that were inserted.
+   * @throws SQLException If the TimerEntries couldn't be inserted. The
+   *                      transaction is rolled back in that case.
+   */
+  int insertAll(SQLiteManager sqLiteManager, List<TimerEntry> timerEntries) throws SQLException {
+    Connection connection = sqLiteManager.getConnection();
+    if (connection == null) {
+      throw new SQLException("No open connection to insert TimerEntries");
+    }
+    connection.setAutoCommit(false);
+    try {
+      final Map<Dictionary, Map<String, Long>> newDictionaryIds = new EnumMap<>(Dictionary.class);
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(TimerEntryData.INSERT_SQL);
+      for (TimerEntry timerEntry : timerEntries) {
+        bindTimerEntry(sqLiteManager, preparedStatement, timerEntry, newDictionaryIds);
+        preparedStatement.addBatch();
+      }
+      final int[] updateCounts = preparedStatement.executeBatch();
+
+      // Only the inserted TimerEntries count towards the totals, duplicates were ignored
+      PreparedStatement rollupStatement = sqLiteManager.prepareStatement(DailyRollups.UPSERT_SQL);
+      int insertedCount = 0;
+      for (int index = 0; index < updateCounts.length; index++) {
+        if (updateCounts[index] <= 0) {
+          continue;
+        }
+        insertedCount += updateCounts[index];
+        final TimerEntry timerEntry = timerEntries.get(index);
+        DailyRollups.bindUpsert(rollupStatement, timerEntry, dayBucketer.getDate(timerEntry.getStartTimeMillis()));
+        rollupStatement.addBatch();
+      }
+      if (insertedCount > 0) {
+        rollupStatement.executeBatch();
+      }
+      final Map<String, Long> newTagIds = new HashMap<>();
+      insertTimerEntryTags(sqLiteManager, timerEntries, updateCounts, newTagIds);
+      connection.commit();
+      // Only cached once committed, a rolled back tag must be inserted again
+      tagIds.putAll(newTagIds);
+      newDictionaryIds.forEach((dictionary, newIds) -> dictionaryIds.get(dictionary).putAll(newIds));
+      for (int index = 0; index < updateCounts.length; index++) {
+        if (updateCounts[index] > 0) {
+          recordNames(timerEntries.get(index));
+        }
+      }
+      return insertedCount;
+    } catch (SQLException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /**
+   * Links the inserted TimerEntries to their tags, inserting the tags that
+   * aren't stored yet. The ids of the inserted TimerEntries are looked up by
+   * their content hash, since batched inserts don't return them.
    */
-  public void save(TimerEntry timerEntry) {
-    final String sql = "INSERT INTO " + TIMER_ENTRY_TABLE +
-        " (projectName, clientName, description, task, email, tags, billable, startTimeMillis, durationMillis) " +
-        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-    try (Connection connection = sqLiteManager.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-      preparedStatement.setString(1, timerEntry.getProjectName());
-      preparedStatement.setString(2, timerEntry.getClientName());
-      preparedStatement.setString(3, timerEntry.getDescription());
-      preparedStatement.setString(4, timerEntry.getTask());
-      preparedStatement.setString(5, timerEntry.getEmail());
-      preparedStatement.setString(6, String.join(", ", timerEntry.getTags()));
-      preparedStatement.setBoolean(7, timerEntry.isBillable());
-      preparedStatement.setLong(8, timerEntry.getStartTimeMillis());
-      preparedStatement.setLong(9, timerEntry.getDurationMillis());
-
-      preparedStatement.executeUpdate();
+  private void insertTimerEntryTags(SQLiteManager sqLiteManager, List<TimerEntry> timerEntries,
+      int[] updateCounts, Map<String, Long> newTagIds) throws SQLException {
+    PreparedStatement selectIdStatement = null;
+    PreparedStatement insertTimerEntryTagStatement = null;
+    boolean hasTimerEntryTags = false;
+    for (int index = 0; index < updateCounts.length; index++) {
+      final TimerEntry timerEntry = timerEntries.get(index);
+      if (updateCounts[index] <= 0 || timerEntry.getTags().isEmpty()) {
+        continue;
+      }
+      if (selectIdStatement == null) {
+        selectIdStatement = sqLiteManager.prepareStatement(SELECT_ID_BY_CONTENT_HASH_SQL);
+        insertTimerEntryTagStatement = sqLiteManager.prepareStatement(Tags.INSERT_TIMER_ENTRY_TAG_SQL);
+      }
+      selectIdStatement.setLong(1, timerEntry.computeContentHash());
+      final long timerEntryId;
+      try (ResultSet resultSet = selectIdStatement.executeQuery()) {
+        if (!resultSet.next()) {
+          continue;
+        }
+        timerEntryId = resultSet.getLong(1);
+      }
+      Set<String> tags = new LinkedHashSet<>();
+      for (String tag : timerEntry.getTags()) {
+        final String trimmedTag = tag.trim();
+        if (!trimmedTag.isEmpty()) {
+          tags.add(trimmedTag);
+        }
+      }
+      for (String tag : tags) {
+        insertTimerEntryTagStatement.setLong(1, resolveTagId(sqLiteManager, tag, newTagIds));
+        insertTimerEntryTagStatement.setLong(2, timerEntry.getStartTimeMillis());
+        insertTimerEntryTagStatement.setLong(3, timerEntryId);
+        insertTimerEntryTagStatement.addBatch();
+        hasTimerEntryTags = true;
+      }
+    }
+    if (hasTimerEntryTags) {
+      insertTimerEntryTagStatement.executeBatch();
+    }
+  }
+
+  private long resolveTagId(SQLiteManager sqLiteManager, String tag, Map<String, Long> newTagIds)
+      throws SQLException {
+    return resolveId(sqLiteManager, Tags.INSERT_TAG_SQL, Tags.SELECT_TAG_ID_SQL, tag, tagIds, newTagIds);
+  }
+
+  /**
+   * Returns the id of the passed name in a table of unique names, inserting it
+   * if it isn't stored yet. Ids inserted by the current transaction are kept
+   * apart from the committed ones until it's committed.
+   */
+  private long resolveId(SQLiteManager sqLiteManager, String insertSql, String selectIdSql, String name,
+      Map<String, Long> committedIds, Map<String, Long> newIds) throws SQLException {
+    Long id = committedIds.get(name);
+    if (id == null) {
+      id = newIds.get(name);
+    }
+    if (id != null) {
+      return id;
+    }
+    PreparedStatement insertStatement = sqLiteManager.prepareStatement(insertSql);
+    insertStatement.setString(1, name);
+    insertStatement.executeUpdate();
+    PreparedStatement selectIdStatement = sqLiteManager.prepareStatement(selectIdSql);
+    selectIdStatement.setString(1, name);
+    try (ResultSet resultSet = selectIdStatement.executeQuery()) {
+      if (!resultSet.next()) {
+        throw new SQLException(name + " wasn't stored");
+      }
+      id = resultSet.getLong(1);
+    }
+    newIds.put(name, id);
+    return id;
+  }
+
+  private void bindTimerEntry(SQLiteManager sqLiteManager, PreparedStatement preparedStatement,
+      TimerEntry timerEntry, Map<Dictionary, Map<String, Long>> newDictionaryIds) throws SQLException {
+    bindDictionaryId(sqLiteManager, preparedStatement, 1, Dictionary.PROJECT, timerEntry.getProjectName(),
+        newDictionaryIds);
+    bindDictionaryId(sqLiteManager, preparedStatement, 2, Dictionary.CLIENT, timerEntry.getClientName(),
+        newDictionaryIds);
+    preparedStatement.setString(3, timerEntry.getDescription());
+    bindDictionaryId(sqLiteManager, preparedStatement, 4, Dictionary.TASK, timerEntry.getTask(),
+        newDictionaryIds);
+    bindDictionaryId(sqLiteManager, preparedStatement, 5, Dictionary.EMAIL, timerEntry.getEmail(),
+        newDictionaryIds);
+    preparedStatement.setString(6, String.join(", ", timerEntry.getTags()));
+    preparedStatement.setBoolean(7, timerEntry.isBillable());
+    preparedStatement.setLong(8, timerEntry.getStartTimeMillis());
+    preparedStatement.setLong(9, timerEntry.getDurationMillis());
+    preparedStatement.setLong(10, timerEntry.computeContentHash());
+  }
+
+  private void bindDictionaryId(SQLiteManager sqLiteManager, PreparedStatement preparedStatement, int index,
+      Dictionary dictionary, String name, Map<Dictionary, Map<String, Long>> newDictionaryIds)
+      throws SQLException {
+    if (name == null) {
+      // Only the project is required, the NOT NULL constraint rejects a missing one
+      preparedStatement.setNull(index, Types.INTEGER);
+      return;
+    }
+    preparedStatement.setLong(index, resolveId(sqLiteManager, dictionary.getInsertSql(),
+        dictionary.getSelectIdSql(), name, dictionaryIds.get(dictionary),
+        newDictionaryIds.computeIfAbsent(dictionary, key -> new HashMap<>())));
+  }
+
+  /**
+   * Returns the DayBucketer TimerEntries are grouped into days with, so
+   * callers group them the same way.
+   *
+   * @return DayBucketer of the service.
+   */
+  public DayBucketer getDayBucketer() {
+    return dayBucketer;
+  }
+
+  /**
+   * Completes the passed prefix with the stored project names, ranked by how
+   * often and how recently they were used. The names are loaded from the
+   * DailyRollup table on the first call and kept up to date as TimerEntries
+   * are saved, so later calls don't query the database.
+   *
+   * @param prefix Typed prefix, matched ignoring case.
+   * @param limit  Maximum amount of names to return.
+   * @return Matching names, best ranked first.
+   */
+  public List<String> completeProjectName(String prefix, int limit) {
+    return getNameIndex(Dictionary.PROJECT).complete(prefix, limit);
+  }
+
+  /**
+   * Completes the passed prefix with the stored client names. See
+   * {@link #completeProjectName(String, int)}.
+   *
+   * @param prefix Typed prefix, matched ignoring case.
+   * @param limit  Maximum amount of names to return.
+   * @return Matching names, best ranked first.
+   */
+  public List<String> completeClientName(String prefix, int limit) {
+    return getNameIndex(Dictionary.CLIENT).complete(prefix, limit);
+  }
+
+  /**
+   * Completes the passed prefix with the stored tasks. See
+   * {@link #completeProjectName(String, int)}.
+   *
+   * @param prefix Typed prefix, matched ignoring case.
+   * @param limit  Maximum amount of names to return.
+   * @return Matching names, best ranked first.
+   */
+  public List<String> completeTask(String prefix, int limit) {
+    return getNameIndex(Dictionary.TASK).complete(prefix, limit);
+  }
+
+  private PrefixIndex getNameIndex(Dictionary dictionary) {
+    if (dictionary == Dictionary.EMAIL) {
+      throw new IllegalArgumentException("Emails aren't kept in the DailyRollup table");
+    }
+    synchronized (nameIndexes) {
+      PrefixIndex nameIndex = nameIndexes.get(dictionary);
+      if (nameIndex != null) {
+        return nameIndex;
+      }
+      nameIndex = new PrefixIndex();
+      // DailyRollup names its columns like the TimerEntry view and has far fewer rows
+      final String column = dictionary.getNameColumn();
+      final String sql = "SELECT " + column + ", SUM(entryCount), MAX(date) FROM " + DailyRollups.TABLE +
+          " GROUP BY " + column;
+      try (ResultSet resultSet = sqLiteManager.prepareStatement(sql).executeQuery()) {
+        while (resultSet.next()) {
+          final long lastUsedMillis = dayBucketer.getStartOfDayMillis(LocalDate.parse(resultSet.getString(3)));
+          nameIndex.record(resultSet.getString(1), resultSet.getLong(2), lastUsedMillis);
+        }
+      } catch (SQLException e) {
+        LOGGER.error("Error loading the {} names. Message: {}", dictionary.getTable(), e.getMessage());
+      }
+      nameIndexes.put(dictionary, nameIndex);
+      return nameIndex;
+    }
+  }
+
+  /**
+   * Adds the names of a saved TimerEntry to the name indexes that are
+   * already loaded. The ones that aren't will read it from the database.
+   */
+  private void recordNames(TimerEntry timerEntry) {
+    synchronized (nameIndexes) {
+      for (Map.Entry<Dictionary, PrefixIndex> entry : nameIndexes.entrySet()) {
+        final String name = switch (entry.getKey()) {
+          case PROJECT -> timerEntry.getProjectName();
+          case CLIENT -> timerEntry.getClientName();
+          case TASK -> timerEntry.getTask();
+          case EMAIL -> timerEntry.getEmail();
+        };
+        entry.getValue().record(name, 1, timerEntry.getStartTimeMillis());
+      }
+    }
+  }
+
+  /**
+   * Recomputes the DailyRollup totals from the stored TimerEntries in a single
+   * transaction, recording the zone of the DayBucketer as the one of the
+   * totals. The TimerEntries are read through {@link #fetchColumns(Long, Long)}
+   * a range at a time. Only needed for data written before the table existed,
+   * by other tools or in another zone.
+   *
+   * @return Amount of rows of the rebuilt DailyRollup table.
+   * @throws SQLException If the totals couldn't be rebuilt. The previous
+   *                      totals are kept in that case.
+   */
+  public int rebuildDailyRollup() throws SQLException {
+    Connection connection = sqLiteManager.getConnection();
+    if (connection == null) {
+      throw new SQLException("No open connection to rebuild the DailyRollup table");
+    }
+    connection.setAutoCommit(false);
+    try {
+      final int rowCount = DailyRollups.rebuild(connection, dayBucketer, this::fetchColumns);
+      DailyRollups.writeZoneId(connection, dayBucketer.getZoneId());
+      connection.commit();
+      return rowCount;
     } catch (SQLException e) {
-      LOGGER.error("Error saving TimeEntry. Error: {}", e.getMessage());
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
     }
   }
 
+  /**
+   * Rebuilds the DailyRollup totals if their days were computed in another
+   * zone than the one of the DayBucketer, such as after changing the
+   * 'tempus.zone' property. Otherwise totals of both zones would be mixed and
+   * Reports would count TimerEntries near midnight in the wrong day.
+   */
+  private void rebuildDailyRollupIfZoneChanged() {
+    final String zoneId = dayBucketer.getZoneId().getId();
+    try {
+      Connection connection = sqLiteManager.getConnection();
+      if (connection == null) {
+        return;
+      }
+      final String rollupZoneId = DailyRollups.readZoneId(connection);
+      if (zoneId.equals(rollupZoneId)) {
+        return;
+      }
+      LOGGER.info("Rebuilding the DailyRollup totals of zone {} for zone {}", rollupZoneId, zoneId);
+      rebuildDailyRollup();
+    } catch (SQLException e) {
+      LOGGER.error("Error rebuilding the DailyRollup totals for zone {}. Message: {}", zoneId, e.getMessage());
+    }
+  }
+
+  /**
+   * Fetches all the stored TimerEntries grouped by their start date. Dates are
+   * sorted in descending order.
+   *
+   * @return Stored TimerEntries grouped by date.
+   */
   public Map<LocalDate, DailyTimerEntries> fetchAllDaily() {
-    Map<LocalDate, DailyTimerEntries> timerEntries = new LinkedHashMap<>();
+    Map<LocalDate, DailyTimerEntries> timerEntries = new TreeMap<>(Comparator.reverseOrder());
     for (TimerEntry timerEntry : fetchAll()) {
-      LocalDate timerEntryDate = timerEntry.getStartDateTime().toLocalDate();
-      DailyTimerEntries dailyTimerEntries = timerEntries.getOrDefault(timerEntryDate,
-          new DailyTimerEntries(timerEntryDate));
+      LocalDate timerEntryDate = dayBucketer.getDate(timerEntry.getStartTimeMillis());
+      timerEntries.computeIfAbsent(timerEntryDate, DailyTimerEntries::new).addTimerEntry(timerEntry);
+    }
+    return timerEntries;
+  }
 
-      String projectTaskString = timerEntry.createProjectTaskString();
-      List<TimerEntry> groupedTimerEntries = dailyTimerEntries.getTimerEntries().getOrDefault(
-          projectTaskString, new ArrayList<>());
-      groupedTimerEntries.add(timerEntry);
+  /**
+   * Fetches a page of up to the passed amount of days of TimerEntries that
+   * started before the passed time. The page starts at the day of the most
+   * recent of those TimerEntries, so days without TimerEntries before it are
+   * skipped. Both lookups are keyset queries on the start time index, so
+   * their cost doesn't depend on how much history is stored.
+   *
+   * @param beforeMillis Exclusive upper bound of the start time, or null to
+   *                     fetch the newest page.
+   * @param dayCount     Amount of days of the page.
+   * @return Fetched page. It is empty if there are no older TimerEntries.
+   * @throws SQLException If the TimerEntries couldn't be read.
+   */
+  public TimerEntryPage fetchDailyPage(Long beforeMillis, int dayCount) throws SQLException {
+    final String sql = "SELECT MAX(startTimeMillis) FROM " + TimerEntryData.TABLE + " WHERE startTimeMillis < ?";
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(sql);
+    preparedStatement.setLong(1, beforeMillis == null ? Long.MAX_VALUE : beforeMillis);
+    long latestStartTimeMillis;
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      if (!resultSet.next()) {
+        return new TimerEntryPage(0, beforeMillis, new TreeMap<>(Comparator.reverseOrder()));
+      }
+      latestStartTimeMillis = resultSet.getLong(1);
+      if (resultSet.wasNull()) {
+        return new TimerEntryPage(0, beforeMillis, new TreeMap<>(Comparator.reverseOrder()));
+      }
+    }
+    final LocalDate latestDate = dayBucketer.getDate(latestStartTimeMillis);
+    final long fromMillis = dayBucketer.getStartOfDayMillis(latestDate.minusDays(dayCount - 1));
 
-      dailyTimerEntries.getTimerEntries().put(projectTaskString, groupedTimerEntries);
+    final TimerEntryFilter timerEntryFilter = new TimerEntryFilter()
+        .setFromMillis(fromMillis)
+        .setToMillis(beforeMillis)
+        .setDescending(true);
+    return new TimerEntryPage(fromMillis, beforeMillis, fetchDaily(timerEntryFilter));
+  }
 
-      timerEntries.put(timerEntryDate, dailyTimerEntries);
-    }
+  /**
+   * Fetches the TimerEntries matching the passed filter grouped by their
+   * start date. Dates are sorted in descending order.
+   *
+   * @param timerEntryFilter Filter TimerEntries must match.
+   * @return Matching TimerEntries grouped by date.
+   * @throws SQLException If the TimerEntries couldn't be read.
+   */
+  public Map<LocalDate, DailyTimerEntries> fetchDaily(TimerEntryFilter timerEntryFilter) throws SQLException {
+    Map<LocalDate, DailyTimerEntries> timerEntries = new TreeMap<>(Comparator.reverseOrder());
+    forEach(timerEntryFilter, timerEntry -> {
+      LocalDate timerEntryDate = dayBucketer.getDate(timerEntry.getStartTimeMillis());
+      timerEntries.computeIfAbsent(timerEntryDate, DailyTimerEntries::new).addTimerEntry(timerEntry);
+    });
     return timerEntries;
   }
 
@@ -125,9 +552,7 @@ public class TimerEntryService {
   public List<TimerEntry> fetchAll() {
     final String sql = "SELECT * FROM " + TIMER_ENTRY_TABLE + " ORDER BY startTimeMillis DESC";
     List<TimerEntry> timerEntries = new ArrayList<>();
-    try (Connection connection = sqLiteManager.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-      ResultSet resultSet = preparedStatement.executeQuery();
+    try (ResultSet resultSet = sqLiteManager.prepareStatement(sql).executeQuery()) {
       while (resultSet.next()) {
         TimerEntry timerEntry = parseTimerEntry(resultSet);
         if (timerEntry == null) {
@@ -142,73 +567,206 @@ public class TimerEntryService {
   }
 
   /**
-   * Computes the amount of time in milliseconds a Project has been elapsed for
-   * within the passed Date.
+   * Fetches the TimerEntries that started within the passed range as
+   * EntryColumns. Only the id and number columns of TimerEntryData are read,
+   * so no dictionary is joined and no String is created per row.
    *
-   * @param timerEntry TimerEntry whose project will be computed.
-   * @param localDate  Date to compute.
-   * @param matchTask  Whether the TimerEntry task should match as well.
-   * @return Total elapsed time in milliseconds of the passed TimerEntry's
-   *         project.
+   * @param fromMillis Inclusive lower bound of the start time, or null for no
+   *                   bound.
+   * @param toMillis   Exclusive upper bound of the start time, or null for no
+   *                   bound.
+   * @return Fetched columns, sorted by start time in ascending order.
+   * @throws SQLException If the TimerEntries couldn't be read.
    */
-  public long computeDailyElapsedTimeMillis(TimerEntry timerEntry, LocalDate localDate, boolean matchTask) {
-    return fetch(timerEntry, localDate, matchTask)
-        .stream().map(TimerEntry::getDurationMillis).mapToLong(Long::longValue).sum();
+  public EntryColumns fetchColumns(Long fromMillis, Long toMillis) throws SQLException {
+    final String sql = "SELECT startTimeMillis, durationMillis, projectId, clientId, taskId, billable FROM " +
+        TimerEntryData.TABLE + " WHERE startTimeMillis >= ? AND startTimeMillis < ? ORDER BY startTimeMillis";
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(sql);
+    preparedStatement.setLong(1, fromMillis == null ? Long.MIN_VALUE : fromMillis);
+    preparedStatement.setLong(2, toMillis == null ? Long.MAX_VALUE : toMillis);
+    EntryColumns entryColumns = new EntryColumns();
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        // Null ids are read as 0, which no dictionary row uses
+        entryColumns.add(
+            resultSet.getLong(1),
+            resultSet.getLong(2),
+            resultSet.getInt(3),
+            resultSet.getInt(4),
+            resultSet.getInt(5),
+            resultSet.getBoolean(6));
+      }
+    }
+    return entryColumns;
+  }
+
+  /**
+   * Streams every stored TimerEntry matching the passed filter to the passed
+   * consumer. Rows are read one at a time from the database, so memory use
+   * doesn't depend on the amount of matching TimerEntries. When the filter
+   * requires tags, the TimerEntries are found through the TimerEntryTag
+   * primary key of the first tag instead of scanning the range.
+   *
+   * @param timerEntryFilter Filter TimerEntries must match.
+   * @param consumer         Consumer of the matching TimerEntries.
+   * @throws SQLException If the TimerEntries couldn't be read.
+   */
+  public void forEach(TimerEntryFilter timerEntryFilter, Consumer<TimerEntry> consumer) throws SQLException {
+    StringBuilder sql = new StringBuilder("SELECT " + TIMER_ENTRY_TABLE + ".* FROM ");
+    List<Object> parameters = new ArrayList<>();
+    final List<String> tags = timerEntryFilter.getTags();
+    final String startTimeColumn;
+    if (tags.isEmpty()) {
+      sql.append(TIMER_ENTRY_TABLE).append(" WHERE 1 = 1");
+      startTimeColumn = TIMER_ENTRY_TABLE + ".startTimeMillis";
+    } else {
+      // CROSS JOIN keeps TimerEntryTag as the outer loop, so the range is read from its primary key
+      sql.append(Tags.TIMER_ENTRY_TAG_TABLE).append(" CROSS JOIN ").append(TIMER_ENTRY_TABLE)
+          .append(" ON ").append(TIMER_ENTRY_TABLE).append(".id = ").append(Tags.TIMER_ENTRY_TAG_TABLE)
+          .append(".timerEntryId WHERE ").append(Tags.TIMER_ENTRY_TAG_TABLE)
+          .append(".tagId = (SELECT id FROM ").append(Tags.TAG_TABLE).append(" WHERE name = ?)");
+      parameters.add(tags.get(0));
+      startTimeColumn = Tags.TIMER_ENTRY_TAG_TABLE + ".startTimeMillis";
+      for (String tag : tags.subList(1, tags.size())) {
+        sql.append(" AND EXISTS (SELECT 1 FROM ").append(Tags.TIMER_ENTRY_TAG_TABLE).append(" OtherTag")
+            .append(" WHERE OtherTag.tagId = (SELECT id FROM ").append(Tags.TAG_TABLE).append(" WHERE name = ?)")
+            .append(" AND OtherTag.startTimeMillis = ").append(TIMER_ENTRY_TABLE).append(".startTimeMillis")
+            .append(" AND OtherTag.timerEntryId = ").append(TIMER_ENTRY_TABLE).append(".id)");
+        parameters.add(tag);
+      }
+    }
+    if (timerEntryFilter.getFromMillis() != null) {
+      sql.append(" AND ").append(startTimeColumn).append(" >= ?");
+      parameters.add(timerEntryFilter.getFromMillis());
+    }
+    if (timerEntryFilter.getToMillis() != null) {
+      sql.append(" AND ").append(startTimeColumn).append(" < ?");
+      parameters.add(timerEntryFilter.getToMillis());
+    }
+    if (timerEntryFilter.getProjectName() != null) {
+      sql.append(" AND ").append(TIMER_ENTRY_TABLE).append(".projectName = ?");
+      parameters.add(timerEntryFilter.getProjectName());
+    }
+    sql.append(" ORDER BY ").append(startTimeColumn).append(timerEntryFilter.isDescending() ? " DESC" : " ASC");
+    if (timerEntryFilter.getLimit() > 0) {
+      sql.append(" LIMIT ?");
+      parameters.add(timerEntryFilter.getLimit());
+    }
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(sql.toString());
+    for (int index = 0; index < parameters.size(); index++) {
+      preparedStatement.setObject(index + 1, parameters.get(index));
+    }
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        TimerEntry timerEntry = parseTimerEntry(resultSet);
+        if (timerEntry == null) {
+          continue;
+        }
+        consumer.accept(timerEntry);
+      }
+    }
   }
 
   /**
+   * Fetches the TimerEntries whose description, project or task contain a
+   * word starting with each of the words of the passed text, so results can
+   * be shown while the text is typed. Matches are found and ranked through
+   * the TimerEntrySearch index, no TimerEntry is scanned.
    *
-   * Fetches all the TimerEntries matching the passed TimerEntry's project
-   * name that are within the passed date.
+   * @param text  Text to search.
+   * @param limit Maximum amount of TimerEntries to fetch.
+   * @return Matching TimerEntries, most relevant first. Empty if the text has
+   *         no words.
+   * @throws SQLException If the TimerEntries couldn't be read.
+   */
+  public List<TimerEntry> search(String text, int limit) throws SQLException {
+    List<TimerEntry> timerEntries = new ArrayList<>();
+    final String matchQuery = createMatchQuery(text);
+    if (matchQuery.isEmpty()) {
+      return timerEntries;
+    }
+    PreparedStatement preparedStatement = sqLiteManager.prepareStatement(SEARCH_SQL);
+    preparedStatement.setString(1, matchQuery);
+    preparedStatement.setInt(2, limit);
+    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        TimerEntry timerEntry = parseTimerEntry(resultSet);
+        if (timerEntry == null) {
+          continue;
+        }
+        timerEntries.add(timerEntry);
+      }
+    }
+    return timerEntries;
+  }
+
+  /**
+   * Converts free text into an FTS5 query that matches every word as a
+   * prefix. Words are quoted, so the query syntax can't be injected through
+   * the text.
+   */
+  private String createMatchQuery(String text) {
+    StringBuilder matchQuery = new StringBuilder();
+    for (String word : text.trim().split("\\s+")) {
+      if (word.isEmpty()) {
+        continue;
+      }
+      if (matchQuery.length() > 0) {
+        matchQuery.append(' ');
+      }
+      matchQuery.append('"').append(word.replace("\"", "\"\"")).append("\"*");
+    }
+    return matchQuery.toString();
+  }
+
+  /**
+   * Computes the amount of time in milliseconds a Project has been elapsed for
+   * within the passed Date. The total is read from the DailyRollup table, so
+   * its cost doesn't depend on the amount of TimerEntries of the day.
    *
-   * @param timerEntry TimerEntry to compare.
+   * @param timerEntry TimerEntry whose project will be computed.
+   * @param localDate  Date to compute.
    * @param matchTask  Whether the TimerEntry task should match as well.
-   * @return Matching TimerEntries.
+   * @return Total elapsed time in milliseconds of the passed TimerEntry's
+   *         project.
    */
-  private List<TimerEntry> fetch(TimerEntry timerEntry, LocalDate date, boolean matchTask) {
-    List<TimerEntry> timerEntries = new ArrayList<>();
-    String sql = "SELECT * FROM " + TIMER_ENTRY_TABLE + " WHERE projectName = ? AND " +
-        "startTimeMillis BETWEEN ? AND ?";
+  public long computeDailyElapsedTimeMillis(TimerEntry timerEntry, LocalDate localDate, boolean matchTask) {
+    String sql = "SELECT COALESCE(SUM(totalMillis), 0) FROM " + DailyRollups.TABLE +
+        " WHERE date = ? AND projectName = ?";
     if (matchTask) {
-      sql += " AND COALESCE(task, '') = ?";
+      sql += " AND task = ?";
     }
-    try (Connection connection = sqLiteManager.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-      preparedStatement.setString(1, timerEntry.getProjectName());
-
-      ZoneId zoneId = ZoneId.systemDefault();
-      preparedStatement.setLong(2, date.atStartOfDay(zoneId).toInstant().toEpochMilli());
-      preparedStatement.setLong(3, date.atTime(LocalTime.MAX).atZone(zoneId).toInstant().toEpochMilli());
+    try {
+      PreparedStatement preparedStatement = sqLiteManager.prepareStatement(sql);
+      preparedStatement.setString(1, DailyRollups.toDate(localDate));
+      preparedStatement.setString(2, timerEntry.getProjectName());
       if (matchTask) {
         final String task = timerEntry.getTask() == null ? "" : timerEntry.getTask();
-        preparedStatement.setString(4, task);
+        preparedStatement.setString(3, task);
       }
 
-      ResultSet resultSet = preparedStatement.executeQuery();
-      while (resultSet.next()) {
-        TimerEntry dateTimerEntry = parseTimerEntry(resultSet);
-        if (dateTimerEntry == null) {
-          continue;
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        if (resultSet.next()) {
+          return resultSet.getLong(1);
         }
-        timerEntries.add(dateTimerEntry);
       }
     } catch (SQLException e) {
-      LOGGER.error("Error fetching TimeEntries matching {} and date {}. Message: {}",
+      LOGGER.error("Error computing elapsed time of {} on date {}. Message: {}",
           timerEntry.getProjectName(),
-          date,
+          localDate,
           e.getMessage());
     }
-    return timerEntries;
+    return 0;
   }
 
   private TimerEntry parseTimerEntry(ResultSet resultSet) {
     try {
-      String projectName = resultSet.getString("projectName");
-      String clientName = resultSet.getString("clientName");
+      String projectName = readDictionaryName(resultSet, Dictionary.PROJECT);
+      String clientName = readDictionaryName(resultSet, Dictionary.CLIENT);
       String description = resultSet.getString("description");
-      String task = resultSet.getString("task");
-      String email = resultSet.getString("email");
-      List<String> tags = Arrays.asList(resultSet.getString("tags").split(","));
+      String task = readDictionaryName(resultSet, Dictionary.TASK);
+      String email = readDictionaryName(resultSet, Dictionary.EMAIL);
+      List<String> tags = readTags(resultSet);
       boolean billable = resultSet.getBoolean("billable");
       long startTimeMillis = resultSet.getLong("startTimeMillis");
       long durationMillis = resultSet.getLong("durationMillis");
@@ -228,4 +786,42 @@ public class TimerEntryService {
     }
     return null;
   }
+
+  /**
+   * Reads the value of a dictionary column. The name is only read from the
+   * row the first time its id is seen, every later TimerEntry with the same
+   * id gets the same String.
+   */
+  private String readDictionaryName(ResultSet resultSet, Dictionary dictionary) throws SQLException {
+    final long id = resultSet.getLong(dictionary.getIdColumn());
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    final DictionaryNames names = dictionaryNames.get(dictionary);
+    String name = names.get(id);
+    if (name == null) {
+      name = resultSet.getString(dictionary.getNameColumn());
+      names.put(id, name);
+    }
+    return name;
+  }
+
+  /**
+   * Reads the tags column as an immutable list shared by every TimerEntry
+   * with the same tags. Once the cache is full, lists are parsed per row.
+   */
+  private List<String> readTags(ResultSet resultSet) throws SQLException {
+    final String tags = resultSet.getString("tags");
+    if (tags == null || tags.isEmpty()) {
+      return List.of();
+    }
+    List<String> tagList = tagLists.get(tags);
+    if (tagList == null) {
+      tagList = List.copyOf(TimerEntry.parseTags(tags));
+      if (tagLists.size() < MAX_CACHED_TAG_LISTS) {
+        tagLists.putIfAbsent(tags, tagList);
+      }
+    }
+    return tagList;
+  }
 }
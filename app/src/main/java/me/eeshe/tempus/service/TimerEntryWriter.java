@@ -0,0 +1,165 @@
+package me.eeshe.tempus.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.TimerEntry;
+
+/**
+ * Persists TimerEntries in the background. A single writer thread drains a
+ * bounded queue and inserts everything that is pending in one transaction,
+ * using its own connection so it never blocks the GUI thread.
+ */
+class TimerEntryWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimerEntryWriter.class);
+  private static final int QUEUE_CAPACITY = 1024;
+  private static final int MAX_BATCH_SIZE = 256;
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+  private final BlockingQueue<PendingWrite> pendingWrites = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final TimerEntryService timerEntryService;
+  private final SQLiteManager sqLiteManager;
+  private final Thread writerThread;
+
+  private volatile boolean running = true;
+
+  TimerEntryWriter(TimerEntryService timerEntryService, SQLiteManager sqLiteManager) {
+    this.timerEntryService = timerEntryService;
+    this.sqLiteManager = sqLiteManager;
+    this.writerThread = new Thread(this::run, "tempus-writer");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  /**
+   * Queues the passed TimerEntry to be written. If the queue is full the
+   * caller waits until there's space for it.
+   *
+   * @param timerEntry TimerEntry to write.
+   * @return Future completed once the TimerEntry is committed, or completed
+   *         exceptionally if it couldn't be written.
+   */
+  CompletableFuture<Void> submit(TimerEntry timerEntry) {
+    return enqueue(new PendingWrite(timerEntry));
+  }
+
+  /**
+   * Returns a future that completes once every TimerEntry submitted before
+   * this call has been processed.
+   *
+   * @return Flush future.
+   */
+  CompletableFuture<Void> flush() {
+    return enqueue(new PendingWrite(null));
+  }
+
+  private CompletableFuture<Void> enqueue(PendingWrite pendingWrite) {
+    if (!running) {
+      return CompletableFuture.failedFuture(new IllegalStateException("TimerEntryWriter is closed"));
+    }
+    try {
+      pendingWrites.put(pendingWrite);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      pendingWrite.future.completeExceptionally(e);
+    }
+    return pendingWrite.future;
+  }
+
+  /**
+   * Writes every pending TimerEntry, stops the writer thread and closes its
+   * connection.
+   */
+  void close() {
+    if (!running) {
+      return;
+    }
+    try {
+      flush().get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (Exception e) {
+      LOGGER.error("Error flushing pending TimerEntries on close. Message: {}", e.getMessage());
+    }
+    running = false;
+    writerThread.interrupt();
+    try {
+      writerThread.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    sqLiteManager.close();
+  }
+
+  private void run() {
+    List<PendingWrite> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    while (running) {
+      try {
+        batch.add(pendingWrites.take());
+      } catch (InterruptedException e) {
+        break;
+      }
+      pendingWrites.drainTo(batch, MAX_BATCH_SIZE - 1);
+      write(batch);
+      batch.clear();
+    }
+    failPendingWrites();
+  }
+
+  /**
+   * Inserts the TimerEntries of the passed batch in a single transaction and
+   * completes their futures. Flush markers are completed after the entries
+   * queued before them. Unexpected errors fail the batch as well, so the
+   * writer thread keeps draining the queue and no caller waits forever.
+   *
+   * @param batch Batch to write.
+   */
+  private void write(List<PendingWrite> batch) {
+    List<TimerEntry> timerEntries = new ArrayList<>(batch.size());
+    for (PendingWrite pendingWrite : batch) {
+      if (pendingWrite.timerEntry != null) {
+        timerEntries.add(pendingWrite.timerEntry);
+      }
+    }
+    Exception exception = null;
+    if (!timerEntries.isEmpty()) {
+      try {
+        timerEntryService.insertAll(sqLiteManager, timerEntries);
+      } catch (SQLException | RuntimeException e) {
+        LOGGER.error("Error saving {} TimerEntries. Message: {}", timerEntries.size(), e.getMessage());
+        exception = e;
+      }
+    }
+    for (PendingWrite pendingWrite : batch) {
+      if (exception != null && pendingWrite.timerEntry != null) {
+        pendingWrite.future.completeExceptionally(exception);
+      } else {
+        pendingWrite.future.complete(null);
+      }
+    }
+  }
+
+  private void failPendingWrites() {
+    List<PendingWrite> remaining = new ArrayList<>();
+    pendingWrites.drainTo(remaining);
+    for (PendingWrite pendingWrite : remaining) {
+      pendingWrite.future.completeExceptionally(new IllegalStateException("TimerEntryWriter was closed"));
+    }
+  }
+
+  private static class PendingWrite {
+    private final TimerEntry timerEntry; // Null for flush markers
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private PendingWrite(TimerEntry timerEntry) {
+      this.timerEntry = timerEntry;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package me.eeshe.tempus.ui;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.gui2.Label;
+import com.googlecode.lanterna.gui2.TextBox;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+
+/**
+ * TextBox that offers completions of its text while it's typed. They're
+ * listed next to the title of the field and Tab replaces the text with the
+ * first one. Once there is nothing to complete, Tab moves the focus as usual.
+ */
+class AutocompleteTextBox extends TextBox {
+  private final Function<String, List<String>> completer;
+  private final Label titleLabel;
+  private final String title;
+  private List<String> completions = List.of();
+
+  /**
+   * Creates an AutocompleteTextBox.
+   *
+   * @param size       Size of the TextBox.
+   * @param completer  Returns the completions of the typed text. Called on
+   *                   every keystroke, so it must not block.
+   * @param titleLabel Label of the field the completions are listed in.
+   */
+  AutocompleteTextBox(TerminalSize size, Function<String, List<String>> completer, Label titleLabel) {
+    super(size);
+    this.completer = completer;
+    this.titleLabel = titleLabel;
+    this.title = titleLabel.getText();
+  }
+
+  /**
+   * Looks up the completions of the current text. Meant to be called when the
+   * user changes the text.
+   */
+  void updateCompletions() {
+    final String text = getText();
+    if (text == null || text.isBlank()) {
+      showCompletions(List.of());
+      return;
+    }
+    List<String> newCompletions = completer.apply(text).stream()
+        .filter(completion -> !completion.equals(text))
+        .toList();
+    showCompletions(newCompletions);
+  }
+
+  @Override
+  public synchronized Result handleKeyStroke(KeyStroke keyStroke) {
+    if (keyStroke.getKeyType() == KeyType.Tab && !completions.isEmpty()) {
+      final String completion = completions.get(0);
+      setText(completion);
+      setCaretPosition(completion.length());
+      showCompletions(List.of());
+      return Result.HANDLED;
+    }
+    return super.handleKeyStroke(keyStroke);
+  }
+
+  private void showCompletions(List<String> completions) {
+    this.completions = completions;
+    if (completions.isEmpty()) {
+      titleLabel.setText(title);
+      return;
+    }
+    titleLabel.setText(title + "  Tab: " + String.join(", ", completions));
+  }
+}
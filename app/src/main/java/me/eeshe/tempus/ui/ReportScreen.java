@@ -0,0 +1,177 @@
+package me.eeshe.tempus.ui;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.googlecode.lanterna.TextCharacter;
+import com.googlecode.lanterna.TextColor;
+import com.googlecode.lanterna.graphics.TextGraphics;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import com.googlecode.lanterna.screen.Screen;
+
+import me.eeshe.tempus.model.Report;
+import me.eeshe.tempus.model.ReportDimension;
+import me.eeshe.tempus.model.ReportGranularity;
+import me.eeshe.tempus.model.ReportQuery;
+import me.eeshe.tempus.model.ReportRow;
+import me.eeshe.tempus.service.ReportService;
+import me.eeshe.tempus.util.TimeFormatUtil;
+
+/**
+ * Shows the totals of a week, month or year grouped by one dimension. The
+ * period and the dimension can be changed without leaving the screen.
+ */
+public class ReportScreen {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReportScreen.class);
+  private static final List<ReportGranularity> GRANULARITIES = List.of(
+      ReportGranularity.WEEK,
+      ReportGranularity.MONTH,
+      ReportGranularity.YEAR);
+  private static final TextCharacter HEADER_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.WHITE);
+  private static final TextCharacter BAR_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.BLUE);
+
+  private final ReportService reportService;
+
+  private ReportGranularity granularity = ReportGranularity.WEEK;
+  private ReportDimension dimension = ReportDimension.PROJECT;
+  private LocalDate periodStart;
+  private Report report;
+  private String errorMessage;
+
+  public ReportScreen(ReportService reportService) {
+    this.reportService = reportService;
+  }
+
+  public void open(Screen screen) {
+    periodStart = granularity.truncate(LocalDate.now(reportService.getDayBucketer().getZoneId()));
+    generateReport();
+    screen.setCursorPosition(null);
+    try {
+      while (true) {
+        screen.doResizeIfNecessary();
+        draw(screen);
+        screen.refresh();
+
+        // Nothing changes on its own while the report is shown, so it's fine to block
+        KeyStroke keyStroke = screen.readInput();
+        if (keyStroke == null) {
+          continue;
+        }
+        final KeyType keyType = keyStroke.getKeyType();
+        if (keyType == KeyType.Escape || keyType == KeyType.EOF) {
+          return;
+        }
+        final char character = keyType == KeyType.Character
+            ? Character.toLowerCase(keyStroke.getCharacter())
+            : 0;
+        if (keyType == KeyType.ArrowLeft || character == 'h') {
+          periodStart = granularity.truncate(periodStart.minusDays(1));
+        } else if (keyType == KeyType.ArrowRight || character == 'l') {
+          periodStart = granularity.next(periodStart);
+        } else if (character == 'g') {
+          granularity = GRANULARITIES.get((GRANULARITIES.indexOf(granularity) + 1) % GRANULARITIES.size());
+          periodStart = granularity.truncate(periodStart);
+        } else if (keyType == KeyType.Tab || character == 'd') {
+          final ReportDimension[] dimensions = ReportDimension.values();
+          dimension = dimensions[(dimension.ordinal() + 1) % dimensions.length];
+        } else if (character == 'q') {
+          return;
+        } else {
+          continue;
+        }
+        generateReport();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Error displaying the report. Message: {}", e.getMessage());
+    }
+  }
+
+  private void generateReport() {
+    final ReportQuery reportQuery = new ReportQuery()
+        .setFromDate(periodStart)
+        .setToDate(granularity.next(periodStart))
+        .setGranularity(ReportGranularity.TOTAL)
+        .setDimension(dimension);
+    try {
+      report = reportService.generate(reportQuery);
+      errorMessage = null;
+    } catch (SQLException e) {
+      report = null;
+      errorMessage = "Couldn't generate the report: " + e.getMessage();
+    }
+  }
+
+  private void draw(Screen screen) {
+    screen.clear();
+    final TextGraphics textGraphics = screen.newTextGraphics();
+    final int columns = screen.getTerminalSize().getColumns();
+    final int rows = screen.getTerminalSize().getRows();
+
+    textGraphics.drawLine(0, 0, columns, 0, HEADER_CHARACTER);
+    final LocalDate periodEnd = granularity.next(periodStart).minusDays(1);
+    textGraphics
+        .setBackgroundColor(TextColor.ANSI.WHITE)
+        .setForegroundColor(TextColor.ANSI.BLACK)
+        .putString(0, 0, String.format("%s (%s - %s) by %s",
+            granularity.format(periodStart), periodStart, periodEnd, dimension.getDisplayName()));
+    if (report != null) {
+      final String totalString = TimeFormatUtil.formatMillisecondsToHHMMSS(report.getTotalMillis());
+      textGraphics.putString(columns - totalString.length(), 0, totalString);
+    }
+
+    textGraphics.drawLine(0, rows - 1, columns, rows - 1, HEADER_CHARACTER);
+    textGraphics.putString(0, rows - 1, "Left/Right: Period  G: Week/Month/Year  D/Tab: Group By  Esc: Back");
+
+    textGraphics
+        .setBackgroundColor(TextColor.ANSI.DEFAULT)
+        .setForegroundColor(TextColor.ANSI.DEFAULT);
+    if (errorMessage != null) {
+      textGraphics.setForegroundColor(TextColor.ANSI.RED).putString(0, 2, errorMessage);
+      return;
+    }
+    if (report.getRows().isEmpty()) {
+      textGraphics.putString(0, 2, "Nothing was tracked in this period.");
+      return;
+    }
+    drawRows(textGraphics, columns, rows - 3);
+  }
+
+  /**
+   * Draws a row per key with its total, its share of the period and a bar
+   * proportional to the largest total.
+   */
+  private void drawRows(TextGraphics textGraphics, int columns, int maxRows) {
+    final List<ReportRow> reportRows = report.getRows();
+    final long maxTotalMillis = reportRows.get(0).getTotalMillis();
+    final int keyWidth = Math.max(10, columns / 3);
+    final int barColumn = keyWidth + 20;
+    final int barWidth = columns - barColumn - 1;
+    for (int index = 0; index < reportRows.size() && index < maxRows; index++) {
+      final ReportRow reportRow = reportRows.get(index);
+      final int row = index + 2;
+      String key = reportRow.getKey();
+      if (key.length() > keyWidth - 1) {
+        key = key.substring(0, keyWidth - 2) + "~";
+      }
+      final double share = report.getTotalMillis() == 0 ? 0
+          : (double) reportRow.getTotalMillis() / report.getTotalMillis();
+      textGraphics.putString(0, row, key);
+      textGraphics.putString(keyWidth, row, String.format("%10s %5.1f%%",
+          TimeFormatUtil.formatMillisecondsToHHMMSS(reportRow.getTotalMillis()), share * 100));
+      if (barWidth > 0 && maxTotalMillis > 0) {
+        final int barLength = (int) Math.max(1, barWidth * reportRow.getTotalMillis() / maxTotalMillis);
+        textGraphics.drawLine(barColumn, row, barColumn + barLength - 1, row, BAR_CHARACTER);
+      }
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package me.eeshe.tempus.ui;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.googlecode.lanterna.TerminalPosition;
+import com.googlecode.lanterna.TextCharacter;
+import com.googlecode.lanterna.TextColor;
+import com.googlecode.lanterna.graphics.TextGraphics;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.screen.Screen;
+
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.service.TimerEntryService;
+import me.eeshe.tempus.util.TimeFormatUtil;
+
+/**
+ * Searches the description, project and task of every TimerEntry while the
+ * query is typed. Searches run on a background thread so typing never waits
+ * for them. Queries typed while a search runs are merged, only the latest one
+ * is searched next.
+ */
+public class SearchScreen {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SearchScreen.class);
+  private static final DateTimeFormatter START_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+  private static final int RESULT_LIMIT = 200;
+  private static final long MIN_IDLE_WAIT_MILLIS = 5; // Wait right after input, keeps typing responsive
+  private static final long MAX_IDLE_WAIT_MILLIS = 50; // Longest wait for input once the screen is idle
+  private static final String PROMPT = "Search: ";
+  private static final TextCharacter HEADER_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.WHITE);
+  private static final TextCharacter HIGHLIGHT_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.CYAN);
+
+  private final TimerEntryService timerEntryService;
+  private final ExecutorService searcher;
+  private final AtomicReference<String> pendingQuery = new AtomicReference<>();
+  private final BlockingQueue<SearchResults> completedSearches = new LinkedBlockingQueue<>();
+
+  private final StringBuilder query = new StringBuilder();
+  private String resultsQuery = "";
+  private List<TimerEntry> results = List.of();
+  private String errorMessage;
+  private int selectedIndex;
+  private int firstVisibleIndex;
+
+  public SearchScreen(TimerEntryService timerEntryService) {
+    this.timerEntryService = timerEntryService;
+    this.searcher = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "tempus-search");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Opens the search and blocks until it's closed.
+   *
+   * @param screen Screen to draw the search on.
+   * @return TimerEntry selected with Enter, or null if the search was closed
+   *         without selecting one.
+   */
+  public TimerEntry open(Screen screen) {
+    try {
+      boolean dirty = true;
+      long idleWaitMillis = MIN_IDLE_WAIT_MILLIS;
+      while (true) {
+        if (dirty) {
+          screen.doResizeIfNecessary();
+          draw(screen);
+          screen.refresh();
+          dirty = false;
+        }
+
+        KeyStroke keyStroke = screen.pollInput();
+        if (keyStroke == null) {
+          // Sleep until a search finishes or it's time to check for input again
+          SearchResults searchResults = completedSearches.poll(idleWaitMillis, TimeUnit.MILLISECONDS);
+          if (searchResults != null) {
+            showResults(searchResults);
+            dirty = true;
+          }
+          idleWaitMillis = Math.min(idleWaitMillis * 2, MAX_IDLE_WAIT_MILLIS);
+          continue;
+        }
+        idleWaitMillis = MIN_IDLE_WAIT_MILLIS;
+        dirty = true;
+        switch (keyStroke.getKeyType()) {
+          case Escape, EOF -> {
+            return null;
+          }
+          case Enter -> {
+            if (!results.isEmpty()) {
+              return results.get(selectedIndex);
+            }
+          }
+          case ArrowUp -> moveSelection(-1);
+          case ArrowDown -> moveSelection(1);
+          case Backspace -> {
+            if (query.length() > 0) {
+              query.setLength(query.length() - 1);
+              requestSearch();
+            }
+          }
+          case Character -> {
+            if (keyStroke.isCtrlDown()) {
+              final char character = Character.toLowerCase(keyStroke.getCharacter());
+              if (character == 'n') {
+                moveSelection(1);
+              } else if (character == 'p') {
+                moveSelection(-1);
+              }
+              continue;
+            }
+            query.append(keyStroke.getCharacter());
+            requestSearch();
+          }
+          default -> {
+          }
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.error("Error displaying the search. Message: {}", e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      searcher.shutdownNow();
+    }
+    return null;
+  }
+
+  /**
+   * Queues a search of the current query. If a search is already queued it
+   * picks up the new query instead, so at most one search waits behind the
+   * running one.
+   */
+  private void requestSearch() {
+    final String text = query.toString();
+    if (text.isBlank()) {
+      pendingQuery.set(null);
+      completedSearches.clear();
+      showResults(new SearchResults(text, List.of(), null));
+      return;
+    }
+    if (pendingQuery.getAndSet(text) != null) {
+      return;
+    }
+    searcher.execute(() -> {
+      final String searchedQuery = pendingQuery.getAndSet(null);
+      if (searchedQuery == null) {
+        return;
+      }
+      try {
+        completedSearches.add(new SearchResults(searchedQuery,
+            timerEntryService.search(searchedQuery, RESULT_LIMIT), null));
+      } catch (SQLException e) {
+        completedSearches.add(new SearchResults(searchedQuery, List.of(), e.getMessage()));
+      }
+    });
+  }
+
+  private void showResults(SearchResults searchResults) {
+    if (query.toString().isBlank() && !searchResults.query.isBlank()) {
+      // Finished after the query was cleared
+      return;
+    }
+    resultsQuery = searchResults.query;
+    results = searchResults.timerEntries;
+    errorMessage = searchResults.errorMessage;
+    selectedIndex = 0;
+    firstVisibleIndex = 0;
+  }
+
+  private void moveSelection(int offset) {
+    if (results.isEmpty()) {
+      return;
+    }
+    selectedIndex = Math.max(0, Math.min(results.size() - 1, selectedIndex + offset));
+  }
+
+  private void draw(Screen screen) {
+    screen.clear();
+    final TextGraphics textGraphics = screen.newTextGraphics();
+    final int columns = screen.getTerminalSize().getColumns();
+    final int rows = screen.getTerminalSize().getRows();
+
+    textGraphics.drawLine(0, 0, columns, 0, HEADER_CHARACTER);
+    textGraphics
+        .setBackgroundColor(TextColor.ANSI.WHITE)
+        .setForegroundColor(TextColor.ANSI.BLACK)
+        .putString(0, 0, PROMPT + query);
+    final String resultsText;
+    if (query.toString().isBlank()) {
+      resultsText = "";
+    } else if (resultsQuery.equals(query.toString())) {
+      resultsText = results.size() + (results.size() == RESULT_LIMIT ? "+" : "") + " result(s)";
+    } else {
+      resultsText = "Searching...";
+    }
+    textGraphics.putString(Math.max(0, columns - resultsText.length()), 0, resultsText);
+
+    textGraphics.drawLine(0, rows - 1, columns, rows - 1, HEADER_CHARACTER);
+    textGraphics.putString(0, rows - 1, "Up/Down: Select  Enter: Continue Timer  Esc: Back");
+    screen.setCursorPosition(new TerminalPosition(Math.min(columns - 1, PROMPT.length() + query.length()), 0));
+
+    textGraphics
+        .setBackgroundColor(TextColor.ANSI.DEFAULT)
+        .setForegroundColor(TextColor.ANSI.DEFAULT);
+    if (errorMessage != null) {
+      textGraphics.setForegroundColor(TextColor.ANSI.RED).putString(0, 1, "Couldn't search: " + errorMessage);
+      return;
+    }
+    drawResults(textGraphics, columns, rows - 2);
+  }
+
+  /**
+   * Draws a row per result with its start, duration, project and
+   * description, scrolled so the selected result is visible.
+   */
+  private void drawResults(TextGraphics textGraphics, int columns, int maxRows) {
+    if (maxRows <= 0) {
+      return;
+    }
+    if (selectedIndex < firstVisibleIndex) {
+      firstVisibleIndex = selectedIndex;
+    } else if (selectedIndex >= firstVisibleIndex + maxRows) {
+      firstVisibleIndex = selectedIndex - maxRows + 1;
+    }
+    for (int index = firstVisibleIndex; index < results.size() && index < firstVisibleIndex + maxRows; index++) {
+      final TimerEntry timerEntry = results.get(index);
+      final int row = index - firstVisibleIndex + 1;
+      String text = String.format("%s  %8s  %s  %s",
+          START_FORMATTER.format(timerEntry.getStartDateTime()),
+          TimeFormatUtil.formatMillisecondsToHHMMSS(timerEntry.getDurationMillis()),
+          timerEntry.createProjectTaskString(),
+          timerEntry.getDescription() == null ? "" : timerEntry.getDescription());
+      if (text.length() > columns) {
+        text = text.substring(0, columns);
+      }
+      if (index == selectedIndex) {
+        textGraphics.drawLine(0, row, columns, row, HIGHLIGHT_CHARACTER);
+        textGraphics
+            .setBackgroundColor(TextColor.ANSI.CYAN)
+            .setForegroundColor(TextColor.ANSI.BLACK)
+            .putString(0, row, text)
+            .setBackgroundColor(TextColor.ANSI.DEFAULT)
+            .setForegroundColor(TextColor.ANSI.DEFAULT);
+        continue;
+      }
+      textGraphics.putString(0, row, text);
+    }
+  }
+
+  private static class SearchResults {
+    private final String query;
+    private final List<TimerEntry> timerEntries;
+    private final String errorMessage;
+
+    private SearchResults(String query, List<TimerEntry> timerEntries, String errorMessage) {
+      this.query = query;
+      this.timerEntries = timerEntries;
+      this.errorMessage = errorMessage;
+    }
+  }
+}
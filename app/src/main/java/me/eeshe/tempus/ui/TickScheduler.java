@@ -0,0 +1,99 @@
+package me.eeshe.tempus.ui;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives the once-per-second updates of every running timer from a single
+ * scheduler thread. Ticks are aligned to wall-clock second boundaries and each
+ * subscriber's update is handed to its own GUI executor, so no component is
+ * touched outside the thread that owns it.
+ */
+public class TickScheduler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TickScheduler.class);
+  private static final long TICK_MILLIS = 1000;
+
+  private final ScheduledExecutorService scheduler;
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+  private ScheduledFuture<?> tickFuture;
+
+  public TickScheduler() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "tempus-ticker");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Subscribes the passed tick handler. The handler is run through the passed
+   * GUI executor once per tick, so it should apply all of its updates at once.
+   * The scheduler only runs while there's at least one subscription.
+   *
+   * @param guiExecutor Executor that runs tasks on the subscriber's GUI thread.
+   * @param tickHandler Handler to run on every tick.
+   * @return Subscription that stops the ticks once cancelled.
+   */
+  public synchronized Subscription subscribe(Consumer<Runnable> guiExecutor, Runnable tickHandler) {
+    final Subscription subscription = new Subscription(guiExecutor, tickHandler);
+    subscriptions.add(subscription);
+    if (tickFuture == null) {
+      final long initialDelayMillis = TICK_MILLIS - System.currentTimeMillis() % TICK_MILLIS;
+      tickFuture = scheduler.scheduleAtFixedRate(this::tick, initialDelayMillis, TICK_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+    return subscription;
+  }
+
+  private synchronized void unsubscribe(Subscription subscription) {
+    if (!subscriptions.remove(subscription) || !subscriptions.isEmpty() || tickFuture == null) {
+      return;
+    }
+    tickFuture.cancel(false);
+    tickFuture = null;
+  }
+
+  private void tick() {
+    for (Subscription subscription : subscriptions) {
+      try {
+        subscription.guiExecutor.accept(subscription.tickHandler);
+      } catch (RuntimeException e) {
+        // The GUI may have been closed between the subscription and the tick
+        LOGGER.error("Error dispatching timer tick. Message: {}", e.getMessage());
+        subscription.cancel();
+      }
+    }
+  }
+
+  /**
+   * Stops the scheduler thread. Subscriptions receive no further ticks.
+   */
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  public class Subscription {
+    private final Consumer<Runnable> guiExecutor;
+    private final Runnable tickHandler;
+
+    private Subscription(Consumer<Runnable> guiExecutor, Runnable tickHandler) {
+      this.guiExecutor = guiExecutor;
+      this.tickHandler = tickHandler;
+    }
+
+    /**
+     * Stops delivering ticks to this subscription.
+     */
+    public void cancel() {
+      unsubscribe(this);
+    }
+  }
+}
@@ -1,10 +1,10 @@
 package me.eeshe.tempus.ui;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.TextColor;
@@ -29,8 +29,9 @@ import com.googlecode.lanterna.input.KeyStroke;
 import com.googlecode.lanterna.input.KeyType;
 import com.googlecode.lanterna.screen.Screen;
 
-import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.RunningTimer;
 import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.service.RunningTimerService;
 import me.eeshe.tempus.service.TimerEntryService;
 import me.eeshe.tempus.util.TimeFormatUtil;
 
@@ -38,6 +39,7 @@ public class TimeTrackerScreen {
   private static final SimpleTheme TEXT_BOX_THEME = new SimpleTheme(
       TextColor.ANSI.BLACK,
       TextColor.ANSI.WHITE);
+  private static final int COMPLETION_LIMIT = 3;
 
   private String projectName;
   private String clientName;
@@ -47,20 +49,30 @@ public class TimeTrackerScreen {
   private String tags;
   private boolean isBillable;
 
-  private long initialTimeMillis;
-
-  private Timer timerTask;
+  private RunningTimer runningTimer;
+  private TickScheduler.Subscription tickSubscription;
 
   private final TimerEntryService timerEntryService;
+  private final RunningTimerService runningTimerService;
+  private final TickScheduler tickScheduler;
+  private final Function<TimerEntry, CompletableFuture<Void>> saveHandler;
   private final long dailyElapsedTimeMillis;
 
-  public TimeTrackerScreen() {
-    this.timerEntryService = new TimerEntryService(new SQLiteManager());
+  public TimeTrackerScreen(TimerEntryService timerEntryService, RunningTimerService runningTimerService,
+      TickScheduler tickScheduler, Function<TimerEntry, CompletableFuture<Void>> saveHandler) {
+    this.timerEntryService = timerEntryService;
+    this.runningTimerService = runningTimerService;
+    this.tickScheduler = tickScheduler;
+    this.saveHandler = saveHandler;
     this.dailyElapsedTimeMillis = 0;
   }
 
-  public TimeTrackerScreen(TimerEntry timerEntry) {
-    this.timerEntryService = new TimerEntryService(new SQLiteManager());
+  public TimeTrackerScreen(TimerEntryService timerEntryService, RunningTimerService runningTimerService,
+      TickScheduler tickScheduler, TimerEntry timerEntry, Function<TimerEntry, CompletableFuture<Void>> saveHandler) {
+    this.timerEntryService = timerEntryService;
+    this.runningTimerService = runningTimerService;
+    this.tickScheduler = tickScheduler;
+    this.saveHandler = saveHandler;
 
     this.projectName = timerEntry.getProjectName();
     this.clientName = timerEntry.getClientName();
@@ -73,7 +85,7 @@ public class TimeTrackerScreen {
     final boolean matchTask = false;
     this.dailyElapsedTimeMillis = timerEntryService.computeDailyElapsedTimeMillis(
         timerEntry,
-        LocalDate.now(),
+        LocalDate.now(timerEntryService.getDayBucketer().getZoneId()),
         matchTask);
   }
 
@@ -97,12 +109,12 @@ public class TimeTrackerScreen {
     Label projectLabel = new Label("Project");
     panel.addComponent(projectLabel);
 
-    TextBox projectTextBox = createProjectTextBox();
+    TextBox projectTextBox = createProjectTextBox(projectLabel);
     panel.addComponent(projectTextBox);
 
     Label clientLabel = new Label("Client");
     panel.addComponent(clientLabel);
-    TextBox clientTextBox = createClientTextBox();
+    TextBox clientTextBox = createClientTextBox(clientLabel);
     panel.addComponent(clientTextBox);
 
     Label descriptionLabel = new Label("Description");
@@ -112,7 +124,7 @@ public class TimeTrackerScreen {
 
     Label taskLabel = new Label("Task");
     panel.addComponent(taskLabel);
-    TextBox taskTextBox = createTaskTextBox();
+    TextBox taskTextBox = createTaskTextBox(taskLabel);
     panel.addComponent(taskTextBox);
 
     Label emailLabel = new Label("Email");
@@ -139,15 +151,15 @@ public class TimeTrackerScreen {
     Button timerButton = new Button("Start").setLayoutData(centeredLayoutData);
     timerButton.addListener(button -> {
       if (!isTimerTaskRunning()) {
-        initialTimeMillis = System.currentTimeMillis();
-        startTimerTask(elapsedTimeLabel, dailyElapsedTimeLabel);
+        runningTimer = runningTimerService.start(applyDetails(RunningTimer.start()));
+        startTimerTask(textGUI, elapsedTimeLabel, dailyElapsedTimeLabel);
         button.setLabel("Stop");
       } else {
         stopTimerTask();
         button.setLabel("Start");
 
         saveTimerEntry();
-        initialTimeMillis = 0;
+        runningTimer = null;
         elapsedTimeLabel.setText(computeElapsedTimeText());
       }
     });
@@ -166,19 +178,28 @@ public class TimeTrackerScreen {
       }
     });
     textGUI.addWindowAndWait(window);
+    stopTimerTask();
+    if (runningTimer != null) {
+      // Closing the window leaves the timer running in the background
+      runningTimerService.update(applyDetails(runningTimer));
+    }
   }
 
-  private TextBox createProjectTextBox() {
-    return createTextBox(
+  private TextBox createProjectTextBox(Label projectLabel) {
+    return createAutocompleteTextBox(
         projectName,
+        projectLabel,
+        timerEntryService::completeProjectName,
         (newText, changedByUserInteraction) -> {
           this.projectName = newText;
         });
   }
 
-  private TextBox createClientTextBox() {
-    return createTextBox(
+  private TextBox createClientTextBox(Label clientLabel) {
+    return createAutocompleteTextBox(
         clientName,
+        clientLabel,
+        timerEntryService::completeClientName,
         (newText, changedByUserInteraction) -> {
           this.clientName = newText;
         });
@@ -192,9 +213,11 @@ public class TimeTrackerScreen {
         });
   }
 
-  private TextBox createTaskTextBox() {
-    return createTextBox(
+  private TextBox createTaskTextBox(Label taskLabel) {
+    return createAutocompleteTextBox(
         task,
+        taskLabel,
+        timerEntryService::completeTask,
         (newText, changedByUserInteraction) -> {
           this.task = newText;
         });
@@ -217,7 +240,28 @@ public class TimeTrackerScreen {
   }
 
   private TextBox createTextBox(String text, TextChangeListener textChangeListener) {
-    TextBox textBox = new TextBox(new TerminalSize(50, 1));
+    return setUpTextBox(new TextBox(new TerminalSize(50, 1)), text, textChangeListener);
+  }
+
+  /**
+   * Creates a TextBox that completes the names returned by the passed
+   * completer, listing them in the passed field label.
+   */
+  private TextBox createAutocompleteTextBox(String text, Label label,
+      BiFunction<String, Integer, List<String>> completer, TextChangeListener textChangeListener) {
+    AutocompleteTextBox textBox = new AutocompleteTextBox(
+        new TerminalSize(50, 1),
+        prefix -> completer.apply(prefix, COMPLETION_LIMIT),
+        label);
+    return setUpTextBox(textBox, text, (newText, changedByUserInteraction) -> {
+      textChangeListener.onTextChanged(newText, changedByUserInteraction);
+      if (changedByUserInteraction) {
+        textBox.updateCompletions();
+      }
+    });
+  }
+
+  private TextBox setUpTextBox(TextBox textBox, String text, TextChangeListener textChangeListener) {
     if (text != null) {
       textBox.setText(text);
     }
@@ -252,46 +296,61 @@ public class TimeTrackerScreen {
   }
 
   private void saveTimerEntry() {
+    final RunningTimer stoppedTimer = runningTimer;
+    final TimerEntry timerEntry = runningTimerService.stop(applyDetails(stoppedTimer));
+    if (timerEntry == null) {
+      return;
+    }
     if (projectName == null) {
+      runningTimerService.removeFromJournal(stoppedTimer);
       return;
     }
-    TimerEntry timerEntry = new TimerEntry(
-        projectName,
-        clientName,
-        description,
-        task,
-        email,
-        tags == null ? List.of() : Arrays.asList(tags.split(",")),
-        isBillable,
-        initialTimeMillis,
-        System.currentTimeMillis() - initialTimeMillis);
-    timerEntryService.save(timerEntry);
+    // The journaled timer is kept until the TimerEntry is stored
+    saveHandler.apply(timerEntry).thenRun(() -> runningTimerService.removeFromJournal(stoppedTimer));
+  }
+
+  /**
+   * Copies the details entered in this screen to the passed RunningTimer.
+   *
+   * @param runningTimer RunningTimer to update.
+   * @return Updated RunningTimer.
+   */
+  private RunningTimer applyDetails(RunningTimer runningTimer) {
+    return runningTimer
+        .setProjectName(projectName)
+        .setClientName(clientName)
+        .setDescription(description)
+        .setTask(task)
+        .setEmail(email)
+        .setTags(TimerEntry.parseTags(tags))
+        .setBillable(isBillable);
   }
 
   private boolean isTimerTaskRunning() {
-    return timerTask != null;
+    return runningTimer != null;
   }
 
-  private void startTimerTask(Label elapsedTimeLabel, Label dailyElapsedTimeLabel) {
-    if (timerTask != null) {
-      timerTask.cancel();
-    }
-    timerTask = new Timer();
-    timerTask.scheduleAtFixedRate(new TimerTask() {
-      @Override
-      public void run() {
-        elapsedTimeLabel.setText(computeElapsedTimeText());
-        dailyElapsedTimeLabel.setText(computeDailyElapsedTimeString());
-      }
-    }, 0L, 1000);
+  /**
+   * Updates the elapsed time labels right away and subscribes them to the
+   * shared TickScheduler. Updates are run on the GUI thread of the passed
+   * TextGUI.
+   */
+  private void startTimerTask(TextGUI textGUI, Label elapsedTimeLabel, Label dailyElapsedTimeLabel) {
+    stopTimerTask();
+    final Runnable updateLabels = () -> {
+      elapsedTimeLabel.setText(computeElapsedTimeText());
+      dailyElapsedTimeLabel.setText(computeDailyElapsedTimeString());
+    };
+    updateLabels.run();
+    tickSubscription = tickScheduler.subscribe(textGUI.getGUIThread()::invokeLater, updateLabels);
   }
 
   private void stopTimerTask() {
-    if (timerTask == null) {
+    if (tickSubscription == null) {
       return;
     }
-    timerTask.cancel();
-    timerTask = null;
+    tickSubscription.cancel();
+    tickSubscription = null;
   }
 
   private String computeElapsedTimeText() {
@@ -299,9 +358,9 @@ public class TimeTrackerScreen {
   }
 
   private long computeElapsedTimeMillis() {
-    if (initialTimeMillis == 0) {
+    if (runningTimer == null) {
       return 0;
     }
-    return System.currentTimeMillis() - initialTimeMillis;
+    return runningTimer.computeElapsedTimeMillis();
   }
 }
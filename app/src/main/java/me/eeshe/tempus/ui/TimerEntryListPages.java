@@ -0,0 +1,297 @@
+package me.eeshe.tempus.ui;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import me.eeshe.tempus.model.DailyTimerEntries;
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.model.TimerEntryFilter;
+import me.eeshe.tempus.model.TimerEntryPage;
+import me.eeshe.tempus.service.TimerEntryService;
+
+/**
+ * Pages of days shown by the TimerEntryListScreen. Only the pages near the
+ * visible rows are kept in memory: further pages are fetched in the
+ * background as the cursor approaches them, and far away pages are evicted.
+ * Evicted pages keep their bounds and row count so the row numbers of the
+ * list stay stable while they're reloaded.
+ *
+ * Pages are only modified on the GUI thread. Background loads hand their
+ * results back through the passed GUI executor.
+ */
+class TimerEntryListPages {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimerEntryListPages.class);
+  private static final int PAGE_DAYS = 14;
+
+  private final TimerEntryService timerEntryService;
+  private final Consumer<Runnable> guiExecutor;
+  private final ExecutorService pageLoader;
+  private final List<ListPage> pages = new ArrayList<>();
+  private boolean oldestPageLoaded;
+
+  /**
+   * Creates the pages of a list.
+   *
+   * @param timerEntryService TimerEntryService to fetch the pages from.
+   * @param guiExecutor       Executor that runs the passed tasks on the GUI
+   *                          thread and redraws the list afterwards.
+   */
+  TimerEntryListPages(TimerEntryService timerEntryService, Consumer<Runnable> guiExecutor) {
+    this.timerEntryService = timerEntryService;
+    this.guiExecutor = guiExecutor;
+    this.pageLoader = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "tempus-page-loader");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Loads the newest page, waiting for it so the first frame can be drawn.
+   */
+  void loadFirstPage() {
+    pages.clear();
+    oldestPageLoaded = false;
+    try {
+      TimerEntryPage timerEntryPage = pageLoader.submit(() -> timerEntryService.fetchDailyPage(null, PAGE_DAYS)).get();
+      addOlderPage(new ListPage(timerEntryPage.getFromMillis(), null), timerEntryPage);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.error("Error loading the newest TimerEntries. Message: {}", e.getCause().getMessage());
+      oldestPageLoaded = true;
+    }
+  }
+
+  /**
+   * Loads every page that intersects the passed row range and isn't loaded
+   * yet. If the range goes past the last page, the next older page is
+   * fetched.
+   *
+   * @param firstRow First row of the range.
+   * @param lastRow  Last row of the range.
+   */
+  void requestPages(int firstRow, int lastRow) {
+    for (ListPage listPage : pages) {
+      if (listPage.isLoaded() || listPage.loading || !listPage.intersects(firstRow, lastRow)) {
+        continue;
+      }
+      reloadPage(listPage);
+    }
+    if (oldestPageLoaded || pages.isEmpty()) {
+      return;
+    }
+    final ListPage oldestPage = pages.get(pages.size() - 1);
+    if (oldestPage.loading || oldestPage.getLastRow() > lastRow) {
+      return;
+    }
+    requestOlderPage(oldestPage);
+  }
+
+  private void requestOlderPage(ListPage oldestPage) {
+    final ListPage listPage = new ListPage(0, oldestPage.fromMillis);
+    listPage.firstRow = oldestPage.getLastRow() + 1;
+    listPage.loading = true;
+    pages.add(listPage);
+    CompletableFuture.supplyAsync(() -> {
+      try {
+        return timerEntryService.fetchDailyPage(oldestPage.fromMillis, PAGE_DAYS);
+      } catch (Exception e) {
+        throw new PageLoadException(e);
+      }
+    }, pageLoader).whenComplete((timerEntryPage, throwable) -> guiExecutor.accept(() -> {
+      listPage.loading = false;
+      if (throwable != null) {
+        LOGGER.error("Error loading TimerEntries before {}. Message: {}", oldestPage.fromMillis,
+            throwable.getMessage());
+        pages.remove(listPage);
+        return;
+      }
+      pages.remove(listPage);
+      addOlderPage(listPage, timerEntryPage);
+    }));
+  }
+
+  private void addOlderPage(ListPage listPage, TimerEntryPage timerEntryPage) {
+    if (timerEntryPage.isEmpty()) {
+      oldestPageLoaded = true;
+      return;
+    }
+    listPage.fromMillis = timerEntryPage.getFromMillis();
+    listPage.dailyTimerEntries = timerEntryPage.getDailyTimerEntries();
+    pages.add(listPage);
+  }
+
+  private void reloadPage(ListPage listPage) {
+    listPage.loading = true;
+    final TimerEntryFilter timerEntryFilter = new TimerEntryFilter()
+        .setFromMillis(listPage.fromMillis)
+        .setToMillis(listPage.toMillis)
+        .setDescending(true);
+    CompletableFuture.supplyAsync(() -> {
+      try {
+        return timerEntryService.fetchDaily(timerEntryFilter);
+      } catch (Exception e) {
+        throw new PageLoadException(e);
+      }
+    }, pageLoader).whenComplete((dailyTimerEntries, throwable) -> guiExecutor.accept(() -> {
+      listPage.loading = false;
+      if (throwable != null) {
+        LOGGER.error("Error reloading TimerEntries from {}. Message: {}", listPage.fromMillis,
+            throwable.getMessage());
+        return;
+      }
+      listPage.dailyTimerEntries = dailyTimerEntries;
+    }));
+  }
+
+  /**
+   * Evicts the loaded pages that don't intersect the passed row range.
+   *
+   * @param firstRow First row of the range to keep.
+   * @param lastRow  Last row of the range to keep.
+   * @return Evicted pages.
+   */
+  List<ListPage> evictPagesOutside(int firstRow, int lastRow) {
+    List<ListPage> evictedPages = new ArrayList<>();
+    for (ListPage listPage : pages) {
+      if (!listPage.isLoaded() || listPage.intersects(firstRow, lastRow)) {
+        continue;
+      }
+      listPage.dailyTimerEntries = null;
+      evictedPages.add(listPage);
+    }
+    return evictedPages;
+  }
+
+  /**
+   * Adds the passed TimerEntry to the page it belongs to. If that page is
+   * evicted it will include the TimerEntry once it's reloaded.
+   *
+   * @param timerEntry TimerEntry to add.
+   */
+  void addTimerEntry(TimerEntry timerEntry) {
+    final ListPage listPage = findPage(timerEntry.getStartTimeMillis());
+    if (listPage == null || !listPage.isLoaded()) {
+      return;
+    }
+    final LocalDate date = timerEntryService.getDayBucketer().getDate(timerEntry.getStartTimeMillis());
+    listPage.dailyTimerEntries.computeIfAbsent(date, DailyTimerEntries::new).addTimerEntry(timerEntry);
+  }
+
+  /**
+   * Removes the passed TimerEntry from the page it belongs to.
+   *
+   * @param timerEntry TimerEntry to remove.
+   */
+  void removeTimerEntry(TimerEntry timerEntry) {
+    final ListPage listPage = findPage(timerEntry.getStartTimeMillis());
+    if (listPage == null || !listPage.isLoaded()) {
+      return;
+    }
+    final LocalDate date = timerEntryService.getDayBucketer().getDate(timerEntry.getStartTimeMillis());
+    final DailyTimerEntries dailyTimerEntries = listPage.dailyTimerEntries.get(date);
+    if (dailyTimerEntries == null || !dailyTimerEntries.removeTimerEntry(timerEntry)) {
+      return;
+    }
+    if (dailyTimerEntries.isEmpty()) {
+      listPage.dailyTimerEntries.remove(date);
+    }
+  }
+
+  private ListPage findPage(long startTimeMillis) {
+    for (ListPage listPage : pages) {
+      if (listPage.contains(startTimeMillis)) {
+        return listPage;
+      }
+    }
+    if (pages.isEmpty()) {
+      // First TimerEntry ever, it starts the newest page
+      final ListPage listPage = new ListPage(startTimeMillis, null);
+      listPage.dailyTimerEntries = new TreeMap<>(Comparator.reverseOrder());
+      pages.add(listPage);
+      return listPage;
+    }
+    return null;
+  }
+
+  List<ListPage> getPages() {
+    return pages;
+  }
+
+  void close() {
+    pageLoader.shutdownNow();
+  }
+
+  /**
+   * Page of the list along with the rows it occupies.
+   */
+  static class ListPage {
+    private long fromMillis;
+    private final Long toMillis;
+    private Map<LocalDate, DailyTimerEntries> dailyTimerEntries; // Null while evicted
+    private int firstRow;
+    private int rowCount;
+    private boolean loading;
+
+    private ListPage(long fromMillis, Long toMillis) {
+      this.fromMillis = fromMillis;
+      this.toMillis = toMillis;
+    }
+
+    private boolean contains(long startTimeMillis) {
+      return startTimeMillis >= fromMillis && (toMillis == null || startTimeMillis < toMillis);
+    }
+
+    private boolean intersects(int firstRow, int lastRow) {
+      return this.firstRow <= lastRow && getLastRow() >= firstRow;
+    }
+
+    boolean isLoaded() {
+      return dailyTimerEntries != null;
+    }
+
+    Map<LocalDate, DailyTimerEntries> getDailyTimerEntries() {
+      return dailyTimerEntries;
+    }
+
+    int getFirstRow() {
+      return firstRow;
+    }
+
+    void setFirstRow(int firstRow) {
+      this.firstRow = firstRow;
+    }
+
+    int getLastRow() {
+      return firstRow + rowCount - 1;
+    }
+
+    int getRowCount() {
+      return rowCount;
+    }
+
+    void setRowCount(int rowCount) {
+      this.rowCount = rowCount;
+    }
+  }
+
+  private static class PageLoadException extends RuntimeException {
+
+    private PageLoadException(Throwable cause) {
+      super(cause.getMessage(), cause);
+    }
+  }
+}
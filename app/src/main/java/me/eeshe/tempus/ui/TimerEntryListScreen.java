@@ -1,62 +1,113 @@
 package me.eeshe.tempus.ui;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import com.googlecode.lanterna.TerminalPosition;
 import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.TextCharacter;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.graphics.TextGraphics;
+import com.googlecode.lanterna.gui2.MultiWindowTextGUI;
+import com.googlecode.lanterna.gui2.dialogs.ActionListDialogBuilder;
 import com.googlecode.lanterna.input.KeyStroke;
 import com.googlecode.lanterna.input.KeyType;
 import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.screen.TerminalScreen;
 import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
 
 import me.eeshe.tempus.model.DailyTimerEntries;
+import me.eeshe.tempus.model.RunningTimer;
 import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.service.ReportService;
+import me.eeshe.tempus.service.RunningTimerService;
 import me.eeshe.tempus.service.TimerEntryService;
+import me.eeshe.tempus.ui.TimerEntryListPages.ListPage;
+import me.eeshe.tempus.util.DayBucketer;
 import me.eeshe.tempus.util.TimeFormatUtil;
 
 public class TimerEntryListScreen {
   private static final DateTimeFormatter DAY_SEPARATOR_FORMATTER = DateTimeFormatter.ofPattern("EEE, MMM d");
-  private static final DateTimeFormatter HOUR_MINUTE_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+  private static final int PREFETCH_ROWS = 100; // Rows around the cursor whose pages are loaded ahead
+  private static final int EVICTION_ROWS = 1000; // Rows around the screen whose pages are kept in memory
+  private static final long MIN_IDLE_WAIT_MILLIS = 5; // Wait right after input, keeps typing responsive
+  private static final long MAX_IDLE_WAIT_MILLIS = 50; // Longest wait for input once the screen is idle
+  private static final int MAX_PANEL_TIMERS = 9; // Running timers shown at the top, one per number key
+  private static final TextCharacter RUNNING_HEADER_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.GREEN);
+  private static final TextCharacter BLANK_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.DEFAULT);
+  private static final TextCharacter FOOTER_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.WHITE);
 
   private final TreeMap<Integer, TimerEntryListRow> listRows = new TreeMap<>();
   private final TimerEntryService timerEntryService;
+  private final RunningTimerService runningTimerService;
+  private final ReportService reportService;
+
+  private final BlockingQueue<Consumer<Screen>> pendingUiTasks = new LinkedBlockingQueue<>();
+  private final TimerEntryListPages timerEntryListPages;
+  private final TickScheduler tickScheduler = new TickScheduler();
+  private TickScheduler.Subscription runningTimersTick;
+
+  private TextGraphics textGraphics; // Reused for every draw to avoid allocations
+  private String statusMessage;
+  private int nextListRow;
 
   private TerminalPosition cursorPosition;
   private int scrolledRows;
+  private int listTop; // First screen row of the list, the running timers are drawn above it
 
-  public TimerEntryListScreen(TimerEntryService timerEntryService) {
+  public TimerEntryListScreen(TimerEntryService timerEntryService, RunningTimerService runningTimerService,
+      ReportService reportService) {
     this.timerEntryService = timerEntryService;
+    this.runningTimerService = runningTimerService;
+    this.reportService = reportService;
+    this.timerEntryListPages = new TimerEntryListPages(timerEntryService, task -> pendingUiTasks.add(screen -> {
+      task.run();
+      displayTimeEntries(screen);
+    }));
   }
 
   public void open(DefaultTerminalFactory terminalFactory) {
     try {
-      Screen screen = terminalFactory.createScreen();
+      TerminalScreen screen = terminalFactory.createScreen();
+      screen.getTerminal().addResizeListener((terminal, newSize) -> pendingUiTasks.add(this::handleResize));
       screen.startScreen();
+      attach(screen);
 
+      resolveRecoveredTimers(screen);
       displayTimeEntries(screen);
+      boolean dirty = true;
+      long idleWaitMillis = MIN_IDLE_WAIT_MILLIS;
       while (true) {
-        TerminalSize newTerminalSize = screen.doResizeIfNecessary();
-        if (newTerminalSize != null) {
-          screen.clear();
-          displayTimeEntries(screen);
+        dirty |= runPendingUiTasks(screen);
+        if (dirty) {
+          screen.refresh();
+          dirty = false;
         }
-        screen.refresh();
 
         KeyStroke keyStroke = screen.pollInput();
         if (keyStroke == null) {
+          // Sleep until a background task arrives or it's time to check for input again
+          dirty = waitForUiTask(screen, idleWaitMillis);
+          idleWaitMillis = Math.min(idleWaitMillis * 2, MAX_IDLE_WAIT_MILLIS);
           continue;
         }
+        idleWaitMillis = MIN_IDLE_WAIT_MILLIS;
+        dirty = true;
+        clearStatusMessage(screen);
         KeyType keyType = keyStroke.getKeyType();
         if (keyType == KeyType.Escape) {
           break;
@@ -70,27 +121,412 @@ public class TimerEntryListScreen {
           continueTimerEntry(screen);
           continue;
         }
+        if (keyType == KeyType.Character && Character.toLowerCase(keyStroke.getCharacter()) == 'r' &&
+            !keyStroke.isCtrlDown()) {
+          openReport(screen);
+          continue;
+        }
+        if (keyType == KeyType.Character && keyStroke.getCharacter() == '/') {
+          openSearch(screen);
+          continue;
+        }
+        if (keyType == KeyType.Character && keyStroke.getCharacter() >= '1' && keyStroke.getCharacter() <= '9') {
+          stopRunningTimer(screen, keyStroke.getCharacter() - '1');
+          continue;
+        }
         handleCursorMovement(screen, keyStroke);
       }
     } catch (Exception e) {
       e.printStackTrace();
+    } finally {
+      detach();
     }
   }
 
-  private void displayTimeEntries(Screen screen) {
-    listRows.clear();
+  /**
+   * Prepares the list to be drawn on the passed started screen and loads the
+   * newest page.
+   *
+   * @param screen Screen the list is drawn on.
+   */
+  void attach(Screen screen) {
+    textGraphics = screen.newTextGraphics();
+    timerEntryListPages.loadFirstPage();
+  }
 
+  /**
+   * Rebuilds the list rows and draws them without waiting for input. Lets
+   * the rendering be measured against a virtual terminal.
+   *
+   * @param screen Screen passed to {@link #attach(Screen)}.
+   */
+  void render(Screen screen) {
+    displayTimeEntries(screen);
+  }
+
+  /**
+   * Stops the background page loads and the ticker.
+   */
+  void detach() {
+    timerEntryListPages.close();
+    tickScheduler.close();
+  }
+
+  /**
+   * Adds the passed TimerEntry to the in-memory model right away and queues
+   * it to be saved. If saving fails, the TimerEntry is taken out of the model
+   * again and the error is shown in the footer.
+   *
+   * @param timerEntry TimerEntry to save.
+   * @return Future completed once the TimerEntry is stored.
+   */
+  private CompletableFuture<Void> saveTimerEntry(TimerEntry timerEntry) {
+    addToModel(timerEntry);
+    final CompletableFuture<Void> saveFuture = timerEntryService.save(timerEntry);
+    saveFuture.whenComplete((ignored, throwable) -> {
+      if (throwable == null) {
+        return;
+      }
+      pendingUiTasks.add(screen -> handleSaveFailure(screen, timerEntry, throwable));
+    });
+    return saveFuture;
+  }
+
+  private void handleSaveFailure(Screen screen, TimerEntry timerEntry, Throwable throwable) {
+    removeFromModel(timerEntry);
+    final Throwable cause = throwable.getCause() == null ? throwable : throwable.getCause();
+    statusMessage = String.format("Couldn't save %s: %s", timerEntry.createProjectTaskString(), cause.getMessage());
+    displayTimeEntries(screen);
+  }
+
+  /**
+   * Adds a TimerEntry to the in-memory model.
+   *
+   * @param timerEntry TimerEntry to add.
+   */
+  private void addToModel(TimerEntry timerEntry) {
+    timerEntryListPages.addTimerEntry(timerEntry);
+  }
+
+  /**
+   * Removes a TimerEntry from the in-memory model.
+   *
+   * @param timerEntry TimerEntry to remove.
+   */
+  private void removeFromModel(TimerEntry timerEntry) {
+    timerEntryListPages.removeTimerEntry(timerEntry);
+  }
+
+  /**
+   * Runs the tasks queued by background threads. They are always run on the
+   * thread that owns the screen.
+   */
+  private boolean runPendingUiTasks(Screen screen) {
+    boolean ranTask = false;
+    Consumer<Screen> pendingUiTask;
+    while ((pendingUiTask = pendingUiTasks.poll()) != null) {
+      pendingUiTask.accept(screen);
+      ranTask = true;
+    }
+    return ranTask;
+  }
+
+  /**
+   * Blocks until a UI task is queued or the passed time runs out. Lanterna
+   * can't wait for input with a timeout, so this is what keeps the loop from
+   * spinning while still picking up keystrokes shortly after they arrive.
+   *
+   * @param timeoutMillis Maximum time to wait.
+   * @return True if a task was run and the screen needs a refresh.
+   */
+  private boolean waitForUiTask(Screen screen, long timeoutMillis) {
+    try {
+      final Consumer<Screen> pendingUiTask = pendingUiTasks.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+      if (pendingUiTask == null) {
+        return false;
+      }
+      pendingUiTask.accept(screen);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Applies a terminal resize reported by the resize listener and redraws the
+   * screen with the new size.
+   */
+  private void handleResize(Screen screen) {
+    if (screen.doResizeIfNecessary() == null) {
+      return;
+    }
+    textGraphics = screen.newTextGraphics();
+    displayTimeEntries(screen);
+  }
+
+  /**
+   * Rebuilds the list rows from the in-memory model and redraws the screen.
+   * Only needed when the model or the terminal size changes.
+   */
+  private void displayTimeEntries(Screen screen) {
+    updateRunningTimersPanel(screen);
     computeTimerEntryLines(screen);
-    drawTimerEntryLines(screen);
+    drawScreen(screen);
+    requestPagesNearCursor(screen);
+  }
+
+  /**
+   * Loads the pages around the cursor that aren't loaded yet and evicts the
+   * ones far away from the screen.
+   */
+  private void requestPagesNearCursor(Screen screen) {
+    final int cursorListRow = getCursorRow(screen) + scrolledRows;
+    timerEntryListPages.requestPages(cursorListRow - PREFETCH_ROWS, cursorListRow + PREFETCH_ROWS);
+
+    final int lastVisibleRow = scrolledRows + getListHeight(screen);
+    for (ListPage evictedPage : timerEntryListPages.evictPagesOutside(
+        scrolledRows - EVICTION_ROWS,
+        lastVisibleRow + EVICTION_ROWS)) {
+      listRows.subMap(evictedPage.getFirstRow(), true, evictedPage.getLastRow(), true).clear();
+    }
+  }
+
+  private void drawScreen(Screen screen) {
+    screen.clear();
+    drawRunningTimers(screen);
+    drawTimerEntryLines(0, getListHeight(screen) - 1);
     drawFooter(screen);
   }
 
+  /**
+   * Returns the amount of rows available to the list, which is every row
+   * except the running timers and the footer.
+   *
+   * @return Height of the list.
+   */
+  private int getListHeight(Screen screen) {
+    return screen.getTerminalSize().getRows() - 1 - listTop;
+  }
+
+  /**
+   * Returns the row of the cursor within the list.
+   *
+   * @return Cursor row relative to the top of the list.
+   */
+  private int getCursorRow(Screen screen) {
+    return screen.getCursorPosition().getRow() - listTop;
+  }
+
+  private void setCursorRow(Screen screen, int row) {
+    screen.setCursorPosition(screen.getCursorPosition().withRow(row + listTop));
+  }
+
+  /**
+   * Resizes the running timers panel to fit the timers that are running and
+   * moves the cursor along with the list. Ticks are only received while
+   * there's at least one running timer.
+   */
+  private void updateRunningTimersPanel(Screen screen) {
+    final int runningTimerCount = runningTimerService.getRunningTimers().size();
+    final int newListTop = runningTimerCount == 0 ? 0 : Math.min(runningTimerCount, MAX_PANEL_TIMERS) + 1;
+    if (newListTop != listTop) {
+      final int cursorRow = getCursorRow(screen);
+      listTop = newListTop;
+      final int lastCursorRow = Math.max(getListHeight(screen) - 1, 0);
+      if (cursorRow > lastCursorRow) {
+        scrolledRows += cursorRow - lastCursorRow;
+      }
+      setCursorRow(screen, Math.min(Math.max(cursorRow, 0), lastCursorRow));
+    }
+
+    if (runningTimerCount > 0 && runningTimersTick == null) {
+      runningTimersTick = tickScheduler.subscribe(
+          task -> pendingUiTasks.add(ignored -> task.run()),
+          () -> drawRunningTimers(screen));
+    } else if (runningTimerCount == 0 && runningTimersTick != null) {
+      runningTimersTick.cancel();
+      runningTimersTick = null;
+    }
+  }
+
+  /**
+   * Draws the running timers panel above the list.
+   */
+  private void drawRunningTimers(Screen screen) {
+    if (listTop == 0) {
+      return;
+    }
+    final int columns = screen.getTerminalSize().getColumns();
+    final List<RunningTimer> runningTimers = runningTimerService.getRunningTimers();
+    textGraphics.drawLine(0, 0, columns, 0, RUNNING_HEADER_CHARACTER);
+    String headerText = "Running";
+    if (runningTimers.size() > MAX_PANEL_TIMERS) {
+      headerText += String.format(" (+%d more)", runningTimers.size() - MAX_PANEL_TIMERS);
+    }
+    textGraphics
+        .setBackgroundColor(TextColor.ANSI.GREEN)
+        .setForegroundColor(TextColor.ANSI.BLACK)
+        .putString(0, 0, headerText);
+
+    for (int index = 0; index < runningTimers.size() && index < MAX_PANEL_TIMERS; index++) {
+      final RunningTimer runningTimer = runningTimers.get(index);
+      final int row = index + 1;
+      textGraphics.drawLine(0, row, columns, row, BLANK_CHARACTER);
+
+      String projectTaskString = runningTimer.getProjectName() == null ? "(No project)"
+          : runningTimer.createProjectTaskString();
+      if (runningTimer.getDescription() != null && !runningTimer.getDescription().isEmpty()) {
+        projectTaskString += "  " + runningTimer.getDescription();
+      }
+      final String elapsedTimeString = TimeFormatUtil.formatMillisecondsToHHMMSS(
+          runningTimer.computeElapsedTimeMillis());
+      textGraphics
+          .setBackgroundColor(TextColor.ANSI.DEFAULT)
+          .setForegroundColor(TextColor.ANSI.DEFAULT)
+          .putString(0, row, String.format("[%d] %s", row, projectTaskString));
+      textGraphics
+          .setForegroundColor(TextColor.ANSI.GREEN)
+          .putString(columns - elapsedTimeString.length(), row, elapsedTimeString);
+    }
+  }
+
+  /**
+   * Stops the running timer shown at the passed index of the panel and saves
+   * its TimerEntry.
+   *
+   * @param index Index of the running timer.
+   */
+  private void stopRunningTimer(Screen screen, int index) {
+    final List<RunningTimer> runningTimers = runningTimerService.getRunningTimers();
+    if (index >= runningTimers.size() || index >= MAX_PANEL_TIMERS) {
+      return;
+    }
+    final RunningTimer runningTimer = runningTimers.get(index);
+    final TimerEntry timerEntry = runningTimerService.stop(runningTimer);
+    if (timerEntry == null) {
+      return;
+    }
+    saveStoppedTimer(runningTimer, timerEntry);
+    displayTimeEntries(screen);
+  }
+
+  /**
+   * Saves the TimerEntry of a stopped RunningTimer and removes the timer from
+   * the journal once it's stored. Timers without a project have nothing to
+   * save. If saving fails the timer stays journaled as stopped.
+   *
+   * @param runningTimer Stopped RunningTimer.
+   * @param timerEntry   TimerEntry of the RunningTimer.
+   */
+  private void saveStoppedTimer(RunningTimer runningTimer, TimerEntry timerEntry) {
+    if (timerEntry.getProjectName() == null) {
+      runningTimerService.removeFromJournal(runningTimer);
+      return;
+    }
+    saveTimerEntry(timerEntry).thenRun(() -> runningTimerService.removeFromJournal(runningTimer));
+  }
+
+  /**
+   * Handles the timers left in the journal by the last session. The ones
+   * that were stopped only had their TimerEntry left to save, so it's saved
+   * again. For each one that was still running, the user chooses between
+   * resuming it and saving it ending at the last time it was seen running,
+   * since the time Tempus was closed may not have been worked.
+   */
+  private void resolveRecoveredTimers(Screen screen) {
+    final List<RunningTimer> recoveredTimers = runningTimerService.recover();
+    if (recoveredTimers.isEmpty()) {
+      return;
+    }
+    final MultiWindowTextGUI textGUI = new MultiWindowTextGUI(screen);
+    int savedTimerCount = 0;
+    for (RunningTimer runningTimer : recoveredTimers) {
+      if (runningTimer.getStopTimeMillis() != null) {
+        saveStoppedTimer(runningTimer, runningTimer.toTimerEntry(runningTimer.getStopTimeMillis()));
+        savedTimerCount++;
+        continue;
+      }
+      // Timers journaled before last seen times were recorded can only end now
+      final long stopTimeMillis = runningTimer.getLastSeenMillis() == null ? System.currentTimeMillis()
+          : runningTimer.getLastSeenMillis();
+      final String projectTaskString = runningTimer.getProjectName() == null ? "(No project)"
+          : runningTimer.createProjectTaskString();
+      new ActionListDialogBuilder()
+          .setTitle("Timer left running")
+          .setDescription(String.format("%s\nStarted %s, last seen running %s", projectTaskString,
+              formatDateTime(runningTimer.getStartTimeMillis()),
+              runningTimer.getLastSeenMillis() == null ? "(unknown)" : formatDateTime(stopTimeMillis)))
+          .setCanCancel(false)
+          .addAction("Resume", () -> runningTimerService.resume(runningTimer))
+          .addAction("Stop and save ending at " + formatDateTime(stopTimeMillis), () -> saveStoppedTimer(
+              runningTimer, runningTimerService.stopRecovered(runningTimer, stopTimeMillis)))
+          .build()
+          .showDialog(textGUI);
+      if (runningTimer.getStopTimeMillis() != null) {
+        savedTimerCount++;
+      }
+    }
+    final int resumedTimerCount = recoveredTimers.size() - savedTimerCount;
+    statusMessage = String.format("Saved %d and resumed %d timer(s) left by the last session.", savedTimerCount,
+        resumedTimerCount);
+    if (resumedTimerCount > 0) {
+      statusMessage += " 1-9: Stop and save";
+    }
+  }
+
+  private String formatDateTime(long epochMillis) {
+    final DayBucketer dayBucketer = timerEntryService.getDayBucketer();
+    return dayBucketer.getDate(epochMillis) + " " + TimeFormatUtil.formatHHMM(dayBucketer.getMinuteOfDay(epochMillis));
+  }
+
+  /**
+   * Builds the rows of the loaded pages. Evicted pages keep their rows
+   * reserved so row numbers don't change when they're loaded again. If the
+   * row count of a page above the screen changed, the screen is scrolled by
+   * the difference so the visible rows stay in place.
+   */
   private void computeTimerEntryLines(Screen screen) {
-    Map<LocalDate, DailyTimerEntries> timerEntries = timerEntryService.fetchAllDaily();
-    for (DailyTimerEntries dailyTimerEntries : timerEntries.values()) {
-      addDaySeparator(screen, dailyTimerEntries);
-      addTimerEntries(screen, dailyTimerEntries);
+    listRows.clear();
+    nextListRow = 0;
+    for (ListPage listPage : timerEntryListPages.getPages()) {
+      final int firstRow = nextListRow;
+      final int previousRowCount = listPage.getRowCount();
+      listPage.setFirstRow(firstRow);
+      if (!listPage.isLoaded()) {
+        nextListRow += previousRowCount;
+        continue;
+      }
+      for (DailyTimerEntries dailyTimerEntries : listPage.getDailyTimerEntries().values()) {
+        addDaySeparator(screen, dailyTimerEntries);
+        addTimerEntries(screen, dailyTimerEntries);
+      }
+      final int rowCount = nextListRow - firstRow;
+      if (previousRowCount > 0 && firstRow + previousRowCount <= scrolledRows) {
+        scrolledRows += rowCount - previousRowCount;
+      }
+      listPage.setRowCount(rowCount);
+    }
+    clampCursorToLastRow(screen);
+  }
+
+  /**
+   * Moves the cursor up to the last list row if it's below it, such as after
+   * a TimerEntry that couldn't be saved is taken out of the list. The list is
+   * scrolled if that row is above the screen.
+   */
+  private void clampCursorToLastRow(Screen screen) {
+    if (listRows.isEmpty()) {
+      return;
+    }
+    final int lastListRow = listRows.lastKey();
+    if (getCursorRow(screen) + scrolledRows <= lastListRow) {
+      return;
+    }
+    if (lastListRow < scrolledRows) {
+      scrolledRows = Math.max(0, lastListRow - getListHeight(screen) + 1);
     }
+    setCursorRow(screen, lastListRow - scrolledRows);
   }
 
   private void addDaySeparator(Screen screen, DailyTimerEntries dailyTimerEntries) {
@@ -145,12 +581,7 @@ public class TimerEntryListScreen {
           .setBackgroundColor(backgroundColor)
           .setForegroundColor(foregroundColor);
 
-      final TimerEntry firstTimerEntry = entrySet.getValue().get(0);
-      final boolean matchTask = true;
-      final long dailyElapsedTimeMillis = timerEntryService.computeDailyElapsedTimeMillis(
-          firstTimerEntry,
-          dailyTimerEntries.getDate(),
-          matchTask);
+      final long dailyElapsedTimeMillis = dailyTimerEntries.computeElapsedTimeMillis(projectTaskName);
       final String dailyElapsedTimeString = TimeFormatUtil.formatMillisecondsToHHMMSS(dailyElapsedTimeMillis);
 
       timerEntryListRow.addTerminalText()
@@ -169,14 +600,13 @@ public class TimerEntryListScreen {
 
   private void addTimerEntry(Screen screen, TimerEntry timerEntry) {
     final long durationMillis = timerEntry.getDurationMillis();
-    final LocalDateTime startDateTime = timerEntry.getStartDateTime();
-    final LocalDateTime stopDateTime = startDateTime.plus(durationMillis, ChronoUnit.MILLIS);
+    final DayBucketer dayBucketer = timerEntryService.getDayBucketer();
+    final long startTimeMillis = timerEntry.getStartTimeMillis();
 
     final String descriptionString = timerEntry.getDescription();
     final String billableString = "$";
-    final String timestampsString = String.format("%s - %s",
-        startDateTime.format(HOUR_MINUTE_FORMATTER),
-        stopDateTime.format(HOUR_MINUTE_FORMATTER));
+    final String timestampsString = TimeFormatUtil.formatHHMM(dayBucketer.getMinuteOfDay(startTimeMillis)) + " - " +
+        TimeFormatUtil.formatHHMM(dayBucketer.getMinuteOfDay(startTimeMillis + durationMillis));
     final String timeElapsedString = TimeFormatUtil.formatMillisecondsToHHMMSS(durationMillis);
 
     final int listRow = getNextListRow();
@@ -207,56 +637,88 @@ public class TimerEntryListScreen {
     saveListRow(timerEntryListRow);
   }
 
-  private void drawTimerEntryLines(Screen screen) {
-    final TerminalSize terminalSize = screen.getTerminalSize();
-    for (int row = 0; row < terminalSize.getRows(); row++) {
+  /**
+   * Draws the list rows shown within the passed range of screen rows.
+   *
+   * @param firstRow First screen row to draw.
+   * @param lastRow  Last screen row to draw.
+   */
+  private void drawTimerEntryLines(int firstRow, int lastRow) {
+    for (int row = firstRow; row <= lastRow; row++) {
       final TimerEntryListRow timerEntryListRow = listRows.get(row + scrolledRows);
       if (timerEntryListRow == null) {
         continue;
       }
-      timerEntryListRow.draw(screen, row);
+      timerEntryListRow.draw(textGraphics, row + listTop);
     }
   }
 
   private void drawFooter(Screen screen) {
-    final TerminalSize terminalSize = screen.getTerminalSize();
-    final int height = terminalSize.getRows() - 1;
-    final int width = terminalSize.getColumns();
+    final int height = screen.getTerminalSize().getRows() - 1;
+    final int width = screen.getTerminalSize().getColumns();
+    textGraphics.drawLine(0, height, width, height, FOOTER_CHARACTER);
 
-    final TerminalPosition from = new TerminalPosition(0, height);
-    final TerminalPosition to = new TerminalPosition(width, height);
-    final TextColor backgroundColor = TextColor.ANSI.WHITE;
-    final TextColor foregroundColor = TextColor.ANSI.BLACK;
-    screen.newTextGraphics().drawLine(
-        from,
-        to,
-        TextCharacter.DEFAULT_CHARACTER
-            .withCharacter(' ')
-            .withBackgroundColor(backgroundColor));
-
-    final String text = "N: New Timer  Space/Enter: Continue Timer  Ctrl + N/P: Nagivate Projects";
-    screen.newTextGraphics()
-        .setBackgroundColor(backgroundColor)
-        .setForegroundColor(foregroundColor)
-        .putString(from, text);
+    if (statusMessage != null) {
+      textGraphics
+          .setBackgroundColor(TextColor.ANSI.RED)
+          .setForegroundColor(TextColor.ANSI.WHITE)
+          .putString(0, height, statusMessage);
+      return;
+    }
+    final String text = "N: New Timer  Space/Enter: Continue Timer  1-9: Stop Running Timer  R: Reports  /: Search  Ctrl + N/P: Nagivate Projects";
+    textGraphics
+        .setBackgroundColor(TextColor.ANSI.WHITE)
+        .setForegroundColor(TextColor.ANSI.BLACK)
+        .putString(0, height, text);
+  }
+
+  private void clearStatusMessage(Screen screen) {
+    if (statusMessage == null) {
+      return;
+    }
+    statusMessage = null;
+    drawFooter(screen);
   }
 
   private void createTimerEntry(Screen screen) {
     storeCursorPosition(screen);
-    new TimeTrackerScreen().open(screen);
-    displayTimeEntries(screen);
+    new TimeTrackerScreen(timerEntryService, runningTimerService, tickScheduler, this::saveTimerEntry).open(screen);
     restoreCursorPosition(screen);
+    displayTimeEntries(screen);
   }
 
   private void continueTimerEntry(Screen screen) {
-    final TimerEntry timerEntry = getRowTimerEntry(screen.getCursorPosition().getRow());
+    final TimerEntry timerEntry = getRowTimerEntry(getCursorRow(screen));
     if (timerEntry == null) {
       return;
     }
     storeCursorPosition(screen);
-    new TimeTrackerScreen(timerEntry).open(screen);
+    new TimeTrackerScreen(timerEntryService, runningTimerService, tickScheduler, timerEntry, this::saveTimerEntry)
+        .open(screen);
+    restoreCursorPosition(screen);
     displayTimeEntries(screen);
+  }
+
+  private void openReport(Screen screen) {
+    storeCursorPosition(screen);
+    new ReportScreen(reportService).open(screen);
+    restoreCursorPosition(screen);
+    displayTimeEntries(screen);
+  }
+
+  /**
+   * Opens the search. The TimerEntry selected in it, if any, is continued
+   * like the one under the cursor.
+   */
+  private void openSearch(Screen screen) {
+    storeCursorPosition(screen);
+    final TimerEntry timerEntry = new SearchScreen(timerEntryService).open(screen);
+    if (timerEntry != null) {
+      new TimeTrackerScreen(timerEntryService, runningTimerService, tickScheduler, timerEntry, this::saveTimerEntry)
+          .open(screen);
+    }
     restoreCursorPosition(screen);
+    displayTimeEntries(screen);
   }
 
   private void handleCursorMovement(Screen screen, KeyStroke keyStroke) {
@@ -291,53 +753,74 @@ public class TimerEntryListScreen {
 
       }
     }
+    requestPagesNearCursor(screen);
   }
 
   private void moveCursorUp(Screen screen) {
-    final TerminalPosition cursorPosition = screen.getCursorPosition();
-    final int cursorRow = cursorPosition.getRow();
-    if (cursorRow + scrolledRows == listRows.firstKey()) {
+    final int cursorRow = getCursorRow(screen);
+    if (listRows.isEmpty() || cursorRow + scrolledRows <= listRows.firstKey()) {
       return;
     }
     if (cursorRow > 0) {
-      screen.setCursorPosition(screen.getCursorPosition().withRelativeRow(-1));
-      handleCursorHighlight(screen, cursorPosition.getRow());
+      setCursorRow(screen, cursorRow - 1);
+      handleCursorHighlight(screen, cursorRow);
       return;
     }
     final int scrolledRows = -1;
     scrollScreen(screen, scrolledRows);
-    handleCursorHighlight(screen, cursorPosition.getRow());
+    handleCursorHighlight(screen, cursorRow);
   }
 
   private void moveCursorDown(Screen screen) {
-    final TerminalPosition cursorPosition = screen.getCursorPosition();
-    final int cursorRow = cursorPosition.getRow();
-    if (cursorRow + scrolledRows == listRows.lastKey()) {
+    final int cursorRow = getCursorRow(screen);
+    if (listRows.isEmpty() || cursorRow + scrolledRows >= listRows.lastKey()) {
       return;
     }
-    final int listHeight = screen.getTerminalSize().getRows() - 2; // Account for footer and index 0
-    if (cursorRow < listHeight) {
-      screen.setCursorPosition(cursorPosition.withRelativeRow(1));
-      handleCursorHighlight(screen, cursorPosition.getRow());
+    final int lastCursorRow = getListHeight(screen) - 1;
+    if (cursorRow < lastCursorRow) {
+      setCursorRow(screen, cursorRow + 1);
+      handleCursorHighlight(screen, cursorRow);
       return;
     }
     final int scrolledRows = 1;
     scrollScreen(screen, scrolledRows);
-    handleCursorHighlight(screen, cursorPosition.getRow());
+    handleCursorHighlight(screen, cursorRow);
   }
 
   private void handleCursorHighlight(Screen screen, int previousRow) {
-    final int adjustedPreviousRow = previousRow + scrolledRows;
-    listRows.get(adjustedPreviousRow).draw(screen, previousRow);
+    // Rows of pages that aren't loaded are missing
+    final TimerEntryListRow previousListRow = listRows.get(previousRow + scrolledRows);
+    if (previousListRow != null) {
+      previousListRow.draw(textGraphics, previousRow + listTop);
+    }
 
-    final int currentRow = screen.getCursorPosition().getRow();
-    listRows.get(currentRow + scrolledRows).drawHighlighted(screen, currentRow);
+    final int currentRow = getCursorRow(screen);
+    final TimerEntryListRow currentListRow = listRows.get(currentRow + scrolledRows);
+    if (currentListRow != null) {
+      currentListRow.drawHighlighted(textGraphics, currentRow + listTop);
+    }
   }
 
+  /**
+   * Scrolls the list by the passed amount of rows. The rows still visible are
+   * shifted within the screen buffer, so only the newly exposed rows are
+   * drawn and the terminal can scroll them instead of repainting the list.
+   *
+   * @param rows Rows to scroll, positive to scroll down.
+   */
   private void scrollScreen(Screen screen, int rows) {
     scrolledRows += rows;
-    screen.clear();
-    displayTimeEntries(screen);
+    final int listHeight = getListHeight(screen);
+    if (Math.abs(rows) >= listHeight) {
+      drawScreen(screen);
+      return;
+    }
+    screen.scrollLines(listTop, listTop + listHeight - 1, rows);
+    if (rows > 0) {
+      drawTimerEntryLines(listHeight - rows, listHeight - 1);
+    } else {
+      drawTimerEntryLines(0, -rows - 1);
+    }
   }
 
   private void navigateToNextProject(Screen screen, KeyStroke keyStroke) {
@@ -345,7 +828,7 @@ public class TimerEntryListScreen {
       return;
     }
     final int iterationIncrement = keyStroke.getCharacter() == 'n' ? 1 : -1;
-    int cursorRow = screen.getCursorPosition().getRow() + iterationIncrement;
+    int cursorRow = getCursorRow(screen) + iterationIncrement;
     boolean foundProjectLine = false;
     while (true) {
       TimerEntryListRow timerEntryListRow = listRows.get(cursorRow + scrolledRows);
@@ -362,32 +845,26 @@ public class TimerEntryListScreen {
     if (!foundProjectLine) {
       return;
     }
-    final TerminalSize terminalSize = screen.getTerminalSize();
-    final int screenRows = terminalSize.getRows() - 1; // -1 to account for the footer
+    final int screenRows = getListHeight(screen);
     if (cursorRow < 0) {
       // Found project is above the current top row
       scrollScreen(screen, cursorRow);
     } else if (cursorRow >= screenRows) {
       // Found project is below the current bottom row
-      scrollScreen(screen, cursorRow - screenRows + 1); // +1 to account for the footer
-      cursorRow = screenRows - 1; // -1 to account for the footer
+      scrollScreen(screen, cursorRow - screenRows + 1);
+      cursorRow = screenRows - 1;
     }
-    final int originalCursorRow = screen.getCursorPosition().getRow();
-    screen.setCursorPosition(new TerminalPosition(
-        screen.getCursorPosition().getColumn(),
-        cursorRow));
+    final int originalCursorRow = getCursorRow(screen);
+    setCursorRow(screen, cursorRow);
     handleCursorHighlight(screen, originalCursorRow);
   }
 
   private int getNextListRow() {
-    if (listRows.isEmpty()) {
-      return 0;
-    }
-    return listRows.lastKey() + 1;
+    return nextListRow;
   }
 
   private void saveListRow(TimerEntryListRow timerEntryListLine) {
-    listRows.put(getNextListRow(), timerEntryListLine);
+    listRows.put(nextListRow++, timerEntryListLine);
   }
 
   private TimerEntry getRowTimerEntry(int row) {
@@ -411,6 +888,14 @@ public class TimerEntryListScreen {
 }
 
 class TimerEntryListRow {
+  private static final TextCharacter BLANK_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.DEFAULT);
+  private static final TextCharacter HIGHLIGHT_CHARACTER = TextCharacter.DEFAULT_CHARACTER
+      .withCharacter(' ')
+      .withBackgroundColor(TextColor.ANSI.BLUE)
+      .withForegroundColor(TextColor.ANSI.BLUE);
+
   private final int row;
   private final TimerEntry timerEntry;
   private final List<TerminalLine> terminalLines;
@@ -425,52 +910,34 @@ class TimerEntryListRow {
     this.isProjectRow = isProjectRow;
   }
 
-  public void draw(Screen screen, int row) {
-    final TextGraphics textGraphics = screen.newTextGraphics();
-    textGraphics.drawLine(
-        new TerminalPosition(0, row),
-        new TerminalPosition(screen.getTerminalSize().getColumns(), row),
-        TextCharacter.DEFAULT_CHARACTER
-            .withCharacter(' ')
-            .withBackgroundColor(TextColor.ANSI.DEFAULT));
+  public void draw(TextGraphics textGraphics, int row) {
+    final int columns = textGraphics.getSize().getColumns();
+    textGraphics.drawLine(0, row, columns, row, BLANK_CHARACTER);
 
     for (TerminalLine terminalLine : terminalLines) {
       textGraphics.drawLine(
-          terminalLine.getFrom().withRow(row),
-          terminalLine.getTo().withRow(row),
-          TextCharacter.DEFAULT_CHARACTER
-              .withCharacter(' ')
-              .withBackgroundColor(terminalLine.getBackgroundColor())
-              .withForegroundColor(terminalLine.getForegroundColor()));
+          terminalLine.getFrom().getColumn(),
+          row,
+          terminalLine.getTo().getColumn(),
+          row,
+          terminalLine.getTextCharacter());
     }
     for (TerminalText terminalText : terminalTexts) {
       textGraphics
           .setBackgroundColor(terminalText.getBackgroundColor())
           .setForegroundColor(terminalText.getForegroundColor())
-          .putString(
-              terminalText.computeTerminalPosition(row),
-              terminalText.getText());
-    }
-  }
-
-  public void drawHighlighted(Screen screen, int row) {
-    final TextGraphics textGraphics = screen.newTextGraphics();
-    final TextColor backgroundColor = TextColor.ANSI.BLUE;
-    final TextColor foregroundColor = TextColor.ANSI.BLUE;
-    final TerminalPosition cursorPosition = screen.getCursorPosition();
-    textGraphics.drawLine(
-        cursorPosition.withColumn(0),
-        cursorPosition.withColumn(screen.getTerminalSize().getColumns()),
-        TextCharacter.DEFAULT_CHARACTER
-            .withCharacter(' ')
-            .withBackgroundColor(backgroundColor)
-            .withForegroundColor(foregroundColor));
+          .putString(terminalText.getColumn(), row, terminalText.getText());
+    }
+  }
+
+  public void drawHighlighted(TextGraphics textGraphics, int row) {
+    final int columns = textGraphics.getSize().getColumns();
+    textGraphics.drawLine(0, row, columns, row, HIGHLIGHT_CHARACTER);
     for (TerminalText terminalText : terminalTexts) {
       textGraphics
-          .setBackgroundColor(backgroundColor)
-          .putString(
-              terminalText.computeTerminalPosition(row),
-              terminalText.getText());
+          .setBackgroundColor(TextColor.ANSI.BLUE)
+          .setForegroundColor(TextColor.ANSI.DEFAULT)
+          .putString(terminalText.getColumn(), row, terminalText.getText());
     }
   }
 
@@ -515,6 +982,22 @@ class TerminalLine {
   private TextColor backgroundColor;
   private TextColor foregroundColor;
   private Character character;
+  private TextCharacter textCharacter; // Built on first draw and reused afterwards
+
+  /**
+   * Returns the TextCharacter the line is drawn with.
+   *
+   * @return TextCharacter of the line.
+   */
+  public TextCharacter getTextCharacter() {
+    if (textCharacter == null) {
+      textCharacter = TextCharacter.DEFAULT_CHARACTER
+          .withCharacter(' ')
+          .withBackgroundColor(backgroundColor)
+          .withForegroundColor(foregroundColor);
+    }
+    return textCharacter;
+  }
 
   public TerminalPosition getFrom() {
     return from;
@@ -542,6 +1025,7 @@ class TerminalLine {
 
   public TerminalLine setBackgroundColor(TextColor backgroundColor) {
     this.backgroundColor = backgroundColor;
+    this.textCharacter = null;
 
     return this;
   }
@@ -552,6 +1036,7 @@ class TerminalLine {
 
   public TerminalLine setForegroundColor(TextColor foregroundColor) {
     this.foregroundColor = foregroundColor;
+    this.textCharacter = null;
 
     return this;
   }
@@ -0,0 +1,110 @@
+package me.eeshe.tempus.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader. Only one record is held in memory at a time,
+ * so arbitrarily large files can be read. Quoted fields may contain commas,
+ * escaped quotes ("") and line breaks.
+ */
+public class CsvReader implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Reader reader;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private final StringBuilder field = new StringBuilder();
+  private int bufferPosition;
+  private int bufferLength;
+  private long recordNumber;
+
+  public CsvReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Reads the next record of the file.
+   *
+   * @return Fields of the record, or null if the end of the file was reached.
+   * @throws IOException If the file couldn't be read.
+   */
+  public List<String> readRecord() throws IOException {
+    int character = read();
+    if (character == -1) {
+      return null;
+    }
+    List<String> record = new ArrayList<>();
+    boolean quoted = false;
+    field.setLength(0);
+    while (true) {
+      if (quoted) {
+        if (character == -1) {
+          throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+        }
+        if (character == '"') {
+          final int nextCharacter = read();
+          if (nextCharacter == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            character = nextCharacter;
+            continue;
+          }
+        } else {
+          field.append((char) character);
+        }
+      } else if (character == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (character == ',') {
+        record.add(field.toString());
+        field.setLength(0);
+      } else if (character == '\n' || character == '\r' || character == -1) {
+        if (character == '\r') {
+          skipLineFeed();
+        }
+        record.add(field.toString());
+        recordNumber++;
+        return record;
+      } else {
+        field.append((char) character);
+      }
+      character = read();
+    }
+  }
+
+  /**
+   * Returns the amount of records read so far.
+   *
+   * @return Read records.
+   */
+  public long getRecordNumber() {
+    return recordNumber;
+  }
+
+  private void skipLineFeed() throws IOException {
+    final int character = read();
+    if (character != '\n' && character != -1) {
+      bufferPosition--;
+    }
+  }
+
+  private int read() throws IOException {
+    if (bufferPosition == bufferLength) {
+      bufferLength = reader.read(buffer, 0, buffer.length);
+      bufferPosition = 0;
+      if (bufferLength <= 0) {
+        bufferLength = 0;
+        return -1;
+      }
+    }
+    return buffer[bufferPosition++];
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
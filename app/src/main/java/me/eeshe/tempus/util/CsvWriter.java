@@ -0,0 +1,73 @@
+package me.eeshe.tempus.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 CSV writer. Fields are only quoted when they contain a comma, a
+ * quote or a line break. Null fields are written as empty fields.
+ */
+public class CsvWriter implements Closeable, Flushable {
+  private final Writer writer;
+
+  public CsvWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  /**
+   * Writes the passed fields as a single record.
+   *
+   * @param fields Fields of the record.
+   * @throws IOException If the record couldn't be written.
+   */
+  public void writeRecord(String... fields) throws IOException {
+    for (int index = 0; index < fields.length; index++) {
+      if (index > 0) {
+        writer.write(',');
+      }
+      writeField(fields[index]);
+    }
+    writer.write("\r\n");
+  }
+
+  private void writeField(String field) throws IOException {
+    if (field == null || field.isEmpty()) {
+      return;
+    }
+    if (!requiresQuotes(field)) {
+      writer.write(field);
+      return;
+    }
+    writer.write('"');
+    for (int index = 0; index < field.length(); index++) {
+      final char character = field.charAt(index);
+      if (character == '"') {
+        writer.write('"');
+      }
+      writer.write(character);
+    }
+    writer.write('"');
+  }
+
+  private boolean requiresQuotes(String field) {
+    for (int index = 0; index < field.length(); index++) {
+      final char character = field.charAt(index);
+      if (character == ',' || character == '"' || character == '\n' || character == '\r') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
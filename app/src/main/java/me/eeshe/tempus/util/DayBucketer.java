@@ -0,0 +1,209 @@
+package me.eeshe.tempus.util;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups epoch milliseconds into the days of a zone. The start of every day
+ * within a range is computed once, so finding the day of a time is a binary
+ * search over them instead of a ZonedDateTime conversion. Days are found from
+ * their actual boundaries, so days shortened or lengthened by a DST
+ * transition are handled. The range grows as times outside of it are
+ * bucketed. Thread safe.
+ */
+public class DayBucketer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DayBucketer.class);
+  private static final String ZONE_PROPERTY = "tempus.zone";
+  private static final ZoneId CONFIGURED_ZONE_ID = readConfiguredZoneId();
+  private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+  private static final int MARGIN_DAYS = 31; // Extra days computed on each side when the range grows
+  private static final int MAX_DAYS = 100 * 366; // Times further apart than this are converted directly
+
+  private final ZoneId zoneId;
+  private volatile DayRange dayRange;
+
+  /**
+   * Creates a DayBucketer of the zone configured through the 'tempus.zone'
+   * system property, e.g. '-Dtempus.zone=Europe/Madrid'.
+   */
+  public DayBucketer() {
+    this(CONFIGURED_ZONE_ID);
+  }
+
+  /**
+   * Creates a DayBucketer.
+   *
+   * @param zoneId Zone the days are computed in.
+   */
+  public DayBucketer(ZoneId zoneId) {
+    this.zoneId = zoneId;
+    final LocalDate today = LocalDate.now(zoneId);
+    this.dayRange = new DayRange(zoneId, today.minusDays(MARGIN_DAYS), today.plusDays(MARGIN_DAYS));
+  }
+
+  /**
+   * Returns the zone dates are computed in: the one set in the 'tempus.zone'
+   * system property, or the default zone of the JVM if it isn't set.
+   *
+   * @return Configured zone.
+   */
+  public static ZoneId getConfiguredZoneId() {
+    return CONFIGURED_ZONE_ID;
+  }
+
+  private static ZoneId readConfiguredZoneId() {
+    final String zone = System.getProperty(ZONE_PROPERTY);
+    if (zone == null || zone.isBlank()) {
+      return ZoneId.systemDefault();
+    }
+    try {
+      return ZoneId.of(zone);
+    } catch (DateTimeException e) {
+      LOGGER.error("Invalid zone {}, using the system zone. Message: {}", zone, e.getMessage());
+      return ZoneId.systemDefault();
+    }
+  }
+
+  public ZoneId getZoneId() {
+    return zoneId;
+  }
+
+  /**
+   * Returns the date of the passed time.
+   *
+   * @param epochMillis Time in epoch milliseconds.
+   * @return Date of the time in the zone.
+   */
+  public LocalDate getDate(long epochMillis) {
+    final DayRange currentDayRange = findDayRange(epochMillis);
+    if (currentDayRange == null) {
+      return Instant.ofEpochMilli(epochMillis).atZone(zoneId).toLocalDate();
+    }
+    return currentDayRange.dates[currentDayRange.indexOf(epochMillis)];
+  }
+
+  /**
+   * Returns the start of the passed date.
+   *
+   * @param date Date to compute.
+   * @return First epoch millisecond of the date in the zone.
+   */
+  public long getStartOfDayMillis(LocalDate date) {
+    final DayRange currentDayRange = dayRange;
+    final long index = date.toEpochDay() - currentDayRange.firstDate.toEpochDay();
+    if (index >= 0 && index < currentDayRange.dates.length) {
+      return currentDayRange.dayStartMillis[(int) index];
+    }
+    return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Returns the minute of the day of the passed time, as shown by a clock of
+   * the zone.
+   *
+   * @param epochMillis Time in epoch milliseconds.
+   * @return Minute of the day, from 0 to 1439.
+   */
+  public int getMinuteOfDay(long epochMillis) {
+    final DayRange currentDayRange = findDayRange(epochMillis);
+    if (currentDayRange != null) {
+      final int index = currentDayRange.indexOf(epochMillis);
+      final long dayStartMillis = currentDayRange.dayStartMillis[index];
+      // The clock only moves with the elapsed time on days without a transition
+      if (currentDayRange.dayStartMillis[index + 1] - dayStartMillis == DAY_MILLIS) {
+        return (int) ((epochMillis - dayStartMillis) / 60_000);
+      }
+    }
+    final LocalTime localTime = Instant.ofEpochMilli(epochMillis).atZone(zoneId).toLocalTime();
+    return localTime.getHour() * 60 + localTime.getMinute();
+  }
+
+  /**
+   * Returns a DayRange that contains the passed time, growing the current
+   * one if needed.
+   *
+   * @return DayRange containing the time, or null if growing the range to it
+   *         would exceed the maximum amount of days.
+   */
+  private DayRange findDayRange(long epochMillis) {
+    DayRange currentDayRange = dayRange;
+    if (currentDayRange.contains(epochMillis)) {
+      return currentDayRange;
+    }
+    synchronized (this) {
+      currentDayRange = dayRange;
+      if (currentDayRange.contains(epochMillis)) {
+        return currentDayRange;
+      }
+      final LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zoneId).toLocalDate();
+      final LocalDate currentLastDate = currentDayRange.dates[currentDayRange.dates.length - 1];
+      final boolean before = date.isBefore(currentDayRange.firstDate);
+      final long dayCount = before
+          ? currentLastDate.toEpochDay() - date.toEpochDay() + 1
+          : date.toEpochDay() - currentDayRange.firstDate.toEpochDay() + 1;
+      if (dayCount > MAX_DAYS) {
+        return null;
+      }
+      // Grown by at least its own size, so bucketing a long history only rebuilds it a few times
+      final long margin = Math.min(MAX_DAYS - dayCount, Math.max(MARGIN_DAYS, currentDayRange.dates.length));
+      final LocalDate firstDate = before ? date.minusDays(margin) : currentDayRange.firstDate;
+      final LocalDate lastDate = before ? currentLastDate : date.plusDays(margin);
+      currentDayRange = new DayRange(zoneId, firstDate, lastDate);
+      dayRange = currentDayRange;
+      return currentDayRange;
+    }
+  }
+
+  /**
+   * Consecutive days with their start times. Never modified once created.
+   */
+  private static class DayRange {
+    private final LocalDate firstDate;
+    private final LocalDate[] dates;
+    // One more than the dates, the last one is the end of the range
+    private final long[] dayStartMillis;
+
+    private DayRange(ZoneId zoneId, LocalDate firstDate, LocalDate lastDate) {
+      final int dayCount = (int) (lastDate.toEpochDay() - firstDate.toEpochDay()) + 1;
+      this.firstDate = firstDate;
+      this.dates = new LocalDate[dayCount];
+      this.dayStartMillis = new long[dayCount + 1];
+      for (int index = 0; index <= dayCount; index++) {
+        final LocalDate date = firstDate.plusDays(index);
+        if (index < dayCount) {
+          dates[index] = date;
+        }
+        dayStartMillis[index] = date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+      }
+    }
+
+    private boolean contains(long epochMillis) {
+      return epochMillis >= dayStartMillis[0] && epochMillis < dayStartMillis[dayStartMillis.length - 1];
+    }
+
+    /**
+     * Returns the index of the day containing the passed time, which must be
+     * within the range.
+     */
+    private int indexOf(long epochMillis) {
+      int low = 0;
+      int high = dates.length - 1;
+      while (low < high) {
+        final int middle = (low + high + 1) >>> 1;
+        if (dayStartMillis[middle] <= epochMillis) {
+          low = middle;
+        } else {
+          high = middle - 1;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package me.eeshe.tempus.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to long values. Keys and values are
+ * stored in primitive arrays, so accumulating into it doesn't box or allocate
+ * per entry. Not thread safe.
+ */
+public class LongLongHashMap {
+  private static final long EMPTY_KEY = Long.MIN_VALUE; // Reserved, can't be used as a key
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+
+  public LongLongHashMap() {
+    this(64);
+  }
+
+  public LongLongHashMap(int expectedSize) {
+    final int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    this.keys = new long[capacity];
+    this.values = new long[capacity];
+    Arrays.fill(keys, EMPTY_KEY);
+  }
+
+  /**
+   * Adds the passed delta to the value of the passed key. Missing keys start
+   * at 0.
+   *
+   * @param key   Key to update. Must not be Long.MIN_VALUE.
+   * @param delta Amount to add.
+   */
+  public void addTo(long key, long delta) {
+    int index = findIndex(keys, key);
+    if (keys[index] == EMPTY_KEY) {
+      keys[index] = key;
+      if (++size > keys.length * LOAD_FACTOR) {
+        resize();
+      }
+      index = findIndex(keys, key);
+    }
+    values[index] += delta;
+  }
+
+  /**
+   * Returns the value of the passed key.
+   *
+   * @param key Key to look up.
+   * @return Value of the key, or 0 if it isn't present.
+   */
+  public long get(long key) {
+    final int index = findIndex(keys, key);
+    return keys[index] == EMPTY_KEY ? 0 : values[index];
+  }
+
+  /**
+   * Calls the passed consumer with every key and value.
+   *
+   * @param consumer Consumer of the entries.
+   */
+  public void forEach(EntryConsumer consumer) {
+    for (int index = 0; index < keys.length; index++) {
+      if (keys[index] != EMPTY_KEY) {
+        consumer.accept(keys[index], values[index]);
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes every entry, keeping the capacity so the map can be refilled
+   * without allocating.
+   */
+  public void clear() {
+    Arrays.fill(keys, EMPTY_KEY);
+    Arrays.fill(values, 0);
+    size = 0;
+  }
+
+  private void resize() {
+    final long[] oldKeys = keys;
+    final long[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new long[oldValues.length * 2];
+    Arrays.fill(keys, EMPTY_KEY);
+    for (int oldIndex = 0; oldIndex < oldKeys.length; oldIndex++) {
+      if (oldKeys[oldIndex] == EMPTY_KEY) {
+        continue;
+      }
+      final int index = findIndex(keys, oldKeys[oldIndex]);
+      keys[index] = oldKeys[oldIndex];
+      values[index] = oldValues[oldIndex];
+    }
+  }
+
+  private static int findIndex(long[] keys, long key) {
+    final int mask = keys.length - 1;
+    int index = (int) mix(key) & mask;
+    while (keys[index] != EMPTY_KEY && keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private static long mix(long key) {
+    // Spreads keys that only differ in their high bits, such as packed ones
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return hash ^ (hash >>> 32);
+  }
+
+  public interface EntryConsumer {
+    void accept(long key, long value);
+  }
+}
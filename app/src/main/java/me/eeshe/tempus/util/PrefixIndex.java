@@ -0,0 +1,105 @@
+package me.eeshe.tempus.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted index of distinct names that completes case insensitive prefixes.
+ * Names sharing a prefix are contiguous in the index, so a lookup is a range
+ * of a TreeMap rather than a scan of every name. Matches are ranked by how
+ * often and how recently each name was used. Thread safe.
+ */
+public class PrefixIndex {
+  private static final long HALF_LIFE_MILLIS = TimeUnit.DAYS.toMillis(30); // Age at which a use counts half
+
+  // Lower cased name, then the name itself so names that only differ in case are kept apart
+  private final TreeMap<String, NameUsage> names = new TreeMap<>();
+
+  /**
+   * Records uses of the passed name.
+   *
+   * @param name           Used name. Blank names are ignored.
+   * @param useCount       Amount of uses.
+   * @param lastUsedMillis Time of the most recent use.
+   */
+  public synchronized void record(String name, long useCount, long lastUsedMillis) {
+    if (name == null || name.isBlank()) {
+      return;
+    }
+    final NameUsage nameUsage = names.computeIfAbsent(createKey(name), key -> new NameUsage(name));
+    nameUsage.useCount += useCount;
+    nameUsage.lastUsedMillis = Math.max(nameUsage.lastUsedMillis, lastUsedMillis);
+  }
+
+  /**
+   * Returns the best ranked names that start with the passed prefix,
+   * ignoring case.
+   *
+   * @param prefix Typed prefix.
+   * @param limit  Maximum amount of names to return.
+   * @return Matching names, best ranked first.
+   */
+  public synchronized List<String> complete(String prefix, int limit) {
+    final String lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+    final long nowMillis = System.currentTimeMillis();
+    // Kept sorted by score, it never holds more than the limit
+    List<NameUsage> bestMatches = new ArrayList<>(limit + 1);
+    List<Double> bestScores = new ArrayList<>(limit + 1);
+    for (NameUsage nameUsage : names.subMap(lowerCasePrefix, lowerCasePrefix + Character.MAX_VALUE).values()) {
+      final double score = nameUsage.computeScore(nowMillis);
+      int index = bestScores.size();
+      while (index > 0 && bestScores.get(index - 1) < score) {
+        index--;
+      }
+      if (index >= limit) {
+        continue;
+      }
+      bestMatches.add(index, nameUsage);
+      bestScores.add(index, score);
+      if (bestMatches.size() > limit) {
+        bestMatches.remove(limit);
+        bestScores.remove(limit);
+      }
+    }
+    List<String> completions = new ArrayList<>(bestMatches.size());
+    for (NameUsage nameUsage : bestMatches) {
+      completions.add(nameUsage.name);
+    }
+    return completions;
+  }
+
+  /**
+   * Returns the amount of distinct names in the index.
+   *
+   * @return Amount of names.
+   */
+  public synchronized int size() {
+    return names.size();
+  }
+
+  private static String createKey(String name) {
+    return name.toLowerCase(Locale.ROOT) + '\0' + name;
+  }
+
+  private static class NameUsage {
+    private final String name;
+    private long useCount;
+    private long lastUsedMillis;
+
+    private NameUsage(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Scores the uses of the name, halving their weight for every half life
+     * elapsed since it was last used.
+     */
+    private double computeScore(long nowMillis) {
+      final long ageMillis = Math.max(0, nowMillis - lastUsedMillis);
+      return useCount * Math.pow(0.5, (double) ageMillis / HALF_LIFE_MILLIS);
+    }
+  }
+}
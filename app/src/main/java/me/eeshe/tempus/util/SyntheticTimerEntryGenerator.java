@@ -0,0 +1,144 @@
+package me.eeshe.tempus.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import me.eeshe.tempus.model.TimerEntry;
+
+/**
+ * Generates a realistic history of TimerEntries. Entries are spread over the
+ * working hours of weekdays, oldest first. Projects, clients, tasks, tags,
+ * emails and description words follow Zipf distributions, and each project
+ * belongs to a single client whose entries are billable or not.
+ * The same seed always generates the same entries, so it can be used as a
+ * fixture for benchmarks and profiling.
+ */
+public class SyntheticTimerEntryGenerator implements Iterator<TimerEntry> {
+  private static final int PROJECT_COUNT = 200;
+  private static final int CLIENT_COUNT = 30;
+  private static final int TASK_COUNT = 40;
+  private static final int TAG_COUNT = 50;
+  private static final int EMAIL_COUNT = 5;
+  private static final double EXPONENT = 1.1;
+  private static final long WORKDAY_START_MILLIS = TimeUnit.HOURS.toMillis(8);
+  private static final long WORKDAY_MILLIS = TimeUnit.HOURS.toMillis(10);
+  private static final String[] WORDS = {
+      "review", "meeting", "migration", "refactor", "deploy", "planning", "bugfix", "schema", "release",
+      "support", "design", "standup", "onboarding", "docs", "testing", "performance", "database", "api",
+      "frontend", "backend", "invoice", "report", "hiring", "interview", "research", "prototype", "cleanup",
+      "security", "upgrade", "incident", "retro", "estimate", "sync", "demo", "feedback", "pairing"
+  };
+
+  private final Random random;
+  private final long entryCount;
+  private final ZoneId zoneId;
+  private final List<LocalDate> workdays = new ArrayList<>();
+  private final int[] projectClients = new int[PROJECT_COUNT];
+  private final boolean[] billableClients = new boolean[CLIENT_COUNT];
+  private final ZipfDistribution clients = new ZipfDistribution(CLIENT_COUNT, EXPONENT);
+  private final ZipfDistribution projects = new ZipfDistribution(PROJECT_COUNT, EXPONENT);
+  private final ZipfDistribution tasks = new ZipfDistribution(TASK_COUNT, EXPONENT);
+  private final ZipfDistribution tags = new ZipfDistribution(TAG_COUNT, EXPONENT);
+  private final ZipfDistribution emails = new ZipfDistribution(EMAIL_COUNT, EXPONENT);
+  private final ZipfDistribution words = new ZipfDistribution(WORDS.length, EXPONENT);
+  private long generatedCount;
+
+  /**
+   * Creates a SyntheticTimerEntryGenerator.
+   *
+   * @param seed         Seed of the generated entries.
+   * @param entryCount   Amount of entries to generate.
+   * @param historyYears Years of history the entries are spread over, ending
+   *                     on the passed end date.
+   * @param endDate      Last day of the history.
+   * @param zoneId       Zone the working hours are in.
+   */
+  public SyntheticTimerEntryGenerator(long seed, long entryCount, int historyYears, LocalDate endDate,
+      ZoneId zoneId) {
+    this.random = new Random(seed);
+    this.entryCount = entryCount;
+    this.zoneId = zoneId;
+    for (LocalDate date = endDate.minusYears(historyYears).plusDays(1); !date.isAfter(endDate);
+        date = date.plusDays(1)) {
+      if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+        workdays.add(date);
+      }
+    }
+    for (int project = 0; project < PROJECT_COUNT; project++) {
+      projectClients[project] = clients.sample(random);
+    }
+    for (int client = 0; client < CLIENT_COUNT; client++) {
+      billableClients[client] = random.nextInt(4) != 0;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return generatedCount < entryCount && !workdays.isEmpty();
+  }
+
+  /**
+   * Generates the next entry. Entries are evenly split among the workdays
+   * and each one takes a slot of its day, so they never overlap.
+   */
+  @Override
+  public TimerEntry next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final int workday = (int) (generatedCount * workdays.size() / entryCount);
+    final long firstOfDay = (workday * entryCount + workdays.size() - 1) / workdays.size();
+    final long nextFirstOfDay = ((workday + 1) * entryCount + workdays.size() - 1) / workdays.size();
+    final long entriesOfDay = Math.max(1, nextFirstOfDay - firstOfDay);
+    final long slotMillis = WORKDAY_MILLIS / entriesOfDay;
+    final long dayStartMillis = workdays.get(workday).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    final long startTimeMillis = dayStartMillis + WORKDAY_START_MILLIS +
+        (generatedCount - firstOfDay) * slotMillis;
+    final long durationMillis = Math.max(1, (long) (slotMillis * (0.5 + random.nextDouble() * 0.5)));
+    generatedCount++;
+
+    final int project = projects.sample(random);
+    final int client = projectClients[project];
+    return new TimerEntry(
+        "project-" + project,
+        "client-" + client,
+        createDescription(),
+        random.nextInt(3) == 0 ? null : "task-" + tasks.sample(random),
+        "user" + emails.sample(random) + "@example.com",
+        createTags(),
+        billableClients[client],
+        startTimeMillis,
+        durationMillis);
+  }
+
+  private String createDescription() {
+    final int wordCount = 2 + random.nextInt(3);
+    StringBuilder description = new StringBuilder();
+    for (int index = 0; index < wordCount; index++) {
+      if (index > 0) {
+        description.append(' ');
+      }
+      description.append(WORDS[words.sample(random)]);
+    }
+    return description.append(" #").append(random.nextInt(10_000)).toString();
+  }
+
+  private List<String> createTags() {
+    final int tagCount = random.nextInt(4);
+    List<String> entryTags = new ArrayList<>(tagCount);
+    for (int index = 0; index < tagCount; index++) {
+      final String tag = "tag-" + tags.sample(random);
+      if (!entryTags.contains(tag)) {
+        entryTags.add(tag);
+      }
+    }
+    return entryTags;
+  }
+}
@@ -1,18 +1,98 @@
 package me.eeshe.tempus.util;
 
-import java.time.Duration;
-
+/**
+ * Formats durations and times of day for the screens, which do it for every
+ * row on each redraw. Digits are written directly instead of going through
+ * String.format or a DateTimeFormatter, and the strings of durations under a
+ * day and of every time of day are cached, so formatting them doesn't
+ * allocate.
+ */
 public class TimeFormatUtil {
+  private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  // Filled in as durations are formatted. Races only build the same string twice
+  private static final String[] HHMMSS_STRINGS = new String[SECONDS_PER_DAY];
+  private static final String[] HHMM_STRINGS = new String[MINUTES_PER_DAY];
 
+  static {
+    final StringBuilder stringBuilder = new StringBuilder(5);
+    for (int minuteOfDay = 0; minuteOfDay < MINUTES_PER_DAY; minuteOfDay++) {
+      stringBuilder.setLength(0);
+      appendHHMM(stringBuilder, minuteOfDay / 60, minuteOfDay % 60);
+      HHMM_STRINGS[minuteOfDay] = stringBuilder.toString();
+    }
+  }
+
+  /**
+   * Formats the passed duration as 'HH:mm:ss'. Hours aren't wrapped, so
+   * durations over a day have more than two hour digits.
+   *
+   * @param milliseconds Duration to format. Negative durations are formatted
+   *                     as zero.
+   * @return Formatted duration.
+   */
   public static String formatMillisecondsToHHMMSS(long milliseconds) {
-    if (milliseconds < 0) {
-      return "00:00:00";
+    final long totalSeconds = Math.max(0, milliseconds) / 1000;
+    if (totalSeconds >= SECONDS_PER_DAY) {
+      return appendHHMMSS(new StringBuilder(12), milliseconds).toString();
+    }
+    final int secondOfDay = (int) totalSeconds;
+    String formatted = HHMMSS_STRINGS[secondOfDay];
+    if (formatted == null) {
+      formatted = appendHHMMSS(new StringBuilder(8), milliseconds).toString();
+      HHMMSS_STRINGS[secondOfDay] = formatted;
+    }
+    return formatted;
+  }
+
+  /**
+   * Appends the passed duration formatted as 'HH:mm:ss' to the passed
+   * StringBuilder.
+   *
+   * @param stringBuilder StringBuilder to append to.
+   * @param milliseconds  Duration to format. Negative durations are formatted
+   *                      as zero.
+   * @return Passed StringBuilder.
+   */
+  public static StringBuilder appendHHMMSS(StringBuilder stringBuilder, long milliseconds) {
+    final long totalSeconds = Math.max(0, milliseconds) / 1000;
+    final long hours = totalSeconds / 3600;
+    if (hours < 10) {
+      stringBuilder.append('0');
     }
-    Duration duration = Duration.ofMillis(milliseconds);
+    stringBuilder.append(hours).append(':');
+    appendTwoDigits(stringBuilder, (int) (totalSeconds / 60 % 60)).append(':');
+    return appendTwoDigits(stringBuilder, (int) (totalSeconds % 60));
+  }
+
+  /**
+   * Formats the passed minute of the day as 'HH:mm'.
+   *
+   * @param minuteOfDay Minute of the day, from 0 to 1439.
+   * @return Formatted time of day.
+   */
+  public static String formatHHMM(int minuteOfDay) {
+    return HHMM_STRINGS[minuteOfDay];
+  }
+
+  /**
+   * Appends the passed time of day formatted as 'HH:mm' to the passed
+   * StringBuilder.
+   *
+   * @param stringBuilder StringBuilder to append to.
+   * @param hour          Hour of the day.
+   * @param minute        Minute of the hour.
+   * @return Passed StringBuilder.
+   */
+  public static StringBuilder appendHHMM(StringBuilder stringBuilder, int hour, int minute) {
+    appendTwoDigits(stringBuilder, hour).append(':');
+    return appendTwoDigits(stringBuilder, minute);
+  }
 
-    long hours = duration.toHours();
-    long minutes = duration.toMinutes() % 60; // Remaining minutes after extracting full hours
-    long seconds = duration.getSeconds() % 60; // Remaining seconds after extracting full minutes
-    return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+  private static StringBuilder appendTwoDigits(StringBuilder stringBuilder, int value) {
+    return stringBuilder
+        .append((char) ('0' + value / 10))
+        .append((char) ('0' + value % 10));
   }
 }
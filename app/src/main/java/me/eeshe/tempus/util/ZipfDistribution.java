@@ -0,0 +1,48 @@
+package me.eeshe.tempus.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over the ranks 0 to size - 1, where rank k is drawn with a
+ * probability proportional to 1 / (k + 1)^exponent. A few ranks are drawn
+ * most of the time and the rest form a long tail, like the projects or tags
+ * of a real history. The cumulative probabilities are computed once, so a
+ * sample is a binary search.
+ */
+public class ZipfDistribution {
+  private final double[] cumulativeProbabilities;
+
+  /**
+   * Creates a ZipfDistribution.
+   *
+   * @param size     Amount of ranks. Must be positive.
+   * @param exponent Skew of the distribution, 0 is uniform.
+   */
+  public ZipfDistribution(int size, double exponent) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive: " + size);
+    }
+    cumulativeProbabilities = new double[size];
+    double total = 0;
+    for (int rank = 0; rank < size; rank++) {
+      total += 1 / Math.pow(rank + 1, exponent);
+      cumulativeProbabilities[rank] = total;
+    }
+    for (int rank = 0; rank < size; rank++) {
+      cumulativeProbabilities[rank] /= total;
+    }
+  }
+
+  /**
+   * Draws a rank.
+   *
+   * @param random Source of randomness.
+   * @return Drawn rank.
+   */
+  public int sample(Random random) {
+    final int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+    final int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulativeProbabilities.length - 1);
+  }
+}
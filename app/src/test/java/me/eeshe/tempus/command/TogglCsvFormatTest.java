@@ -0,0 +1,71 @@
+package me.eeshe.tempus.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.util.CsvReader;
+import me.eeshe.tempus.util.CsvWriter;
+
+class TogglCsvFormatTest {
+  private static final ZoneId ZONE_ID = ZoneId.of("Europe/Madrid");
+
+  @Test
+  void exportedEntryIsImportedWithTheSameContentHash() throws IOException {
+    final TimerEntry timerEntry = new TimerEntry("Tempus", "Acme", "Review, \"export\"\nsecond line", "Code",
+        "user@example.com", List.of("backend", "review"), true, 1700000000123L, 3600456L);
+
+    final TimerEntry imported = roundTrip(timerEntry);
+
+    assertEquals(timerEntry.getStartTimeMillis(), imported.getStartTimeMillis());
+    assertEquals(timerEntry.getDurationMillis(), imported.getDurationMillis());
+    assertEquals(timerEntry.getDescription(), imported.getDescription());
+    assertEquals(timerEntry.getTags(), imported.getTags());
+    assertEquals(timerEntry.computeContentHash(), imported.computeContentHash());
+  }
+
+  @Test
+  void entryWithoutOptionalFieldsRoundTrips() throws IOException {
+    final TimerEntry timerEntry = new TimerEntry("Tempus", null, null, null, null, List.of(), false,
+        1711846799999L, 1L);
+
+    final TimerEntry imported = roundTrip(timerEntry);
+
+    assertNull(imported.getClientName());
+    assertEquals(0, imported.getTags().size());
+    assertEquals(timerEntry.computeContentHash(), imported.computeContentHash());
+  }
+
+  @Test
+  void togglExportWithoutMillisecondColumnsIsParsed() {
+    final TogglCsvFormat togglCsvFormat = new TogglCsvFormat(List.of(TogglCsvFormat.PROJECT,
+        TogglCsvFormat.START_DATE, TogglCsvFormat.START_TIME, TogglCsvFormat.DURATION), ZONE_ID);
+
+    final TimerEntry timerEntry = togglCsvFormat.parse(List.of("Tempus", "2023-11-14", "23:13:20", "01:00:00"));
+
+    assertEquals(1700000000000L, timerEntry.getStartTimeMillis());
+    assertEquals(3600000L, timerEntry.getDurationMillis());
+  }
+
+  private TimerEntry roundTrip(TimerEntry timerEntry) throws IOException {
+    final StringWriter stringWriter = new StringWriter();
+    final CsvWriter csvWriter = new CsvWriter(stringWriter);
+    csvWriter.writeRecord(TogglCsvFormat.HEADERS.toArray(new String[0]));
+    csvWriter.writeRecord(TogglCsvFormat.format(timerEntry, ZONE_ID));
+    csvWriter.flush();
+
+    final CsvReader csvReader = new CsvReader(new StringReader(stringWriter.toString()));
+    final TogglCsvFormat togglCsvFormat = new TogglCsvFormat(csvReader.readRecord(), ZONE_ID);
+    final TimerEntry imported = togglCsvFormat.parse(csvReader.readRecord());
+    assertNull(csvReader.readRecord());
+    return imported;
+  }
+}
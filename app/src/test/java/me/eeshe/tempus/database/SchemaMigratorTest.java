@@ -0,0 +1,238 @@
+package me.eeshe.tempus.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.util.DayBucketer;
+
+/**
+ * Migrates a database created by the version 2 schema, with TimerEntries
+ * stored as plain text columns, to the latest version.
+ */
+class SchemaMigratorTest {
+  private static final int FIXTURE_VERSION = 2;
+  // id, projectName, clientName, description, task, email, tags, billable, startTimeMillis, durationMillis
+  private static final List<Object[]> FIXTURE_ROWS = List.of(
+      new Object[] { 1, "Tempus", "Acme", "Write tests", "Code", "dev@example.com", "backend, review", 1,
+          1700000000000L, 3600000L },
+      new Object[] { 2, "Tempus", null, null, null, null, null, 0, 1700040000000L, 1800000L },
+      new Object[] { 3, "Website", "Acme", "Landing page", "", "dev@example.com", " review ,review, design", 1,
+          1700130000000L, 5400000L },
+      // Duplicates the first row, so it keeps a null content hash
+      new Object[] { 5, "Tempus", "Acme", "Write tests", "Code", "dev@example.com", "backend, review", 1,
+          1700000000000L, 3600000L },
+      new Object[] { 8, "Website", null, "Fix typo", null, null, "", 0, 1700300000000L, 600000L });
+
+  @TempDir
+  Path temporaryDirectory;
+
+  private SQLiteManager sqLiteManager;
+
+  @BeforeEach
+  void createFixture() throws SQLException {
+    sqLiteManager = new SQLiteManager(ConnectionProfile.fromSystemProperties()
+        .withDatabasePath(temporaryDirectory.resolve("tempus.db").toString()));
+    new SchemaMigrator(sqLiteManager, SchemaMigrations.getMigrations().subList(0, FIXTURE_VERSION)).migrate();
+    final String insertSql = "INSERT INTO TimerEntry (id, projectName, clientName, description, task, email, " +
+        "tags, billable, startTimeMillis, durationMillis) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    try (PreparedStatement preparedStatement = sqLiteManager.getConnection().prepareStatement(insertSql)) {
+      for (Object[] row : FIXTURE_ROWS) {
+        for (int index = 0; index < row.length; index++) {
+          preparedStatement.setObject(index + 1, row[index]);
+        }
+        preparedStatement.executeUpdate();
+      }
+    }
+    assertEquals(FIXTURE_VERSION, readSchemaVersion());
+  }
+
+  @AfterEach
+  void closeDatabase() {
+    sqLiteManager.close();
+  }
+
+  @Test
+  void migratesToLatestVersion() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    final List<Migration> migrations = SchemaMigrations.getMigrations();
+    assertEquals(migrations.get(migrations.size() - 1).getVersion(), readSchemaVersion());
+  }
+
+  @Test
+  void keepsFailedMigrationRolledBack() throws SQLException {
+    final Migration failingMigration = new SqlMigration(FIXTURE_VERSION + 1, "Fail halfway",
+        "ALTER TABLE TimerEntry ADD COLUMN contentHash INTEGER",
+        "INSERT INTO MissingTable VALUES (1)");
+    new SchemaMigrator(sqLiteManager, List.of(failingMigration)).migrate();
+
+    assertEquals(FIXTURE_VERSION, readSchemaVersion());
+    assertNull(findColumn("TimerEntry", "contentHash"));
+  }
+
+  @Test
+  void keepsEveryRowWithItsId() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    final List<String> expectedRows = new ArrayList<>();
+    for (Object[] row : FIXTURE_ROWS) {
+      expectedRows.add(join(row));
+    }
+    assertEquals(expectedRows, query("SELECT id, projectName, clientName, description, task, email, tags, " +
+        "billable, startTimeMillis, durationMillis FROM TimerEntry ORDER BY id"));
+    assertEquals(List.of(String.valueOf(FIXTURE_ROWS.size())), query("SELECT COUNT(*) FROM TimerEntryData"));
+  }
+
+  @Test
+  void backfillsContentHashes() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    final List<String> expectedHashes = new ArrayList<>();
+    for (Object[] row : FIXTURE_ROWS) {
+      final boolean duplicate = (int) row[0] == 5;
+      expectedHashes.add(row[0] + "|" + (duplicate ? null : computeContentHash(row)));
+    }
+    assertEquals(expectedHashes, query("SELECT id, contentHash FROM TimerEntryData ORDER BY id"));
+  }
+
+  @Test
+  void linksTagsToTheirTimerEntries() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    assertEquals(List.of("backend", "design", "review"), query("SELECT name FROM Tag ORDER BY name"));
+    // Repeated tags are linked once, blank and missing tags aren't linked
+    assertEquals(List.of(
+        "1|backend|1700000000000",
+        "1|review|1700000000000",
+        "3|design|1700130000000",
+        "3|review|1700130000000",
+        "5|backend|1700000000000",
+        "5|review|1700000000000"),
+        query("SELECT TimerEntryTag.timerEntryId, Tag.name, TimerEntryTag.startTimeMillis FROM TimerEntryTag " +
+            "JOIN Tag ON Tag.id = TimerEntryTag.tagId ORDER BY TimerEntryTag.timerEntryId, Tag.name"));
+  }
+
+  @Test
+  void rollsUpDailyTotals() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    final DayBucketer dayBucketer = new DayBucketer();
+    final Map<LocalDate, long[]> dailyTotals = new TreeMap<>();
+    for (Object[] row : FIXTURE_ROWS) {
+      final long[] totals = dailyTotals.computeIfAbsent(dayBucketer.getDate((long) row[8]), date -> new long[2]);
+      totals[0] += (long) row[9];
+      totals[1]++;
+    }
+    final List<String> expectedTotals = new ArrayList<>();
+    dailyTotals.forEach((date, totals) -> expectedTotals.add(date + "|" + totals[0] + "|" + totals[1]));
+    assertEquals(expectedTotals, query("SELECT date, SUM(totalMillis), SUM(entryCount) FROM " +
+        DailyRollups.TABLE + " GROUP BY date ORDER BY date"));
+  }
+
+  @Test
+  void searchesMigratedTimerEntries() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    assertEquals(List.of("3"), query("SELECT rowid FROM " + TimerEntrySearch.TABLE + " WHERE " +
+        TimerEntrySearch.TABLE + " MATCH 'landing'"));
+  }
+
+  @Test
+  void storesEachNameOnce() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    assertEquals(List.of("Tempus", "Website"), query("SELECT name FROM Project ORDER BY id"));
+    assertEquals(List.of("Acme"), query("SELECT name FROM Client ORDER BY id"));
+    // An empty task is a name of its own, unlike a missing one
+    assertEquals(List.of("", "Code"), query("SELECT name FROM Task ORDER BY id"));
+    assertEquals(List.of("dev@example.com"), query("SELECT name FROM Email ORDER BY id"));
+  }
+
+  @Test
+  void keepsMissingNamesAsNullIds() throws SQLException {
+    new SchemaMigrator(sqLiteManager).migrate();
+
+    assertEquals(List.of(
+        "1|1|1|2|1",
+        "2|1|null|null|null",
+        "3|2|1|1|1",
+        "5|1|1|2|1",
+        "8|2|null|null|null"),
+        query("SELECT id, projectId, clientId, taskId, emailId FROM TimerEntryData ORDER BY id"));
+  }
+
+  private int readSchemaVersion() throws SQLException {
+    return Integer.parseInt(query("PRAGMA user_version").get(0));
+  }
+
+  private String findColumn(String table, String column) throws SQLException {
+    for (String row : query("SELECT name FROM pragma_table_info('" + table + "')")) {
+      if (row.equals(column)) {
+        return row;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Runs the passed query and joins the columns of each row with '|'.
+   */
+  private List<String> query(String sql) throws SQLException {
+    final Connection connection = sqLiteManager.getConnection();
+    final List<String> rows = new ArrayList<>();
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(sql)) {
+      final int columnCount = resultSet.getMetaData().getColumnCount();
+      while (resultSet.next()) {
+        final Object[] columns = new Object[columnCount];
+        for (int index = 0; index < columnCount; index++) {
+          columns[index] = resultSet.getString(index + 1);
+        }
+        rows.add(join(columns));
+      }
+    }
+    return rows;
+  }
+
+  private static String join(Object[] columns) {
+    final StringBuilder stringBuilder = new StringBuilder();
+    for (int index = 0; index < columns.length; index++) {
+      if (index > 0) {
+        stringBuilder.append('|');
+      }
+      stringBuilder.append(columns[index]);
+    }
+    return stringBuilder.toString();
+  }
+
+  private static long computeContentHash(Object[] row) {
+    return TimerEntry.computeContentHash(
+        (String) row[1],
+        (String) row[2],
+        (String) row[3],
+        (String) row[4],
+        (String) row[5],
+        TimerEntry.parseTags((String) row[6]),
+        (int) row[7] == 1,
+        (long) row[8],
+        (long) row[9]);
+  }
+}
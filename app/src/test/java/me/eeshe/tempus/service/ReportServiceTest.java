@@ -0,0 +1,238 @@
+package me.eeshe.tempus.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.eeshe.tempus.database.ConnectionProfile;
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.Report;
+import me.eeshe.tempus.model.ReportDimension;
+import me.eeshe.tempus.model.ReportGranularity;
+import me.eeshe.tempus.model.ReportQuery;
+import me.eeshe.tempus.model.ReportRow;
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.util.DayBucketer;
+
+class ReportServiceTest {
+  private static final ZoneId ZONE_ID = ZoneOffset.UTC;
+  private static final long MINUTE_MILLIS = 60000L;
+  // Sunday 2023-12-31 to Tuesday 2024-01-09, weeks start on Monday
+  private static final List<TimerEntry> FIXTURE_ENTRIES = List.of(
+      createTimerEntry("Tempus", null, null, false, List.of("review"), "2023-12-31T23:00", 20),
+      createTimerEntry("Tempus", "Acme", "Code", true, List.of("backend", "review"), "2024-01-01T09:00", 60),
+      createTimerEntry("Tempus", null, null, false, List.of(), "2024-01-01T14:00", 30),
+      createTimerEntry("Website", "Acme", "", true, List.of("review"), "2024-01-03T10:00", 120),
+      createTimerEntry("Website", null, "Design", false, List.of("design", "backend"), "2024-01-08T08:00", 45),
+      createTimerEntry("Tempus", "Acme", "Code", true, List.of(), "2024-01-09T12:00", 15));
+
+  @TempDir
+  Path temporaryDirectory;
+
+  private SQLiteManager sqLiteManager;
+  private TimerEntryService timerEntryService;
+  private ReportService reportService;
+
+  @BeforeEach
+  void createServices() {
+    sqLiteManager = new SQLiteManager(ConnectionProfile.fromSystemProperties()
+        .withDatabasePath(temporaryDirectory.resolve("tempus.db").toString()));
+    final DayBucketer dayBucketer = new DayBucketer(ZONE_ID);
+    timerEntryService = new TimerEntryService(sqLiteManager, dayBucketer);
+    reportService = new ReportService(sqLiteManager, dayBucketer);
+  }
+
+  @AfterEach
+  void closeServices() {
+    reportService.close();
+    timerEntryService.close();
+    sqLiteManager.close();
+  }
+
+  @Test
+  void totalsTags() throws SQLException {
+    timerEntryService.saveAll(FIXTURE_ENTRIES);
+
+    final Report report = reportService.generate(new ReportQuery()
+        .setDimension(ReportDimension.TAG)
+        .setGranularity(ReportGranularity.TOTAL));
+
+    // TimerEntries with several tags count towards each of them, but once towards the grand total
+    assertEquals(List.of(
+        "null|review|" + minutes(20 + 60 + 120) + "|3",
+        "null|backend|" + minutes(60 + 45) + "|2",
+        "null|(No tags)|" + minutes(30 + 15) + "|2",
+        "null|design|" + minutes(45) + "|1"), toRows(report));
+    assertEquals(minutes(20 + 60 + 30 + 120 + 45 + 15), report.getTotalMillis());
+    assertEquals(6, report.getEntryCount());
+  }
+
+  @Test
+  void totalsTagsByWeekWithinRange() throws SQLException {
+    timerEntryService.saveAll(FIXTURE_ENTRIES);
+
+    final Report report = reportService.generate(new ReportQuery()
+        .setFromDate(LocalDate.of(2024, 1, 1))
+        .setToDate(LocalDate.of(2024, 1, 15))
+        .setDimension(ReportDimension.TAG)
+        .setGranularity(ReportGranularity.WEEK));
+
+    assertEquals(List.of(
+        "2024-01-01|review|" + minutes(60 + 120) + "|2",
+        "2024-01-01|backend|" + minutes(60) + "|1",
+        "2024-01-01|(No tags)|" + minutes(30) + "|1",
+        "2024-01-08|backend|" + minutes(45) + "|1",
+        "2024-01-08|design|" + minutes(45) + "|1",
+        "2024-01-08|(No tags)|" + minutes(15) + "|1"), toRows(report));
+    assertEquals(minutes(60 + 30 + 120 + 45 + 15), report.getTotalMillis());
+    assertEquals(5, report.getEntryCount());
+  }
+
+  @Test
+  void leavesOutUntaggedRowOfDaysWithOnlyTaggedEntries() throws SQLException {
+    timerEntryService.saveAll(FIXTURE_ENTRIES);
+
+    final Report report = reportService.generate(new ReportQuery()
+        .setFromDate(LocalDate.of(2024, 1, 1))
+        .setToDate(LocalDate.of(2024, 1, 9))
+        .setDimension(ReportDimension.TAG)
+        .setGranularity(ReportGranularity.DAY));
+
+    assertEquals(List.of(
+        "2024-01-01|backend|" + minutes(60) + "|1",
+        "2024-01-01|review|" + minutes(60) + "|1",
+        "2024-01-01|(No tags)|" + minutes(30) + "|1",
+        "2024-01-03|review|" + minutes(120) + "|1",
+        "2024-01-08|backend|" + minutes(45) + "|1",
+        "2024-01-08|design|" + minutes(45) + "|1"), toRows(report));
+  }
+
+  @Test
+  void totalsProjectsAndClients() throws SQLException {
+    timerEntryService.saveAll(FIXTURE_ENTRIES);
+
+    final Report projectReport = reportService.generate(new ReportQuery()
+        .setDimension(ReportDimension.PROJECT)
+        .setGranularity(ReportGranularity.TOTAL));
+    final Report clientReport = reportService.generate(new ReportQuery()
+        .setDimension(ReportDimension.CLIENT)
+        .setGranularity(ReportGranularity.TOTAL));
+
+    assertEquals(List.of(
+        "null|Website|" + minutes(120 + 45) + "|2",
+        "null|Tempus|" + minutes(20 + 60 + 30 + 15) + "|4"), toRows(projectReport));
+    assertEquals(List.of(
+        "null|Acme|" + minutes(60 + 120 + 15) + "|3",
+        "null|(No client)|" + minutes(20 + 30 + 45) + "|3"), toRows(clientReport));
+    assertEquals(projectReport.getTotalMillis(), clientReport.getTotalMillis());
+    assertEquals(6, clientReport.getEntryCount());
+  }
+
+  @Test
+  void totalsBillableTimeByWeek() throws SQLException {
+    timerEntryService.saveAll(FIXTURE_ENTRIES);
+
+    final Report report = reportService.generate(new ReportQuery()
+        .setDimension(ReportDimension.BILLABLE)
+        .setGranularity(ReportGranularity.WEEK));
+
+    assertEquals(List.of(
+        "2023-12-25|Non-billable|" + minutes(20) + "|1",
+        "2024-01-01|Billable|" + minutes(60 + 120) + "|2",
+        "2024-01-01|Non-billable|" + minutes(30) + "|1",
+        "2024-01-08|Non-billable|" + minutes(45) + "|1",
+        "2024-01-08|Billable|" + minutes(15) + "|1"), toRows(report));
+  }
+
+  @Test
+  void mergesTagTotalsOfEveryChunk() throws SQLException {
+    // Enough tag links for several chunks, so they're aggregated by more than one ReportAccumulator
+    final String[] tags = { "backend", "review", "design", "meeting" };
+    final Random random = new Random(42);
+    final List<TimerEntry> timerEntries = new ArrayList<>();
+    final Map<String, long[]> expectedTotals = new TreeMap<>();
+    long startTimeMillis = LocalDate.of(2024, 1, 1).atStartOfDay(ZONE_ID).toInstant().toEpochMilli();
+    long expectedTotalMillis = 0;
+    int linkCount = 0;
+    for (int index = 0; index < 30_000; index++) {
+      startTimeMillis += 1 + random.nextInt(30) * MINUTE_MILLIS;
+      final long durationMillis = 1 + random.nextInt(120) * MINUTE_MILLIS;
+      final List<String> timerEntryTags = new ArrayList<>();
+      for (String tag : tags) {
+        if (random.nextInt(3) == 0) {
+          timerEntryTags.add(tag);
+        }
+      }
+      timerEntries.add(new TimerEntry("Tempus", null, null, null, null, timerEntryTags, false, startTimeMillis,
+          durationMillis));
+
+      final LocalDate week = ReportGranularity.WEEK.truncate(
+          LocalDate.ofInstant(Instant.ofEpochMilli(startTimeMillis), ZONE_ID));
+      for (String key : timerEntryTags.isEmpty() ? List.of("(No tags)") : timerEntryTags) {
+        final long[] totals = expectedTotals.computeIfAbsent(week + "|" + key, ignored -> new long[2]);
+        totals[0] += durationMillis;
+        totals[1]++;
+      }
+      expectedTotalMillis += durationMillis;
+      linkCount += timerEntryTags.size();
+    }
+    assertTrue(linkCount > 2 * 16_384);
+    timerEntryService.saveAll(timerEntries);
+
+    final Report report = reportService.generate(new ReportQuery()
+        .setDimension(ReportDimension.TAG)
+        .setGranularity(ReportGranularity.WEEK));
+
+    final Map<String, long[]> totals = new TreeMap<>();
+    for (ReportRow reportRow : report.getRows()) {
+      totals.put(reportRow.getPeriodStart() + "|" + reportRow.getKey(),
+          new long[] { reportRow.getTotalMillis(), reportRow.getEntryCount() });
+    }
+    assertEquals(toStrings(expectedTotals), toStrings(totals));
+    assertEquals(expectedTotalMillis, report.getTotalMillis());
+    assertEquals(timerEntries.size(), report.getEntryCount());
+  }
+
+  private static TimerEntry createTimerEntry(String projectName, String clientName, String task, boolean billable,
+      List<String> tags, String startTime, int minutes) {
+    final long startTimeMillis = LocalDateTime.parse(startTime).atZone(ZONE_ID).toInstant().toEpochMilli();
+    return new TimerEntry(projectName, clientName, null, task, null, tags, billable, startTimeMillis,
+        minutes(minutes));
+  }
+
+  private static long minutes(int minutes) {
+    return minutes * MINUTE_MILLIS;
+  }
+
+  private static List<String> toRows(Report report) {
+    final List<String> rows = new ArrayList<>();
+    for (ReportRow reportRow : report.getRows()) {
+      rows.add(reportRow.getPeriodStart() + "|" + reportRow.getKey() + "|" + reportRow.getTotalMillis() + "|" +
+          reportRow.getEntryCount());
+    }
+    return rows;
+  }
+
+  private static List<String> toStrings(Map<String, long[]> totals) {
+    final List<String> strings = new ArrayList<>();
+    totals.forEach((key, values) -> strings.add(key + "|" + values[0] + "|" + values[1]));
+    return strings;
+  }
+}
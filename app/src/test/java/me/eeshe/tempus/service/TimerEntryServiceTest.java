@@ -0,0 +1,141 @@
+package me.eeshe.tempus.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.eeshe.tempus.database.ConnectionProfile;
+import me.eeshe.tempus.database.DailyRollups;
+import me.eeshe.tempus.database.SQLiteManager;
+import me.eeshe.tempus.model.TimerEntry;
+import me.eeshe.tempus.util.DayBucketer;
+
+class TimerEntryServiceTest {
+  private static final ZoneId ZONE_ID = ZoneId.of("Europe/Madrid");
+  // 2024-03-30T23:30 in Madrid, the night before clocks moved forward
+  private static final long START_MILLIS = 1711837800000L;
+  private static final long HOUR_MILLIS = 3600000L;
+
+  @TempDir
+  Path temporaryDirectory;
+
+  private SQLiteManager sqLiteManager;
+  private TimerEntryService timerEntryService;
+
+  @BeforeEach
+  void createService() {
+    sqLiteManager = new SQLiteManager(ConnectionProfile.fromSystemProperties()
+        .withDatabasePath(temporaryDirectory.resolve("tempus.db").toString()));
+    timerEntryService = new TimerEntryService(sqLiteManager, new DayBucketer(ZONE_ID));
+  }
+
+  @AfterEach
+  void closeService() {
+    timerEntryService.close();
+    sqLiteManager.close();
+  }
+
+  @Test
+  void rebuildsTheDailyRollupWrittenOnSave() throws SQLException {
+    timerEntryService.saveAll(List.of(
+        new TimerEntry("Tempus", "Acme", "Late", "Code", null, List.of(), true, START_MILLIS, HOUR_MILLIS),
+        new TimerEntry("Tempus", "Acme", "Later", "Code", null, List.of(), true, START_MILLIS + HOUR_MILLIS,
+            HOUR_MILLIS),
+        // Missing and empty clients and tasks are rolled up as the same ones
+        new TimerEntry("Tempus", null, null, null, null, List.of(), false, START_MILLIS + 2 * HOUR_MILLIS, 60000L),
+        new TimerEntry("Tempus", "", null, "", null, List.of(), false, START_MILLIS + 3 * HOUR_MILLIS, 120000L),
+        new TimerEntry("Website", "Acme", null, null, null, List.of(), true, START_MILLIS + 200 * HOUR_MILLIS,
+            HOUR_MILLIS)));
+    final List<String> savedRollups = readRollups();
+
+    assertEquals(savedRollups.size(), timerEntryService.rebuildDailyRollup());
+    assertEquals(List.of(
+        "2024-03-30|Tempus|Code|Acme|1|3600000|1",
+        "2024-03-31|Tempus|||0|180000|2",
+        "2024-03-31|Tempus|Code|Acme|1|3600000|1",
+        "2024-04-08|Website||Acme|1|3600000|1"), savedRollups);
+    assertEquals(savedRollups, readRollups());
+  }
+
+  @Test
+  void rebuildsAnEmptyDailyRollup() throws SQLException {
+    assertEquals(0, timerEntryService.rebuildDailyRollup());
+    assertEquals(List.of(), readRollups());
+  }
+
+  @Test
+  void sharesDictionaryNamesBetweenParsedTimerEntries() throws SQLException {
+    // Distinct instances, so parsed TimerEntries can only share the ones read from the dictionaries
+    timerEntryService.saveAll(List.of(
+        new TimerEntry(new String("Tempus"), new String("Acme"), null, new String("Code"), new String("dev@x.com"),
+            List.of(), true, START_MILLIS, HOUR_MILLIS),
+        new TimerEntry(new String("Tempus"), new String("Acme"), null, new String("Code"), new String("dev@x.com"),
+            List.of(), true, START_MILLIS + HOUR_MILLIS, HOUR_MILLIS)));
+
+    final List<TimerEntry> timerEntries = timerEntryService.fetchAll();
+    assertEquals(2, timerEntries.size());
+    assertEquals("Tempus", timerEntries.get(0).getProjectName());
+    assertSame(timerEntries.get(0).getProjectName(), timerEntries.get(1).getProjectName());
+    assertSame(timerEntries.get(0).getClientName(), timerEntries.get(1).getClientName());
+    assertSame(timerEntries.get(0).getTask(), timerEntries.get(1).getTask());
+    assertSame(timerEntries.get(0).getEmail(), timerEntries.get(1).getEmail());
+    assertEquals(List.of("1|Tempus"), query("SELECT id, name FROM Project"));
+  }
+
+  @Test
+  void keepsMissingNamesAsNullIds() throws SQLException {
+    timerEntryService.saveAll(List.of(
+        new TimerEntry("Tempus", null, null, null, null, List.of(), false, START_MILLIS, HOUR_MILLIS)));
+
+    assertEquals(List.of("1|null|null|null"), query("SELECT projectId, clientId, taskId, emailId FROM " +
+        "TimerEntryData"));
+    assertEquals(List.of("0|0|0"), query("SELECT (SELECT COUNT(*) FROM Client), (SELECT COUNT(*) FROM Task), " +
+        "(SELECT COUNT(*) FROM Email)"));
+    final TimerEntry timerEntry = timerEntryService.fetchAll().get(0);
+    assertNull(timerEntry.getClientName());
+    assertNull(timerEntry.getTask());
+    assertNull(timerEntry.getEmail());
+  }
+
+  private List<String> readRollups() throws SQLException {
+    return query("SELECT date, projectName, task, clientName, billable, totalMillis, entryCount FROM " +
+        DailyRollups.TABLE + " ORDER BY date, projectName, task");
+  }
+
+  /**
+   * Runs the passed query and joins the columns of each row with '|'.
+   */
+  private List<String> query(String sql) throws SQLException {
+    final Connection connection = sqLiteManager.getConnection();
+    final List<String> rows = new ArrayList<>();
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(sql)) {
+      final int columnCount = resultSet.getMetaData().getColumnCount();
+      while (resultSet.next()) {
+        final StringBuilder row = new StringBuilder();
+        for (int column = 1; column <= columnCount; column++) {
+          if (column > 1) {
+            row.append('|');
+          }
+          row.append(resultSet.getString(column));
+        }
+        rows.add(row.toString());
+      }
+    }
+    return rows;
+  }
+}
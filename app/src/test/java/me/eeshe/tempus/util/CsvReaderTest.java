@@ -0,0 +1,109 @@
+package me.eeshe.tempus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+  @Test
+  void readsPlainRecords() throws IOException {
+    assertEquals(List.of(List.of("a", "b", "c"), List.of("1", "", "3")), readAll("a,b,c\n1,,3\n"));
+  }
+
+  @Test
+  void readsLastRecordWithoutLineBreak() throws IOException {
+    assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\nc,d"));
+  }
+
+  @Test
+  void readsQuotedCommasAndEscapedQuotes() throws IOException {
+    assertEquals(List.of(List.of("a, b", "say \"hi\"", "")), readAll("\"a, b\",\"say \"\"hi\"\"\",\"\"\n"));
+  }
+
+  @Test
+  void readsLineBreaksWithinQuotedFields() throws IOException {
+    final List<List<String>> records = readAll("project,description\nTempus,\"first line\nsecond line\r\nthird\"\n" +
+        "Website,done\n");
+
+    assertEquals(List.of(
+        List.of("project", "description"),
+        List.of("Tempus", "first line\nsecond line\r\nthird"),
+        List.of("Website", "done")), records);
+  }
+
+  @Test
+  void readsCrlfLineBreaks() throws IOException {
+    assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\r\nc,d\r\n"));
+  }
+
+  @Test
+  void readsRecordsSplitAcrossReads() throws IOException {
+    final String csv = "a,\"b\r\nc\"\r\n\"d\"\"\",e\r\n";
+    final CsvReader csvReader = new CsvReader(new SingleCharacterReader(new StringReader(csv)));
+
+    assertEquals(List.of("a", "b\r\nc"), csvReader.readRecord());
+    assertEquals(List.of("d\"", "e"), csvReader.readRecord());
+    assertNull(csvReader.readRecord());
+    assertEquals(2, csvReader.getRecordNumber());
+  }
+
+  @Test
+  void rejectsUnterminatedQuotedField() {
+    final CsvReader csvReader = new CsvReader(new StringReader("a,b\n\"c,d\n"));
+
+    final IOException exception = assertThrows(IOException.class, () -> {
+      csvReader.readRecord();
+      csvReader.readRecord();
+    });
+    assertEquals("Unterminated quoted field in record 2", exception.getMessage());
+  }
+
+  @Test
+  void readsWhatCsvWriterWrites() throws IOException {
+    final String[] record = { "plain", "with, comma", "with \"quotes\"", "with\nline break", "", " spaced " };
+    final StringWriter stringWriter = new StringWriter();
+    final CsvWriter csvWriter = new CsvWriter(stringWriter);
+    csvWriter.writeRecord(record);
+    csvWriter.flush();
+
+    assertEquals(List.of(List.of(record)), readAll(stringWriter.toString()));
+  }
+
+  private List<List<String>> readAll(String csv) throws IOException {
+    final List<List<String>> records = new ArrayList<>();
+    try (CsvReader csvReader = new CsvReader(new StringReader(csv))) {
+      List<String> record;
+      while ((record = csvReader.readRecord()) != null) {
+        records.add(record);
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Returns a single character per read, so every character is read at the
+   * end of the buffer of the CsvReader.
+   */
+  private static class SingleCharacterReader extends FilterReader {
+
+    private SingleCharacterReader(Reader reader) {
+      super(reader);
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      return super.read(buffer, offset, Math.min(length, 1));
+    }
+  }
+}
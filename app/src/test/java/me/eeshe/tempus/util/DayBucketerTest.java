@@ -0,0 +1,115 @@
+package me.eeshe.tempus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the days found by DayBucketer with the ones of ZonedDateTime
+ * around DST transitions and outside of the computed range.
+ */
+class DayBucketerTest {
+  private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+  // Moved its clocks from midnight to 01:00 when DST started, until it stopped using DST in 2019
+  private static final ZoneId SAO_PAULO = ZoneId.of("America/Sao_Paulo");
+  private static final long HOUR_MILLIS = 3600000L;
+  // Not a divisor of an hour, so every minute of the day is eventually hit
+  private static final long STEP_MILLIS = 7 * 60000L + 1234;
+
+  @Test
+  void matchesZonedDateTimeAroundTransitions() {
+    assertMatchesAround(new DayBucketer(MADRID), LocalDate.of(2024, 3, 31));
+    assertMatchesAround(new DayBucketer(MADRID), LocalDate.of(2024, 10, 27));
+    assertMatchesAround(new DayBucketer(SAO_PAULO), LocalDate.of(2018, 11, 4));
+    assertMatchesAround(new DayBucketer(SAO_PAULO), LocalDate.of(2019, 2, 16));
+  }
+
+  @Test
+  void findsDaysShortenedAndLengthenedByTransitions() {
+    final DayBucketer dayBucketer = new DayBucketer(MADRID);
+
+    assertEquals(23 * HOUR_MILLIS, dayLengthMillis(dayBucketer, LocalDate.of(2024, 3, 31)));
+    assertEquals(25 * HOUR_MILLIS, dayLengthMillis(dayBucketer, LocalDate.of(2024, 10, 27)));
+    assertEquals(24 * HOUR_MILLIS, dayLengthMillis(dayBucketer, LocalDate.of(2024, 6, 1)));
+    final long lastMillisOfShortDay = dayBucketer.getStartOfDayMillis(LocalDate.of(2024, 4, 1)) - 1;
+    assertEquals(LocalDate.of(2024, 3, 31), dayBucketer.getDate(lastMillisOfShortDay));
+    assertEquals(23 * 60 + 59, dayBucketer.getMinuteOfDay(lastMillisOfShortDay));
+  }
+
+  @Test
+  void startsDaysWithoutMidnightAtTheirFirstMinute() {
+    final DayBucketer dayBucketer = new DayBucketer(SAO_PAULO);
+    final LocalDate date = LocalDate.of(2018, 11, 4);
+
+    final long startOfDayMillis = dayBucketer.getStartOfDayMillis(date);
+    assertEquals(LocalDateTime.of(date, LocalTime.of(1, 0)),
+        Instant.ofEpochMilli(startOfDayMillis).atZone(SAO_PAULO).toLocalDateTime());
+    assertEquals(date, dayBucketer.getDate(startOfDayMillis));
+    assertEquals(LocalDate.of(2018, 11, 3), dayBucketer.getDate(startOfDayMillis - 1));
+    assertEquals(60, dayBucketer.getMinuteOfDay(startOfDayMillis));
+    assertEquals(23 * HOUR_MILLIS, dayLengthMillis(dayBucketer, date));
+  }
+
+  @Test
+  void growsTheRangeInBothDirections() {
+    final DayBucketer dayBucketer = new DayBucketer(MADRID);
+    final LocalDate today = LocalDate.now(MADRID);
+
+    // Past, future, further past and then within, so each of the first calls grows the range
+    assertMatches(dayBucketer, toEpochMillis(today.minusYears(20), MADRID));
+    assertMatches(dayBucketer, toEpochMillis(today.plusYears(20), MADRID));
+    assertMatches(dayBucketer, toEpochMillis(today.minusYears(25).withDayOfYear(1), MADRID) - 1);
+    assertMatches(dayBucketer, toEpochMillis(today, MADRID));
+    assertMatchesAround(dayBucketer, LocalDate.of(2024, 10, 27));
+  }
+
+  @Test
+  void convertsTimesBeyondMaxDaysDirectly() {
+    final DayBucketer dayBucketer = new DayBucketer(SAO_PAULO);
+    final LocalDate today = LocalDate.now(SAO_PAULO);
+
+    assertMatchesAround(dayBucketer, today.minusYears(150));
+    assertMatchesAround(dayBucketer, today.plusYears(150));
+    // The range is still used for the times within it
+    assertMatchesAround(dayBucketer, LocalDate.of(2018, 11, 4));
+  }
+
+  /**
+   * Compares every step of the two days before and after the passed date,
+   * along with their starts.
+   */
+  private static void assertMatchesAround(DayBucketer dayBucketer, LocalDate date) {
+    final ZoneId zoneId = dayBucketer.getZoneId();
+    final long endMillis = toEpochMillis(date.plusDays(3), zoneId);
+    for (long epochMillis = toEpochMillis(date.minusDays(2), zoneId); epochMillis < endMillis;
+        epochMillis += STEP_MILLIS) {
+      assertMatches(dayBucketer, epochMillis);
+    }
+    for (LocalDate day = date.minusDays(2); day.isBefore(date.plusDays(3)); day = day.plusDays(1)) {
+      assertEquals(toEpochMillis(day, zoneId), dayBucketer.getStartOfDayMillis(day), day.toString());
+    }
+  }
+
+  private static void assertMatches(DayBucketer dayBucketer, long epochMillis) {
+    final ZonedDateTime zonedDateTime = Instant.ofEpochMilli(epochMillis).atZone(dayBucketer.getZoneId());
+    final String message = zonedDateTime.toString();
+    assertEquals(zonedDateTime.toLocalDate(), dayBucketer.getDate(epochMillis), message);
+    assertEquals(zonedDateTime.getHour() * 60 + zonedDateTime.getMinute(), dayBucketer.getMinuteOfDay(epochMillis),
+        message);
+  }
+
+  private static long dayLengthMillis(DayBucketer dayBucketer, LocalDate date) {
+    return dayBucketer.getStartOfDayMillis(date.plusDays(1)) - dayBucketer.getStartOfDayMillis(date);
+  }
+
+  private static long toEpochMillis(LocalDate date, ZoneId zoneId) {
+    return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,93 @@
+package me.eeshe.tempus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LongLongHashMapTest {
+
+  @Test
+  void returnsZeroForMissingKeys() {
+    final LongLongHashMap map = new LongLongHashMap();
+    map.addTo(1, 5);
+
+    assertEquals(5, map.get(1));
+    assertEquals(0, map.get(2));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void keepsValuesWhileGrowing() {
+    final LongLongHashMap map = new LongLongHashMap(4);
+    for (long key = 0; key < 10_000; key++) {
+      map.addTo(key, key);
+      map.addTo(key, 1);
+    }
+
+    assertEquals(10_000, map.size());
+    for (long key = 0; key < 10_000; key++) {
+      assertEquals(key + 1, map.get(key));
+    }
+  }
+
+  @Test
+  void tellsApartKeysThatOnlyDifferInTheirHighBits() {
+    // Packed keys, such as a day index above a dictionary id
+    final LongLongHashMap map = new LongLongHashMap(4);
+    for (long high = 0; high < 1_000; high++) {
+      map.addTo(high << 32 | 7, high);
+      map.addTo(high << 33, -high);
+    }
+
+    assertEquals(2_000, map.size());
+    for (long high = 0; high < 1_000; high++) {
+      assertEquals(high, map.get(high << 32 | 7));
+      assertEquals(-high, map.get(high << 33));
+    }
+  }
+
+  @Test
+  void storesNegativeKeys() {
+    final LongLongHashMap map = new LongLongHashMap();
+    map.addTo(-1, 3);
+    map.addTo(Long.MIN_VALUE + 1, 4);
+    map.addTo(Long.MAX_VALUE, 5);
+    map.addTo(-1, -3);
+
+    assertEquals(3, map.size());
+    assertEquals(0, map.get(-1));
+    assertEquals(4, map.get(Long.MIN_VALUE + 1));
+    assertEquals(5, map.get(Long.MAX_VALUE));
+  }
+
+  @Test
+  void visitsEveryEntry() {
+    final LongLongHashMap map = new LongLongHashMap(4);
+    final Map<Long, Long> expectedEntries = new HashMap<>();
+    for (long key = -500; key < 500; key++) {
+      map.addTo(key * 31, key);
+      expectedEntries.put(key * 31, key);
+    }
+
+    final Map<Long, Long> entries = new HashMap<>();
+    map.forEach((key, value) -> entries.put(key, value));
+    assertEquals(expectedEntries, entries);
+  }
+
+  @Test
+  void startsOverAfterClearing() {
+    final LongLongHashMap map = new LongLongHashMap(4);
+    for (long key = 0; key < 100; key++) {
+      map.addTo(key, 10);
+    }
+    map.clear();
+    map.addTo(3, 1);
+
+    assertEquals(1, map.size());
+    assertEquals(1, map.get(3));
+    assertEquals(0, map.get(4));
+  }
+}